@@ -5,6 +5,10 @@
 #   ./build-leyden-aot.sh true    # Avec Spring AOT activé
 #   ./build-leyden-aot.sh false   # Avec Spring AOT désactivé (par défaut)
 #   ./build-leyden-aot.sh         # Avec Spring AOT désactivé (par défaut)
+#   ./build-leyden-aot.sh true refresh   # Cache limité au démarrage du contexte
+#
+# Par défaut (mode training), le cache est produit par une exécution d'entraînement
+# qui rejoue une charge CRUD sur un MongoDB jetable (scripts/train-aot-cache.sh).
 set -e
 
 # Couleurs pour les messages
@@ -15,6 +19,7 @@ NC='\033[0m' # No Color
 
 # Configuration par défaut
 SPRING_AOT_ENABLED=${1:-false}
+TRAINING_MODE=${2:-training}
 AOT_CACHE_FILE="app-aot-$SPRING_AOT_ENABLED.aot"
 lsof -ti:8080| xargs kill -9
 # Valider l'argument
@@ -25,6 +30,11 @@ if [ "$SPRING_AOT_ENABLED" != "true" ] && [ "$SPRING_AOT_ENABLED" != "false" ];
     echo "  false - Active -Dspring.aot.enabled=false (défaut)"
     exit 1
 fi
+if [ "$TRAINING_MODE" != "training" ] && [ "$TRAINING_MODE" != "refresh" ]; then
+    echo -e "${RED}Mode invalide: $TRAINING_MODE${NC}"
+    echo "Usage: $0 [true|false] [training|refresh]"
+    exit 1
+fi
 
 # Ajuster le nom du fichier cache selon le mode
 if [ "$SPRING_AOT_ENABLED" = "true" ]; then
@@ -83,8 +93,12 @@ if [ ! -f "$EXTRACTED_JAR" ]; then
 fi
 
 # Générer le cache AOT
-echo -e "${GREEN}Génération du cache AOT avec -Dspring.aot.enabled=$SPRING_AOT_ENABLED${NC}"
-java -Dspring.aot.enabled=$SPRING_AOT_ENABLED -Dspring.context.exit=onRefresh -XX:AOTCacheOutput="$AOT_CACHE_FILE" -jar "$EXTRACTED_JAR"
+echo -e "${GREEN}Génération du cache AOT avec -Dspring.aot.enabled=$SPRING_AOT_ENABLED (mode $TRAINING_MODE)${NC}"
+if [ "$TRAINING_MODE" = "training" ]; then
+    "$(dirname "$0")/scripts/train-aot-cache.sh" "$EXTRACTED_JAR" "$AOT_CACHE_FILE" "$SPRING_AOT_ENABLED"
+else
+    java -Dspring.aot.enabled=$SPRING_AOT_ENABLED -Dspring.context.exit=onRefresh -XX:AOTCacheOutput="$AOT_CACHE_FILE" -jar "$EXTRACTED_JAR"
+fi
 
 if [ $? -ne 0 ]; then
     echo -e "${RED}Erreur lors de la génération du cache AOT${NC}"
@@ -0,0 +1,259 @@
+#!/usr/bin/env python3
+"""Compare démarrage et empreinte des modes de déploiement (JVM, CDS, cache AOT, natif).
+
+Usage : scripts/bench-startup.py [--runs 5] [--variants jvm,cds,leyden,...] [--skip-build]
+
+Chaque variante est construite une fois (sauf --skip-build), puis démarrée --runs
+fois sur un MongoDB jetable (mongo:8, ou --mongodb-uri). Pour chaque démarrage :
+  - ready       : temps jusqu'à /actuator/health/readiness = UP
+  - first       : temps jusqu'à la première réponse 200 de GET /api/persons
+  - rps         : débit de GET /api/persons pendant --duration secondes (défaut 30),
+                  lancé dès la première réponse, détaillé sur les 5 premières et
+                  les 5 dernières secondes pour voir la montée en régime
+  - rss         : mémoire résidente du processus à la fin de cette charge
+
+Le rapport (médiane, min et max par variante) est écrit dans target/bench/startup-report.md
+et les mesures brutes dans target/bench/startup-results.json.
+
+Pour approcher un pod 512Mi/500m, --cpus épingle le processus (taskset) et fixe
+-XX:ActiveProcessorCount, --max-ram fixe -XX:MaxRAM. Une fraction de CPU ne se
+reproduit qu'avec des cgroups : lancer alors le script dans un conteneur
+(docker run --cpus=0.5 --memory=512m ...). Le générateur de charge, en Python,
+plafonne autour de quelques milliers de requêtes par seconde : les débits servent
+à comparer les variantes entre elles, pas à dimensionner.
+"""
+import argparse
+import json
+import os
+import shutil
+import statistics
+import subprocess
+import sys
+import threading
+import time
+import urllib.error
+import urllib.request
+from pathlib import Path
+
+ROOT = Path(__file__).resolve().parent.parent
+BENCH_DIR = ROOT / "target" / "bench"
+EXTRACTED_JAR = BENCH_DIR / "extracted" / "app.jar"
+NATIVE_BINARY = ROOT / "target" / "demo"
+MONGO_CONTAINER = "demo-bench-startup-mongo"
+MONGO_PORT = 27019
+APP_PORT = 18080
+SEED_PERSONS = 1000
+
+# nom -> (construction, ligne de commande)
+VARIANTS = {
+    "jvm": ("jar", ["-Dspring.aot.enabled=false"]),
+    "jvm-spring-aot": ("jar", ["-Dspring.aot.enabled=true"]),
+    "cds": ("cds", ["-Dspring.aot.enabled=false", "-XX:SharedArchiveFile={cds_false}"]),
+    "cds-spring-aot": ("cds", ["-Dspring.aot.enabled=true", "-XX:SharedArchiveFile={cds_true}"]),
+    "leyden": ("leyden", ["-Dspring.aot.enabled=false", "-XX:AOTCache={aot_false}"]),
+    "leyden-spring-aot": ("leyden", ["-Dspring.aot.enabled=true", "-XX:AOTCache={aot_true}"]),
+    "native": ("native", []),
+}
+
+ARTIFACTS = {
+    "cds_false": BENCH_DIR / "app-cds-false.jsa",
+    "cds_true": BENCH_DIR / "app-cds-true.jsa",
+    "aot_false": BENCH_DIR / "app-aot-false.aot",
+    "aot_true": BENCH_DIR / "app-aot-true.aot",
+}
+
+
+def run(command, **kwargs):
+    print("$ " + " ".join(str(part) for part in command), flush=True)
+    subprocess.run(command, cwd=ROOT, check=True, **kwargs)
+
+
+def build(kinds, mongodb_uri):
+    # Un seul jar, traité par Spring AOT : utilisable avec spring.aot.enabled=true ou false
+    run(["mvn", "-B", "-q", "clean", "compile", "spring-boot:process-aot", "package", "-DskipTests"])
+    jar = next(path for path in (ROOT / "target").glob("*.jar") if not path.name.endswith(".original"))
+    shutil.rmtree(EXTRACTED_JAR.parent, ignore_errors=True)
+    run(["java", "-Djarmode=tools", "-jar", jar, "extract", "--destination", EXTRACTED_JAR.parent])
+    (EXTRACTED_JAR.parent / jar.name).rename(EXTRACTED_JAR)
+    for spring_aot in ("false", "true"):
+        if "cds" in kinds:
+            run(["java", f"-Dspring.aot.enabled={spring_aot}", "-Dspring.context.exit=onRefresh",
+                 f"-XX:ArchiveClassesAtExit={ARTIFACTS['cds_' + spring_aot]}", "-jar", EXTRACTED_JAR])
+        if "leyden" in kinds:
+            run([ROOT / "scripts" / "train-aot-cache.sh", EXTRACTED_JAR, ARTIFACTS["aot_" + spring_aot], spring_aot],
+                env={**os.environ, "TRAINING_MONGODB_URI": mongodb_uri})
+    if "native" in kinds:
+        run(["mvn", "-B", "-q", "-Pnative", "native:compile", "-DskipTests"])
+
+
+def start_mongo():
+    subprocess.run(["docker", "rm", "-f", MONGO_CONTAINER], capture_output=True)
+    run(["docker", "run", "-d", "--rm", "--name", MONGO_CONTAINER, "-p", f"{MONGO_PORT}:27017", "mongo:8"],
+        stdout=subprocess.DEVNULL)
+    seed = (f"db.persons.insertMany(Array.from({{length: {SEED_PERSONS}}}, "
+            "(_, i) => ({name: 'Bench ' + i, age: 18 + i % 60, version: NumberLong(0)})))")
+    for _ in range(120):
+        if subprocess.run(["docker", "exec", MONGO_CONTAINER, "mongosh", "--quiet", "bench", "--eval", seed],
+                          capture_output=True).returncode == 0:
+            return f"mongodb://localhost:{MONGO_PORT}/bench"
+        time.sleep(0.5)
+    raise RuntimeError("MongoDB did not start")
+
+
+def command(variant, args, mongodb_uri):
+    kind, flags = VARIANTS[variant]
+    flags = [flag.format(**ARTIFACTS) for flag in flags]
+    if args.max_ram:
+        flags.append(f"-XX:MaxRAM={args.max_ram}")
+    if args.cpus:
+        flags.append(f"-XX:ActiveProcessorCount={args.cpus}")
+    app_args = [f"--server.port={APP_PORT}", f"--spring.mongodb.uri={mongodb_uri}",
+                "--persons.indexes.reconcile-on-startup=false", "--persons.cache.coherence.enabled=false"]
+    if kind == "native":
+        line = [str(NATIVE_BINARY), *flags, *app_args]
+    else:
+        line = ["java", *flags, "-jar", str(EXTRACTED_JAR), *app_args]
+    if args.cpus and shutil.which("taskset"):
+        line = ["taskset", "-c", f"0-{args.cpus - 1}", *line]
+    return line
+
+
+def status(path):
+    try:
+        with urllib.request.urlopen(f"http://localhost:{APP_PORT}{path}", timeout=1) as response:
+            response.read()
+            return response.status
+    except (urllib.error.URLError, ConnectionError, TimeoutError):
+        return None
+
+
+def rss_kib(pid):
+    try:
+        with open(f"/proc/{pid}/status", encoding="ascii") as f:
+            for line in f:
+                if line.startswith("VmRSS:"):
+                    return int(line.split()[1])
+    except FileNotFoundError:
+        pass
+    output = subprocess.run(["ps", "-o", "rss=", "-p", str(pid)], capture_output=True, text=True).stdout
+    return int(output.strip() or 0)
+
+
+def load(duration, clients):
+    """Requêtes réussies par seconde écoulée, clients en boucle fermée."""
+    per_second = [0] * duration
+    lock = threading.Lock()
+    start = time.monotonic()
+
+    def client():
+        while (elapsed := time.monotonic() - start) < duration:
+            if status("/api/persons?limit=20") == 200:
+                with lock:
+                    per_second[int(elapsed)] += 1
+
+    threads = [threading.Thread(target=client, daemon=True) for _ in range(clients)]
+    for thread in threads:
+        thread.start()
+    for thread in threads:
+        thread.join()
+    return per_second
+
+
+def measure(variant, args, mongodb_uri):
+    # L'application (ou taskset) est le processus lancé : pas de shell intermédiaire
+    started = time.monotonic()
+    process = subprocess.Popen(command(variant, args, mongodb_uri), cwd=ROOT,
+                               stdout=subprocess.DEVNULL, stderr=subprocess.DEVNULL)
+    try:
+        ready = first = None
+        deadline = started + args.timeout
+        while (ready is None or first is None) and time.monotonic() < deadline:
+            if process.poll() is not None:
+                raise RuntimeError(f"{variant} exited with code {process.returncode}")
+            if ready is None and status("/actuator/health/readiness") == 200:
+                ready = time.monotonic() - started
+            if first is None and status("/api/persons?limit=20") == 200:
+                first = time.monotonic() - started
+            time.sleep(0.005)
+        if ready is None or first is None:
+            raise RuntimeError(f"{variant} not ready after {args.timeout}s")
+        per_second = load(args.duration, args.clients)
+        return {
+            "ready_s": ready,
+            "first_response_s": first,
+            "rps": sum(per_second) / args.duration,
+            "rps_first_5s": sum(per_second[:5]) / 5,
+            "rps_last_5s": sum(per_second[-5:]) / 5,
+            "rss_mib": rss_kib(process.pid) / 1024,
+        }
+    finally:
+        process.terminate()
+        try:
+            process.wait(timeout=30)
+        except subprocess.TimeoutExpired:
+            process.kill()
+
+
+def report(results, args):
+    columns = [("ready_s", "ready (s)", "{:.2f}"), ("first_response_s", "1re réponse (s)", "{:.2f}"),
+               ("rps_first_5s", "req/s 0-5 s", "{:.0f}"), ("rps_last_5s", f"req/s {args.duration - 5}-{args.duration} s", "{:.0f}"),
+               ("rps", f"req/s moyen {args.duration} s", "{:.0f}"), ("rss_mib", "RSS (MiB)", "{:.0f}")]
+    lines = [f"# Démarrage et empreinte ({args.runs} démarrages par variante, médiane [min-max])", "",
+             f"cpus={args.cpus or 'tous'}, max-ram={args.max_ram or 'défaut'}, clients={args.clients}", "",
+             "| variante | " + " | ".join(title for _, title, _ in columns) + " |",
+             "|---" * (len(columns) + 1) + "|"]
+    for variant, runs in results.items():
+        cells = []
+        for key, _, fmt in columns:
+            values = [run[key] for run in runs]
+            cells.append(f"{fmt.format(statistics.median(values))} "
+                         f"[{fmt.format(min(values))}-{fmt.format(max(values))}]")
+        lines.append(f"| {variant} | " + " | ".join(cells) + " |")
+    return "\n".join(lines) + "\n"
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("--runs", type=int, default=5, help="démarrages par variante (défaut 5)")
+    parser.add_argument("--variants", default=",".join(VARIANTS), help="variantes, séparées par des virgules")
+    parser.add_argument("--duration", type=int, default=30, help="durée de la charge en secondes (défaut 30)")
+    parser.add_argument("--clients", type=int, default=16, help="clients concurrents de la charge (défaut 16)")
+    parser.add_argument("--cpus", type=int, help="nombre de CPU visibles par l'application")
+    parser.add_argument("--max-ram", help="mémoire vue par la JVM, par exemple 512m")
+    parser.add_argument("--timeout", type=int, default=120, help="attente maximale du démarrage en secondes")
+    parser.add_argument("--mongodb-uri", help="MongoDB existant (sinon conteneur mongo:8 jetable)")
+    parser.add_argument("--skip-build", action="store_true", help="réutilise les artefacts de target/")
+    args = parser.parse_args()
+
+    variants = args.variants.split(",")
+    unknown = [variant for variant in variants if variant not in VARIANTS]
+    if unknown:
+        parser.error(f"unknown variants: {', '.join(unknown)} (expected {', '.join(VARIANTS)})")
+    if args.duration < 5:
+        parser.error("--duration must be at least 5 seconds")
+
+    mongodb_uri = args.mongodb_uri or start_mongo()
+    try:
+        BENCH_DIR.mkdir(parents=True, exist_ok=True)
+        if not args.skip_build:
+            build({VARIANTS[variant][0] for variant in variants}, mongodb_uri)
+        results = {}
+        for variant in variants:
+            results[variant] = []
+            for i in range(args.runs):
+                result = measure(variant, args, mongodb_uri)
+                print(f"{variant} #{i + 1}: " + ", ".join(f"{k}={v:.2f}" for k, v in result.items()), flush=True)
+                results[variant].append(result)
+    finally:
+        if not args.mongodb_uri:
+            subprocess.run(["docker", "stop", MONGO_CONTAINER], capture_output=True)
+
+    (BENCH_DIR / "startup-results.json").write_text(json.dumps(results, indent=2), encoding="utf-8")
+    text = report(results, args)
+    (BENCH_DIR / "startup-report.md").write_text(text, encoding="utf-8")
+    print(text)
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
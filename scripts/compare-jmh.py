@@ -0,0 +1,59 @@
+#!/usr/bin/env python3
+"""Compare deux résultats JMH (-rf json) et échoue si un benchmark régresse.
+
+Usage : scripts/compare-jmh.py baseline.json current.json [--threshold 10]
+
+Une régression est une dégradation du score supérieure au seuil (en %) : une
+baisse pour les modes en débit (thrpt), une hausse pour les modes en temps
+(avgt, sample, ss). Les benchmarks absents d'un des deux fichiers sont signalés
+sans faire échouer la comparaison.
+"""
+import argparse
+import json
+import sys
+
+
+def load(path):
+    with open(path, encoding="utf-8") as f:
+        results = json.load(f)
+    scores = {}
+    for result in results:
+        params = result.get("params") or {}
+        key = result["benchmark"] + "".join(f" {k}={v}" for k, v in sorted(params.items()))
+        metric = result["primaryMetric"]
+        scores[key] = (result["mode"], metric["score"], metric.get("scoreError"), metric["scoreUnit"])
+    return scores
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("baseline")
+    parser.add_argument("current")
+    parser.add_argument("--threshold", type=float, default=10.0, help="régression tolérée en %% (défaut 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    current = load(args.current)
+    regressions = 0
+    for key in sorted(baseline.keys() | current.keys()):
+        if key not in baseline or key not in current:
+            print(f"?    {key}: {'new' if key in current else 'removed'}")
+            continue
+        mode, before, _, unit = baseline[key]
+        _, after, error, _ = current[key]
+        change = (after - before) / before * 100 if before else 0.0
+        worse = -change if mode == "thrpt" else change
+        status = "FAIL" if worse > args.threshold else "ok"
+        if status == "FAIL":
+            regressions += 1
+        error_text = f" ± {error:.3f}" if isinstance(error, (int, float)) and error == error else ""
+        print(f"{status:4} {key}: {before:.3f} -> {after:.3f}{error_text} {unit} ({change:+.1f}%)")
+
+    if regressions:
+        print(f"{regressions} benchmark(s) regressed by more than {args.threshold}%", file=sys.stderr)
+        return 1
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
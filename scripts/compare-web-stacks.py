@@ -0,0 +1,279 @@
+#!/usr/bin/env python3
+"""Compare la pile servlet (MVC + threads virtuels) et la pile réactive (WebFlux) sous charge.
+
+Usage : scripts/compare-web-stacks.py [--connections 10000] [--duration 60] [--skip-build]
+
+Le même jar est démarré deux fois sur un MongoDB jetable (mongo:8, ou --mongodb-uri) :
+  - servlet  : profil par défaut, MongoRepository bloquant
+  - reactive : profil reactive, ReactiveMongoRepository
+Le cache par id et le limiteur de concurrence sont désactivés pour comparer les deux
+modèles d'entrées-sorties, pas les protections de la pile servlet.
+
+k6 (binaire local, sinon image grafana/k6) maintient --connections utilisateurs
+virtuels, chacun avec sa connexion keep-alive, qui enchaînent GET /api/persons?limit=20
+et GET /api/persons/{id} séparés de --think-time secondes. Par pile :
+  - rps       : requêtes réussies par seconde sur la durée de la charge
+  - p50 / p99 : latence des requêtes (ms)
+  - errors    : part des requêtes en échec
+  - rss       : mémoire résidente au repos, au pic de charge, et écart ramené à
+                10 000 connexions, la donnée utile pour dimensionner les pods
+
+Le rapport est écrit dans target/bench/web-stacks-report.md et les mesures brutes dans
+target/bench/web-stacks-results.json. Le générateur doit tourner sur une autre machine
+que l'application (ou sur des CPU distincts, voir --cpus) pour ne pas fausser le débit.
+"""
+import argparse
+import json
+import os
+import shutil
+import statistics
+import subprocess
+import sys
+import tempfile
+import threading
+import time
+import urllib.error
+import urllib.request
+from pathlib import Path
+
+ROOT = Path(__file__).resolve().parent.parent
+BENCH_DIR = ROOT / "target" / "bench"
+MONGO_CONTAINER = "demo-bench-web-stacks-mongo"
+MONGO_PORT = 27020
+APP_PORT = 18081
+SEED_PERSONS = 10000
+
+STACKS = {
+    "servlet": [],
+    "reactive": ["--spring.profiles.active=reactive"],
+}
+
+K6_SCRIPT = """
+import http from 'k6/http';
+import { sleep } from 'k6';
+
+const base = __ENV.BASE_URL;
+const ids = JSON.parse(open(__ENV.IDS_FILE));
+
+export const options = {
+  scenarios: {
+    connections: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: __ENV.RAMP, target: parseInt(__ENV.VUS) },
+        { duration: __ENV.DURATION, target: parseInt(__ENV.VUS) },
+      ],
+      gracefulRampDown: '5s',
+    },
+  },
+  summaryTrendStats: ['p(50)', 'p(99)', 'max'],
+};
+
+export default function () {
+  http.get(`${base}/api/persons?limit=20`);
+  sleep(parseFloat(__ENV.THINK_TIME));
+  http.get(`${base}/api/persons/${ids[Math.floor(Math.random() * ids.length)]}`);
+  sleep(parseFloat(__ENV.THINK_TIME));
+}
+"""
+
+
+def run(command, **kwargs):
+    print("$ " + " ".join(str(part) for part in command), flush=True)
+    subprocess.run(command, cwd=ROOT, check=True, **kwargs)
+
+
+def start_mongo():
+    subprocess.run(["docker", "rm", "-f", MONGO_CONTAINER], capture_output=True)
+    run(["docker", "run", "-d", "--rm", "--name", MONGO_CONTAINER, "-p", f"{MONGO_PORT}:27017", "mongo:8"],
+        stdout=subprocess.DEVNULL)
+    seed = (f"db.persons.insertMany(Array.from({{length: {SEED_PERSONS}}}, "
+            "(_, i) => ({name: 'Bench ' + i, age: 18 + i % 60, version: NumberLong(0)})))")
+    for _ in range(120):
+        if subprocess.run(["docker", "exec", MONGO_CONTAINER, "mongosh", "--quiet", "bench", "--eval", seed],
+                          capture_output=True).returncode == 0:
+            return f"mongodb://localhost:{MONGO_PORT}/bench"
+        time.sleep(0.5)
+    raise RuntimeError("MongoDB did not start")
+
+
+def command(stack, args, jar, mongodb_uri):
+    flags = []
+    if args.max_ram:
+        flags.append(f"-XX:MaxRAM={args.max_ram}")
+    if args.cpus:
+        flags.append(f"-XX:ActiveProcessorCount={args.cpus}")
+    app_args = [f"--server.port={APP_PORT}", f"--spring.mongodb.uri={mongodb_uri}",
+                "--persons.indexes.reconcile-on-startup=false", "--persons.cache.enabled=false",
+                "--persons.cache.coherence.enabled=false", "--persons.concurrency-limit.enabled=false",
+                # Tomcat refuse au-delà de 8192 connexions par défaut
+                f"--server.tomcat.max-connections={args.connections * 2}",
+                *STACKS[stack]]
+    line = ["java", *flags, "-jar", str(jar), *app_args]
+    if args.cpus and shutil.which("taskset"):
+        line = ["taskset", "-c", f"0-{args.cpus - 1}", *line]
+    return line
+
+
+def get(path):
+    try:
+        with urllib.request.urlopen(f"http://localhost:{APP_PORT}{path}", timeout=2) as response:
+            return response.status, response.read()
+    except (urllib.error.URLError, ConnectionError, TimeoutError):
+        return None, None
+
+
+def rss_kib(pid):
+    try:
+        with open(f"/proc/{pid}/status", encoding="ascii") as f:
+            for line in f:
+                if line.startswith("VmRSS:"):
+                    return int(line.split()[1])
+    except FileNotFoundError:
+        pass
+    output = subprocess.run(["ps", "-o", "rss=", "-p", str(pid)], capture_output=True, text=True).stdout
+    return int(output.strip() or 0)
+
+
+def k6_command(script, ids_file, summary, args):
+    env = {"BASE_URL": f"http://localhost:{APP_PORT}", "IDS_FILE": ids_file, "VUS": str(args.connections),
+           "RAMP": f"{args.ramp}s", "DURATION": f"{args.duration}s", "THINK_TIME": str(args.think_time)}
+    env_flags = [flag for key, value in env.items() for flag in ("-e", f"{key}={value}")]
+    if shutil.which("k6"):
+        return ["k6", "run", "--quiet", "--summary-export", summary, *env_flags, script]
+    # Même chemin dans le conteneur que sur l'hôte pour le script, les ids et le résumé
+    directory = os.path.dirname(script)
+    return ["docker", "run", "--rm", "--network", "host", "--ulimit", "nofile=1048576:1048576",
+            "-v", f"{directory}:{directory}", "grafana/k6", "run", "--quiet", "--summary-export", summary,
+            *env_flags, script]
+
+
+def measure(stack, args, jar, mongodb_uri):
+    process = subprocess.Popen(command(stack, args, jar, mongodb_uri), cwd=ROOT,
+                               stdout=subprocess.DEVNULL, stderr=subprocess.DEVNULL)
+    try:
+        deadline = time.monotonic() + args.timeout
+        body = None
+        while body is None and time.monotonic() < deadline:
+            if process.poll() is not None:
+                raise RuntimeError(f"{stack} exited with code {process.returncode}")
+            code, content = get(f"/api/persons?limit={args.ids}")
+            body = content if code == 200 else None
+            time.sleep(0.1)
+        if body is None:
+            raise RuntimeError(f"{stack} not ready after {args.timeout}s")
+        # Échauffement du JIT avant la mesure au repos
+        for _ in range(2000):
+            get("/api/persons?limit=20")
+        idle = rss_kib(process.pid)
+
+        with tempfile.TemporaryDirectory(dir=BENCH_DIR) as directory:
+            script = os.path.join(directory, "load.js")
+            ids_file = os.path.join(directory, "ids.json")
+            summary = os.path.join(directory, "summary.json")
+            Path(script).write_text(K6_SCRIPT, encoding="utf-8")
+            Path(ids_file).write_text(json.dumps([person["id"] for person in json.loads(body)]), encoding="utf-8")
+
+            samples = []
+            stop = threading.Event()
+
+            def sample():
+                while not stop.wait(0.5):
+                    samples.append(rss_kib(process.pid))
+
+            sampler = threading.Thread(target=sample, daemon=True)
+            sampler.start()
+            try:
+                run(k6_command(script, ids_file, summary, args))
+            finally:
+                stop.set()
+                sampler.join()
+            metrics = json.loads(Path(summary).read_text(encoding="utf-8"))["metrics"]
+
+        peak = max(samples, default=idle)
+        duration = metrics["http_req_duration"]
+        return {
+            "rps": metrics["http_reqs"]["rate"] * (1 - metrics["http_req_failed"]["value"]),
+            "p50_ms": duration["p(50)"],
+            "p99_ms": duration["p(99)"],
+            "error_rate": metrics["http_req_failed"]["value"],
+            "rss_idle_mib": idle / 1024,
+            "rss_peak_mib": peak / 1024,
+            "rss_per_10k_mib": (peak - idle) / 1024 * 10000 / args.connections,
+        }
+    finally:
+        process.terminate()
+        try:
+            process.wait(timeout=30)
+        except subprocess.TimeoutExpired:
+            process.kill()
+
+
+def report(results, args):
+    columns = [("rps", "req/s", "{:.0f}"), ("p50_ms", "p50 (ms)", "{:.1f}"), ("p99_ms", "p99 (ms)", "{:.1f}"),
+               ("error_rate", "erreurs", "{:.2%}"), ("rss_idle_mib", "RSS repos (MiB)", "{:.0f}"),
+               ("rss_peak_mib", "RSS pic (MiB)", "{:.0f}"), ("rss_per_10k_mib", "RSS / 10k conn. (MiB)", "{:.0f}")]
+    lines = [f"# Servlet contre réactif ({args.runs} mesures par pile, médiane [min-max])", "",
+             f"connexions={args.connections}, durée={args.duration} s, think-time={args.think_time} s, "
+             f"cpus={args.cpus or 'tous'}, max-ram={args.max_ram or 'défaut'}", "",
+             "| pile | " + " | ".join(title for _, title, _ in columns) + " |",
+             "|---" * (len(columns) + 1) + "|"]
+    for stack, runs in results.items():
+        cells = []
+        for key, _, fmt in columns:
+            values = [run[key] for run in runs]
+            cells.append(f"{fmt.format(statistics.median(values))} "
+                         f"[{fmt.format(min(values))}-{fmt.format(max(values))}]")
+        lines.append(f"| {stack} | " + " | ".join(cells) + " |")
+    return "\n".join(lines) + "\n"
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__.splitlines()[0])
+    parser.add_argument("--runs", type=int, default=3, help="mesures par pile (défaut 3)")
+    parser.add_argument("--stacks", default=",".join(STACKS), help="piles, séparées par des virgules")
+    parser.add_argument("--connections", type=int, default=10000, help="connexions simultanées (défaut 10000)")
+    parser.add_argument("--duration", type=int, default=60, help="durée du plateau en secondes (défaut 60)")
+    parser.add_argument("--ramp", type=int, default=30, help="montée jusqu'au plateau en secondes (défaut 30)")
+    parser.add_argument("--think-time", type=float, default=1.0, help="pause entre requêtes en secondes (défaut 1)")
+    parser.add_argument("--ids", type=int, default=1000, help="personnes lues par id (défaut 1000)")
+    parser.add_argument("--cpus", type=int, help="nombre de CPU visibles par l'application")
+    parser.add_argument("--max-ram", help="mémoire vue par la JVM, par exemple 1g")
+    parser.add_argument("--timeout", type=int, default=120, help="attente maximale du démarrage en secondes")
+    parser.add_argument("--mongodb-uri", help="MongoDB existant (sinon conteneur mongo:8 jetable)")
+    parser.add_argument("--skip-build", action="store_true", help="réutilise le jar de target/")
+    args = parser.parse_args()
+
+    stacks = args.stacks.split(",")
+    unknown = [stack for stack in stacks if stack not in STACKS]
+    if unknown:
+        parser.error(f"unknown stacks: {', '.join(unknown)} (expected {', '.join(STACKS)})")
+
+    BENCH_DIR.mkdir(parents=True, exist_ok=True)
+    if not args.skip_build:
+        run(["mvn", "-B", "-q", "clean", "package", "-DskipTests"])
+    jar = next(path for path in (ROOT / "target").glob("*.jar") if not path.name.endswith(".original"))
+
+    mongodb_uri = args.mongodb_uri or start_mongo()
+    try:
+        results = {}
+        for stack in stacks:
+            results[stack] = []
+            for i in range(args.runs):
+                result = measure(stack, args, jar, mongodb_uri)
+                print(f"{stack} #{i + 1}: " + ", ".join(f"{k}={v:.2f}" for k, v in result.items()), flush=True)
+                results[stack].append(result)
+    finally:
+        if not args.mongodb_uri:
+            subprocess.run(["docker", "stop", MONGO_CONTAINER], capture_output=True)
+
+    (BENCH_DIR / "web-stacks-results.json").write_text(json.dumps(results, indent=2), encoding="utf-8")
+    text = report(results, args)
+    (BENCH_DIR / "web-stacks-report.md").write_text(text, encoding="utf-8")
+    print(text)
+    return 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
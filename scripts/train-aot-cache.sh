@@ -0,0 +1,36 @@
+#!/bin/bash
+
+# Génère un cache AOT (JDK 25, -XX:AOTCacheOutput) à partir d'une exécution
+# d'entraînement : l'application démarre sur un MongoDB jetable, rejoue une charge
+# CRUD sur /api/persons (profil training) puis s'arrête, ce qui écrit le cache.
+# Le cache contient alors les classes et les profils de méthodes du chemin des
+# requêtes, pas seulement ceux du démarrage du contexte.
+#
+# Usage:
+#   scripts/train-aot-cache.sh <app.jar> <fichier.aot> [true|false]
+#     true|false : -Dspring.aot.enabled (défaut false)
+#
+# Variables:
+#   TRAINING_MONGODB_URI  MongoDB existant à utiliser (sinon conteneur mongo:8 jetable)
+#   TRAINING_ITERATIONS   cycles CRUD par client (défaut 500)
+set -e
+
+JAR_FILE=${1:?Usage: $0 <app.jar> <fichier.aot> [true|false]}
+AOT_CACHE_FILE=${2:?Usage: $0 <app.jar> <fichier.aot> [true|false]}
+SPRING_AOT_ENABLED=${3:-false}
+MONGO_CONTAINER=demo-aot-training-mongo
+
+if [ -z "$TRAINING_MONGODB_URI" ]; then
+    docker run -d --rm --name "$MONGO_CONTAINER" -p 27018:27017 mongo:8 > /dev/null
+    trap 'docker stop "$MONGO_CONTAINER" > /dev/null' EXIT
+    until docker exec "$MONGO_CONTAINER" mongosh --quiet --eval "db.runCommand({ ping: 1 })" > /dev/null 2>&1; do
+        sleep 0.5
+    done
+    export TRAINING_MONGODB_URI=mongodb://localhost:27018/training
+fi
+
+java -Dspring.aot.enabled="$SPRING_AOT_ENABLED" \
+     -Dspring.profiles.active=training \
+     -Dtraining.iterations="${TRAINING_ITERATIONS:-500}" \
+     -XX:AOTCacheOutput="$AOT_CACHE_FILE" \
+     -jar "$JAR_FILE"
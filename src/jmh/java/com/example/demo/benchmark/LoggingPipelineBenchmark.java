@@ -0,0 +1,136 @@
+package com.example.demo.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Latence d'une « requête » (un peu de calcul et une ligne de journal JSON) quand le
+ * collecteur lit stdout à un débit limité. collectorBytesPerSecond=0 est un stdout
+ * sans limite.
+ *
+ * En sync (ConsoleAppender direct, l'ancienne configuration), le p99 suit le débit du
+ * collecteur dès qu'il sature. En async (mêmes réglages que logback-spring.xml), la
+ * file absorbe les pointes puis abandonne les INFO : le p99 reste celui du calcul.
+ * Lancer en SampleTime pour lire les percentiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class LoggingPipelineBenchmark {
+
+    // Mêmes valeurs par défaut que logging.async.* dans application.properties
+    private static final int QUEUE_SIZE = 8192;
+    private static final int DISCARDING_THRESHOLD = 1638;
+
+    @Param({"sync", "async"})
+    private String pipeline;
+
+    @Param({"0", "4194304", "262144"})
+    private long collectorBytesPerSecond;
+
+    private LoggerContext context;
+    private Logger logger;
+
+    @Setup
+    public void setUp() {
+        context = new LoggerContext();
+        LogstashEncoder encoder = new LogstashEncoder();
+        encoder.setContext(context);
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> console = new OutputStreamAppender<>();
+        console.setContext(context);
+        console.setEncoder(encoder);
+        console.setOutputStream(new CollectorOutputStream(collectorBytesPerSecond));
+        console.start();
+
+        Appender<ILoggingEvent> appender = console;
+        if (pipeline.equals("async")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(QUEUE_SIZE);
+            async.setDiscardingThreshold(DISCARDING_THRESHOLD);
+            async.setNeverBlock(false);
+            async.addAppender(console);
+            async.start();
+            appender = async;
+        }
+        logger = context.getLogger("access");
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.stop();
+    }
+
+    @Benchmark
+    public void request() {
+        Blackhole.consumeCPU(2_000);
+        logger.info("{} {} {} {}", kv("method", "GET"), kv("route", "/api/persons/{id}"), kv("status", 200),
+                kv("duration_ms", 1.25));
+    }
+
+    /**
+     * Stdout lu par un collecteur lent : chaque écriture attend que le débit consommé
+     * jusque-là repasse sous la limite, comme un tube plein.
+     */
+    private static final class CollectorOutputStream extends OutputStream {
+
+        private final long bytesPerSecond;
+        private long availableAt = System.nanoTime();
+
+        CollectorOutputStream(long bytesPerSecond) {
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public synchronized void write(byte[] b, int off, int len) {
+            if (bytesPerSecond <= 0) {
+                return;
+            }
+            long now = System.nanoTime();
+            availableAt = Math.max(availableAt, now) + len * 1_000_000_000L / bytesPerSecond;
+            long wait = availableAt - now;
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = availableAt - System.nanoTime();
+            }
+        }
+    }
+}
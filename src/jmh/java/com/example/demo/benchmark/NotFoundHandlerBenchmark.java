@@ -0,0 +1,94 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.exception.GlobalExceptionHandler;
+import com.example.demo.exception.PersonNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chemin 404 complet : exception levée à une profondeur de pile donnée (une requête
+ * Spring MVC en compte une centaine), attrapée puis convertie en ProblemDetail.
+ * legacy reproduit l'ancien chemin (pile capturée, message concaténé à la création,
+ * chaîne d'instanceof, OffsetDateTime par réponse) pour comparaison avec current.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotFoundHandlerBenchmark {
+
+    private static final String ID = "65f1a2b3c4d5e6f7a8b9c0d1";
+
+    @Param({"10", "100"})
+    private int depth;
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Benchmark
+    public ProblemDetail current() {
+        try {
+            throwAt(depth, false);
+            return null;
+        } catch (PersonNotFoundException ex) {
+            return handler.handleNotFound(ex);
+        }
+    }
+
+    @Benchmark
+    public ProblemDetail legacy() {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (RuntimeException ex) {
+            return legacyHandle(ex);
+        }
+    }
+
+    private static void throwAt(int depth, boolean legacy) {
+        if (depth > 0) {
+            throwAt(depth - 1, legacy);
+            return;
+        }
+        throw legacy ? new LegacyPersonNotFoundException(ID) : new PersonNotFoundException(ID);
+    }
+
+    static class LegacyPersonNotFoundException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        LegacyPersonNotFoundException(String id) {
+            super("Person not found with id: " + id);
+        }
+    }
+
+    private static ProblemDetail legacyHandle(Exception ex) {
+        HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
+        String title = "Internal Server Error";
+        String detail = ex.getMessage();
+        if (ex instanceof LegacyPersonNotFoundException) {
+            status = HttpStatus.NOT_FOUND;
+            title = "Not Found";
+        } else if (ex instanceof IllegalArgumentException) {
+            status = HttpStatus.BAD_REQUEST;
+            title = "Bad Request";
+        }
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
+        problem.setTitle(title);
+        problem.setProperty("timestamp", OffsetDateTime.now());
+        return problem;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.cache.NoOpPersonCache;
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.config.PersonStatsProperties;
+import com.example.demo.config.SecurityHeaderFilter;
+import com.example.demo.config.SecurityHeaderPolicy;
+import com.example.demo.config.WriteBehindProperties;
+import com.example.demo.controller.PersonController;
+import com.example.demo.entity.Person;
+import com.example.demo.exception.GlobalExceptionHandler;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.metrics.TimedJsonHttpMessageConverter;
+import com.example.demo.metrics.TimedPersonMapper;
+import com.example.demo.repository.PersonRepository;
+import com.example.demo.routing.ConsistencyTokenCodec;
+import com.example.demo.service.PersonService;
+import com.example.demo.service.PersonStatistics;
+import com.example.demo.service.PersonWriteBatcher;
+import com.example.demo.storage.EmbeddedPersonRepository;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.test.web.servlet.setup.StandaloneMockMvcBuilder;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Aller-retour HTTP complet en processus : filtre, DispatcherServlet, contrôleur,
+ * service, mapper et sérialisation JSON, sur un dépôt en mémoire et sans cache, pour
+ * que chaque requête parcoure tout le chemin applicatif.
+ * instrumented=true ajoute l'instrumentation de production (observation HTTP avec
+ * buckets SLO, mapper et sérialisation mesurés, registre Prometheus) : l'écart entre
+ * les deux variantes est le surcoût de la métrologie, à garder sous 1 % du p50. Sans
+ * Mongo, cet écart est majoré par rapport à une requête réelle.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonControllerRoundTripBenchmark {
+
+    private static final String EXISTING_ID = "%024x".formatted(42);
+
+    @Param({"false", "true"})
+    private boolean instrumented;
+
+    private MockMvc mockMvc;
+
+    @Setup
+    public void setUp() {
+        PersonRepository repository = repository(1000);
+        MeterRegistry meterRegistry = instrumented ? prometheusRegistry() : new SimpleMeterRegistry();
+        PersonMapper mapper = Mappers.getMapper(PersonMapper.class);
+        PersonService service = new PersonService(repository, instrumented ? new TimedPersonMapper(mapper, meterRegistry) : mapper,
+                new PaginationProperties(100, 1000, 10000), new NoOpPersonCache(), meterRegistry,
+                new PersonWriteBatcher(repository, new WriteBehindProperties(false, 200, Duration.ofMillis(5), 10000, 4, Duration.ofSeconds(10))),
+                new PersonStatistics(repository, new PersonStatsProperties(10, Duration.ofMinutes(5)), meterRegistry));
+        StandaloneMockMvcBuilder builder = MockMvcBuilders.standaloneSetup(new PersonController(service, ConsistencyTokenCodec.disabled()))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .addFilters(new SecurityHeaderFilter(SecurityHeaderPolicy.defaults()));
+        if (instrumented) {
+            ObservationRegistry observationRegistry = ObservationRegistry.create();
+            observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+            builder.addFilters(new ServerHttpObservationFilter(observationRegistry))
+                    .setMessageConverters(new TimedJsonHttpMessageConverter(JsonMapper.builder().build(), meterRegistry));
+        }
+        mockMvc = builder.build();
+    }
+
+    // Dépôt embarqué du profil embedded : le contrat complet de PersonRepository, vérifié
+    // par le compilateur, sans réseau ni décodage BSON
+    private static PersonRepository repository(int size) {
+        EmbeddedPersonRepository repository = new EmbeddedPersonRepository(size);
+        List<Person> persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            persons.add(new Person("%024x".formatted(i), "Person " + i, 20 + i % 60));
+        }
+        repository.bulkWrite(persons, true);
+        return repository;
+    }
+
+    // Mêmes buckets SLO que management.metrics.distribution.slo.* en production
+    private static MeterRegistry prometheusRegistry() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                double[] slo = switch (id.getName()) {
+                    case "http.server.requests" -> millis(5, 10, 25, 50, 100, 250, 500, 1000, 2500);
+                    case "http.json.write" -> millis(0.05, 0.1, 0.25, 0.5, 1, 5);
+                    default -> null;
+                };
+                return slo == null ? config
+                        : DistributionStatisticConfig.builder().serviceLevelObjectives(slo).build().merge(config);
+            }
+        });
+        return registry;
+    }
+
+    private static double[] millis(double... values) {
+        double[] nanos = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            nanos[i] = values[i] * 1_000_000;
+        }
+        return nanos;
+    }
+
+    @Benchmark
+    public MvcResult getById() throws Exception {
+        return mockMvc.perform(get("/api/persons/{id}", EXISTING_ID)).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getByIdNotFound() throws Exception {
+        return mockMvc.perform(get("/api/persons/{id}", "missing")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getFirstPage() throws Exception {
+        return mockMvc.perform(get("/api/persons").param("limit", "100")).andReturn();
+    }
+}
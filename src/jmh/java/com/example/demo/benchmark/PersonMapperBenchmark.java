@@ -0,0 +1,57 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PersonMapperBenchmark {
+
+    @Param({"1", "100", "1000"})
+    private int size;
+
+    private PersonMapper mapper;
+    private Person person;
+    private List<Person> persons;
+
+    @Setup
+    public void setUp() {
+        mapper = Mappers.getMapper(PersonMapper.class);
+        person = new Person("65f1a2b3c4d5e6f7a8b9c0d1", "John Doe", 30, 3L);
+        persons = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            persons.add(new Person("%024x".formatted(i), "Person " + i, 20 + i % 60, (long) i));
+        }
+    }
+
+    @Benchmark
+    public PersonDto toDto() {
+        return mapper.toDto(person);
+    }
+
+    @Benchmark
+    public List<PersonDto> toDtoList() {
+        return mapper.toDtoList(persons);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.benchmark;
+
+import com.example.demo.config.HeaderBundle;
+import com.example.demo.config.SecurityHeaderFilter;
+import com.example.demo.config.SecurityHeaderPolicy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête du filtre d'en-têtes, sur une route d'API et sur un asset statique.
+ * La réponse est réinitialisée à chaque appel pour ne pas accumuler d'en-têtes.
+ * classify mesure la classification seule : gc.alloc.rate.norm (profileur gc) doit
+ * rester à 0 B/op.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SecurityHeaderFilterBenchmark {
+
+    @Param({"/api/persons/65f1a2b3c4d5e6f7a8b9c0d1", "/swagger-ui/swagger-ui-bundle.js"})
+    private String path;
+
+    private final SecurityHeaderPolicy policy = SecurityHeaderPolicy.defaults();
+    private final SecurityHeaderFilter filter = new SecurityHeaderFilter(policy);
+    private final FilterChain chain = (request, response) -> {};
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", path);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public HeaderBundle classify() {
+        return policy.classify(path);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws ServletException, IOException {
+        response.reset();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
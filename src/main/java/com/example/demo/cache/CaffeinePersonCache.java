@@ -0,0 +1,98 @@
+package com.example.demo.cache;
+
+import com.example.demo.entity.Person;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache borné en taille et en durée. Le chargement d'une clé absente est atomique :
+ * les lectures concurrentes de la même clé attendent le premier chargement, et une
+ * invalidation concurrente attend sa fin, ce qui évite de remettre en cache une
+ * valeur périmée. Depuis le JDK 24 (JEP 491) cette attente ne bloque plus le
+ * thread porteur des threads virtuels.
+ */
+public class CaffeinePersonCache implements PersonCache {
+
+    static final String CACHE_NAME = "persons";
+
+    private final Cache<String, Optional<Person>> cache;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private volatile long degradedTtlNanos = -1;
+
+    public CaffeinePersonCache(PersonCacheProperties properties, MeterRegistry meterRegistry) {
+        this.ttlNanos = properties.ttl().toNanos();
+        this.negativeTtlNanos = properties.negativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new PersonExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Passe en mode dégradé quand les invalidations des autres réplicas ne sont plus
+     * reçues : le cache est vidé et les nouvelles entrées vivent au plus degradedTtl.
+     */
+    public void degrade(Duration degradedTtl) {
+        degradedTtlNanos = degradedTtl.toNanos();
+        cache.invalidateAll();
+    }
+
+    public void restore() {
+        degradedTtlNanos = -1;
+    }
+
+    public boolean isDegraded() {
+        return degradedTtlNanos >= 0;
+    }
+
+    @Override
+    public Optional<Person> get(String id, Function<String, Optional<Person>> loader) {
+        return cache.get(id, loader);
+    }
+
+    @Override
+    public Optional<Person> peek(String id) {
+        Optional<Person> cached = cache.getIfPresent(id);
+        return cached != null ? cached : Optional.empty();
+    }
+
+    @Override
+    public void invalidate(String id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private class PersonExpiry implements Expiry<String, Optional<Person>> {
+
+        @Override
+        public long expireAfterCreate(String id, Optional<Person> person, long currentTime) {
+            long ttl = person.isPresent() ? ttlNanos : negativeTtlNanos;
+            long degradedTtl = degradedTtlNanos;
+            return degradedTtl >= 0 ? Math.min(ttl, degradedTtl) : ttl;
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, Optional<Person> person, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, person, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, Optional<Person> person, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
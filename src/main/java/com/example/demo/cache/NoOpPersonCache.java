@@ -0,0 +1,27 @@
+package com.example.demo.cache;
+
+import com.example.demo.entity.Person;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+public class NoOpPersonCache implements PersonCache {
+
+    @Override
+    public Optional<Person> get(String id, Function<String, Optional<Person>> loader) {
+        return loader.apply(id);
+    }
+
+    @Override
+    public Optional<Person> peek(String id) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void invalidate(String id) {
+    }
+
+    @Override
+    public void invalidateAll() {
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.cache;
+
+import com.example.demo.entity.Person;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache de lecture devant PersonRepository. Les absences (Optional.empty) sont
+ * mises en cache aussi, pour qu'une rafale de 404 ne touche pas la base.
+ */
+public interface PersonCache {
+
+    Optional<Person> get(String id, Function<String, Optional<Person>> loader);
+
+    /**
+     * Personne en cache, sans chargement ; vide si l'id n'est pas en cache.
+     */
+    Optional<Person> peek(String id);
+
+    void invalidate(String id);
+
+    void invalidateAll();
+}
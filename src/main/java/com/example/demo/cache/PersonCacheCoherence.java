@@ -0,0 +1,166 @@
+package com.example.demo.cache;
+
+import com.example.demo.entity.Person;
+import com.mongodb.MongoCommandException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * Garde le cache local cohérent entre réplicas : un change stream sur la collection
+ * des personnes invalide les entrées modifiées par n'importe quel pod. Le dernier
+ * resume token est sauvegardé pour reprendre le flux après un redémarrage. Tant que
+ * le flux n'est pas actif, le cache est en mode dégradé (TTL court).
+ */
+public class PersonCacheCoherence implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonCacheCoherence.class);
+
+    // ChangeStreamHistoryLost / ChangeStreamFatalError : le token n'est plus utilisable
+    private static final int HISTORY_LOST = 286;
+    private static final int FATAL_ERROR = 280;
+
+    private final CaffeinePersonCache cache;
+    private final PersonCacheProperties.Coherence properties;
+    private final ResumeTokenStore tokenStore;
+    private final MessageListenerContainer container;
+    private final String collectionName;
+
+    private volatile Subscription subscription;
+    private volatile BsonDocument resumeToken;
+    private BsonDocument savedToken;
+    private volatile boolean running;
+
+    public PersonCacheCoherence(MongoTemplate mongoTemplate, CaffeinePersonCache cache,
+                                PersonCacheProperties properties, ResumeTokenStore tokenStore) {
+        this.cache = cache;
+        this.properties = properties.coherence();
+        this.tokenStore = tokenStore;
+        this.container = new DefaultMessageListenerContainer(mongoTemplate);
+        this.collectionName = mongoTemplate.getCollectionName(Person.class);
+    }
+
+    @Override
+    public void start() {
+        // Aucune invalidation n'est reçue avant l'ouverture du curseur
+        cache.degrade(properties.degradedTtl());
+        resumeToken = tokenStore.load();
+        savedToken = resumeToken;
+        container.start();
+        running = true;
+        subscribe();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        container.stop();
+        saveToken();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    public boolean isCoherent() {
+        Subscription current = subscription;
+        return running && current != null && current.isActive() && !cache.isDegraded();
+    }
+
+    // Dernier événement traité : un token nouveau signifie que l'invalidation a eu lieu
+    BsonDocument resumeToken() {
+        return resumeToken;
+    }
+
+    @Scheduled(fixedDelayString = "${persons.cache.coherence.check-interval:5s}")
+    void checkStream() {
+        if (!running) {
+            return;
+        }
+        Subscription current = subscription;
+        if (current != null && current.isActive()) {
+            if (cache.isDegraded()) {
+                cache.restore();
+                log.info("Person change stream active on '{}', cache back to normal TTL", collectionName);
+            }
+            saveToken();
+            return;
+        }
+        if (!cache.isDegraded()) {
+            cache.degrade(properties.degradedTtl());
+            log.warn("Person change stream down on '{}', cache degraded to {} TTL", collectionName,
+                    properties.degradedTtl());
+        }
+        if (current != null) {
+            container.remove(current);
+        }
+        subscribe();
+    }
+
+    void onChange(Message<ChangeStreamDocument<Document>, Document> message) {
+        ChangeStreamDocument<Document> event = message.getRaw();
+        if (event == null) {
+            return;
+        }
+        OperationType type = event.getOperationType();
+        BsonDocument key = event.getDocumentKey();
+        if (key != null && key.containsKey("_id")) {
+            cache.invalidate(idOf(key.get("_id")));
+        } else if (type == OperationType.DROP || type == OperationType.RENAME
+                || type == OperationType.DROP_DATABASE || type == OperationType.INVALIDATE) {
+            cache.invalidateAll();
+        }
+        resumeToken = event.getResumeToken();
+    }
+
+    void onError(Throwable error) {
+        if (error instanceof MongoCommandException ex
+                && (ex.getErrorCode() == HISTORY_LOST || ex.getErrorCode() == FATAL_ERROR)) {
+            // On repart du présent : les événements manqués sont couverts par le vidage du mode dégradé
+            resumeToken = null;
+            tokenStore.clear();
+        }
+        log.warn("Person change stream error on '{}': {}", collectionName, error.getMessage());
+    }
+
+    private void subscribe() {
+        ChangeStreamRequest.ChangeStreamRequestBuilder<Document> request = ChangeStreamRequest.<Document>builder(this::onChange)
+                .collection(collectionName);
+        BsonDocument token = resumeToken;
+        if (token != null) {
+            request.resumeAfter(token);
+        }
+        subscription = container.register(request.build(), Document.class, this::onError);
+    }
+
+    private synchronized void saveToken() {
+        BsonDocument token = resumeToken;
+        if (token != null && !token.equals(savedToken)) {
+            tokenStore.save(token);
+            savedToken = token;
+        }
+    }
+
+    static String idOf(BsonValue id) {
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        if (id.isString()) {
+            return id.asString().getValue();
+        }
+        return id.toString();
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+@Configuration(proxyBeanMethods = false)
+class PersonCacheConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "persons.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+    CaffeinePersonCache caffeinePersonCache(PersonCacheProperties properties, MeterRegistry meterRegistry) {
+        return new CaffeinePersonCache(properties, meterRegistry);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "persons.cache", name = "enabled", havingValue = "false")
+    PersonCache noOpPersonCache() {
+        return new NoOpPersonCache();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "persons.cache", name = {"enabled", "coherence.enabled"}, havingValue = "true")
+    PersonCacheCoherence personCacheCoherence(MongoTemplate mongoTemplate, CaffeinePersonCache cache,
+                                              PersonCacheProperties properties,
+                                              @Value("${spring.application.name}") String applicationName) {
+        return new PersonCacheCoherence(mongoTemplate, cache, properties, new ResumeTokenStore(mongoTemplate, applicationName));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Cache local des lectures par id.
+ *
+ * @param enabled     active le cache (désactivable par profil)
+ * @param maximumSize nombre maximal d'entrées
+ * @param ttl         durée de vie d'une personne trouvée
+ * @param negativeTtl durée de vie d'une absence (404)
+ * @param coherence   invalidation entre réplicas par change stream
+ */
+@ConfigurationProperties(prefix = "persons.cache")
+public record PersonCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("5m") Duration ttl,
+        @DefaultValue("30s") Duration negativeTtl,
+        @DefaultValue Coherence coherence
+) {
+
+    /**
+     * @param enabled       abonne le cache au change stream de la collection ; désactivé par défaut,
+     *                      un MongoDB autonome n'a pas de change stream (profil replica-set, k8s)
+     * @param degradedTtl   TTL maximal des entrées tant que le flux est coupé
+     * @param checkInterval fréquence de vérification et de reconnexion du flux
+     */
+    public record Coherence(
+            @DefaultValue("false") boolean enabled,
+            @DefaultValue("5s") Duration degradedTtl,
+            @DefaultValue("5s") Duration checkInterval
+    ) {}
+}
@@ -0,0 +1,44 @@
+package com.example.demo.cache;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.ReplaceOptions;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * Sauvegarde le dernier resume token du change stream des personnes dans Mongo.
+ * La clé est partagée par les réplicas d'une même application : les pods d'un
+ * Deployment changent de nom à chaque redémarrage.
+ */
+public class ResumeTokenStore {
+
+    static final String COLLECTION = "person_cache_resume_tokens";
+
+    private final MongoTemplate mongoTemplate;
+    private final BsonString key;
+
+    public ResumeTokenStore(MongoTemplate mongoTemplate, String key) {
+        this.mongoTemplate = mongoTemplate;
+        this.key = new BsonString(key);
+    }
+
+    public BsonDocument load() {
+        BsonDocument stored = collection().find(Filters.eq("_id", key)).first();
+        return stored != null && stored.isDocument("token") ? stored.getDocument("token") : null;
+    }
+
+    public void save(BsonDocument token) {
+        BsonDocument stored = new BsonDocument("_id", key).append("token", token);
+        collection().replaceOne(Filters.eq("_id", key), stored, new ReplaceOptions().upsert(true));
+    }
+
+    public void clear() {
+        collection().deleteOne(Filters.eq("_id", key));
+    }
+
+    private MongoCollection<BsonDocument> collection() {
+        return mongoTemplate.getDb().getCollection(COLLECTION, BsonDocument.class);
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.concurrent;
+
+import com.example.demo.config.ConcurrencyLimitProperties;
+import com.example.demo.repository.PersonRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+/**
+ * Délestage adaptatif devant MongoDB : avec les threads virtuels, rien ne borne sinon
+ * le nombre de requêtes en attente d'une connexion du pool.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "persons.concurrency-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+class ConcurrencyLimitConfiguration {
+
+    @Bean
+    PersonConcurrencyLimits personConcurrencyLimits(ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        return new PersonConcurrencyLimits(
+                limiter("persons.read", properties.read(), properties, meterRegistry),
+                limiter("persons.write", properties.write(), properties, meterRegistry));
+    }
+
+    private static ConcurrencyLimiter limiter(String name, ConcurrencyLimitProperties.Limit bounds,
+                                              ConcurrencyLimitProperties properties, MeterRegistry meterRegistry) {
+        VegasLimit limit = new VegasLimit(bounds.initial(), bounds.min(), bounds.max(), properties.smoothing());
+        return new ConcurrencyLimiter(name, limit, meterRegistry);
+    }
+
+    // Après l'observation HTTP (HIGHEST_PRECEDENCE + 1) : les 503 restent mesurées
+    @Bean
+    FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            PersonConcurrencyLimits limits, ConcurrencyLimitProperties properties,
+            @Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(limits, exceptionResolver, properties.retryAfter()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // Statique : les limiteurs sont résolus au premier appel, pas à la création du post-processeur
+    @Bean
+    static BeanPostProcessor personRepositoryLatencySampling(ObjectProvider<PersonConcurrencyLimits> limits) {
+        RepositoryLatencyInterceptor interceptor = new RepositoryLatencyInterceptor(SingletonSupplier.of(limits::getObject));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof PersonRepository)) {
+                    return bean;
+                }
+                // Proxy Spring Data : l'intercepteur s'ajoute à sa chaîne plutôt que d'empiler un proxy
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, interceptor);
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.addAdvice(interceptor);
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
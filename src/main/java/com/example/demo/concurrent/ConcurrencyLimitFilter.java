@@ -0,0 +1,59 @@
+package com.example.demo.concurrent;
+
+import com.example.demo.exception.ServiceOverloadedException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Admet une requête /api/persons seulement si un jeton est disponible, sinon répond
+ * 503 avec Retry-After via GlobalExceptionHandler, avant toute désérialisation ou
+ * attente de connexion MongoDB.
+ *
+ * L'export et l'import groupé ne sont pas concernés : ce sont des requêtes longues,
+ * déjà bornées par leur propre contre-pression.
+ */
+class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String PERSONS_PATH = "/api/persons";
+
+    private final PersonConcurrencyLimits limits;
+    private final HandlerExceptionResolver exceptionResolver;
+    private final Duration retryAfter;
+
+    ConcurrencyLimitFilter(PersonConcurrencyLimits limits, HandlerExceptionResolver exceptionResolver, Duration retryAfter) {
+        this.limits = limits;
+        this.exceptionResolver = exceptionResolver;
+        this.retryAfter = retryAfter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        // /api/persons et ses sous-chemins seulement, pas /api/personsX
+        boolean persons = path.equals(PERSONS_PATH) || path.startsWith(PERSONS_PATH + "/");
+        return !persons || path.equals(PERSONS_PATH + "/export") || path.equals(PERSONS_PATH + "/_bulk");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ConcurrencyLimiter limiter = limits.forHttpMethod(request.getMethod());
+        if (!limiter.tryAcquire()) {
+            exceptionResolver.resolveException(request, response, null,
+                    new ServiceOverloadedException("Too many concurrent requests", retryAfter));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo.concurrent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Jetons de concurrence bornés par une VegasLimit. tryAcquire ne bloque jamais :
+ * au-delà de la limite, l'appelant rejette immédiatement plutôt que d'attendre.
+ *
+ * Jauges concurrency.limit et concurrency.in_flight, compteur concurrency.requests
+ * (tags name et outcome accepted / rejected).
+ */
+public class ConcurrencyLimiter {
+
+    private final VegasLimit limit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter accepted;
+    private final Counter rejected;
+
+    public ConcurrencyLimiter(String name, VegasLimit limit, MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.accepted = counter(name, "accepted", meterRegistry);
+        this.rejected = counter(name, "rejected", meterRegistry);
+        Gauge.builder("concurrency.limit", limit, VegasLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in_flight", inFlight, AtomicInteger::get)
+                .description("Requests currently holding a concurrency permit")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    private static Counter counter(String name, String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("concurrency.requests")
+                .description("Requests admitted or shed by the concurrency limiter")
+                .tag("name", name)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit.getLimit()) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        accepted.increment();
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    public void onSample(long rttNanos) {
+        limit.onSample(rttNanos, inFlight.get());
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.concurrent;
+
+/**
+ * Limiteurs des lectures et des écritures de personnes : les écritures (index, journal)
+ * sont plus lentes et ne doivent pas réduire la capacité de lecture.
+ */
+public record PersonConcurrencyLimits(ConcurrencyLimiter read, ConcurrencyLimiter write) {
+
+    public ConcurrencyLimiter forHttpMethod(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) ? read : write;
+    }
+
+    public ConcurrencyLimiter forRepositoryMethod(String name) {
+        return name.startsWith("save") || name.startsWith("insert") || name.startsWith("update")
+                || name.startsWith("delete") || name.startsWith("bulk") ? write : read;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.concurrent;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.function.Supplier;
+
+/**
+ * Transmet la latence de chaque appel unitaire de PersonRepository au limiteur
+ * correspondant. Les appels groupés (saveAll, bulkWrite) et les curseurs (stream*)
+ * ne reflètent pas la latence d'une requête et ne sont pas échantillonnés.
+ */
+class RepositoryLatencyInterceptor implements MethodInterceptor {
+
+    private final Supplier<PersonConcurrencyLimits> limits;
+
+    RepositoryLatencyInterceptor(Supplier<PersonConcurrencyLimits> limits) {
+        this.limits = limits;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        if (!isSampled(method)) {
+            return invocation.proceed();
+        }
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            limits.get().forRepositoryMethod(method.getName()).onSample(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isSampled(Method method) {
+        if (method.getDeclaringClass() == Object.class || method.getName().startsWith("stream")
+                || method.getName().startsWith("bulk")) {
+            return false;
+        }
+        for (Class<?> type : method.getParameterTypes()) {
+            if (Iterable.class.isAssignableFrom(type)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.concurrent;
+
+/**
+ * Limite de concurrence adaptative à la TCP Vegas.
+ *
+ * La plus petite latence observée sert de latence à vide. Le rapport entre cette
+ * latence et la latence d'un appel donne la file d'attente estimée devant MongoDB
+ * (limite × (1 − rttÀVide / rtt)) : la limite croît tant que cette file reste courte
+ * et décroît dès qu'elle dépasse quelques unités, par pas logarithmiques. La latence
+ * à vide est réévaluée périodiquement pour suivre un changement durable de la base.
+ *
+ * Aucun ajustement tant que moins de la moitié de la limite est utilisée : la latence
+ * mesurée ne dit alors rien de la capacité.
+ */
+public class VegasLimit {
+
+    private static final int PROBE_MULTIPLIER = 30;
+
+    private final int min;
+    private final int max;
+    private final double smoothing;
+
+    private double estimate;
+    private long noLoadRtt;
+    private long samplesUntilProbe;
+    private volatile int limit;
+
+    public VegasLimit(int initial, int min, int max, double smoothing) {
+        if (min < 1 || max < min || initial < min || initial > max) {
+            throw new IllegalArgumentException("Expected 1 <= min <= initial <= max, got " + min + "/" + initial + "/" + max);
+        }
+        this.min = min;
+        this.max = max;
+        this.smoothing = smoothing;
+        this.estimate = initial;
+        this.limit = initial;
+        this.samplesUntilProbe = (long) PROBE_MULTIPLIER * initial;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public synchronized void onSample(long rttNanos, int inFlight) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        if (--samplesUntilProbe <= 0) {
+            noLoadRtt = 0;
+            samplesUntilProbe = (long) PROBE_MULTIPLIER * limit;
+        }
+        if (noLoadRtt == 0 || rttNanos < noLoadRtt) {
+            noLoadRtt = rttNanos;
+            return;
+        }
+        if (inFlight * 2 < estimate) {
+            return;
+        }
+        double queue = Math.ceil(estimate * (1 - (double) noLoadRtt / rttNanos));
+        double step = Math.max(1, Math.log10(estimate));
+        double target;
+        if (queue <= step) {
+            target = estimate + 6 * step;
+        } else if (queue < 3 * step) {
+            target = estimate + step;
+        } else if (queue > 6 * step) {
+            target = estimate - step;
+        } else {
+            return;
+        }
+        estimate = Math.clamp(estimate * (1 - smoothing) + target * smoothing, min, max);
+        limit = (int) estimate;
+    }
+}
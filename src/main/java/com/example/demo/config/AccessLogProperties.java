@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Journal d'accès échantillonné : une ligne JSON par requête retenue, sur le logger
+ * "access". Les requêtes ordinaires sont tirées au sort ; erreurs serveur et requêtes
+ * lentes peuvent être toujours journalisées, en WARN pour survivre au délestage de
+ * l'appender asynchrone.
+ *
+ * @param enabled         active le filtre d'accès
+ * @param sampleRate      probabilité de journaliser une requête ordinaire (0 à 1)
+ * @param slowThreshold   durée au-delà de laquelle une requête est lente ; 0 désactive
+ * @param alwaysLogErrors journalise toutes les réponses 5xx, quel que soit le tirage,
+ *                        sauf les 503 de délestage, échantillonnées
+ */
+@ConfigurationProperties(prefix = "persons.access-log")
+public record AccessLogProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("0.01") double sampleRate,
+        @DefaultValue("500ms") Duration slowThreshold,
+        @DefaultValue("true") boolean alwaysLogErrors
+) {}
@@ -0,0 +1,14 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Import groupé POST /api/persons/_bulk.
+ *
+ * @param batchSize nombre de documents envoyés à Mongo par écriture groupée
+ */
+@ConfigurationProperties(prefix = "persons.bulk")
+public record BulkProperties(
+        @DefaultValue("1000") int batchSize
+) {}
@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Limite adaptative du nombre de requêtes /api/persons en cours, distincte pour les
+ * lectures et les écritures, ajustée d'après la latence observée de PersonRepository.
+ *
+ * @param enabled      active le filtre ; sinon les requêtes s'accumulent sur le pool du driver
+ * @param read         bornes de la limite des lectures (GET, HEAD)
+ * @param write        bornes de la limite des écritures
+ * @param smoothing    poids d'un nouvel échantillon dans la limite (0 à 1)
+ * @param retryAfter   valeur de Retry-After des réponses 503
+ */
+@ConfigurationProperties(prefix = "persons.concurrency-limit")
+public record ConcurrencyLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue Limit read,
+        @DefaultValue Limit write,
+        @DefaultValue("0.5") double smoothing,
+        @DefaultValue("1s") Duration retryAfter
+) {
+
+    /**
+     * @param initial limite au démarrage
+     * @param min     plancher, même sous forte dégradation de latence
+     * @param max     plafond, typiquement quelques fois la taille du pool MongoDB
+     */
+    public record Limit(
+            @DefaultValue("50") int initial,
+            @DefaultValue("10") int min,
+            @DefaultValue("500") int max
+    ) {}
+}
@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Map;
+
+/**
+ * Jeu d'en-têtes immuable, calculé une fois au démarrage et appliqué tel quel à
+ * chaque réponse d'une même classe de routes.
+ */
+public final class HeaderBundle {
+
+    private final String[] names;
+    private final String[] values;
+
+    HeaderBundle(Map<String, String> headers) {
+        this.names = headers.keySet().toArray(String[]::new);
+        this.values = headers.values().toArray(String[]::new);
+    }
+
+    public void applyTo(HttpServletResponse response) {
+        for (int i = 0; i < names.length; i++) {
+            response.setHeader(names[i], values[i]);
+        }
+    }
+
+    public void applyTo(HttpHeaders headers) {
+        for (int i = 0; i < names.length; i++) {
+            headers.set(names[i], values[i]);
+        }
+    }
+
+    public String get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equalsIgnoreCase(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.config;
+
+import com.example.demo.dto.BulkItemResult;
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.dto.PersonDto;
+import com.example.demo.profiling.JfrEndpoint;
+import com.example.demo.profiling.JfrSummary;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Métadonnées d'image native que Spring AOT ne déduit pas seul. Les réponses des
+ * contrôleurs (@ResponseBody) et les dépôts Spring Data sont couverts par l'AOT,
+ * PersonMapperImpl est un bean Spring ordinaire (componentModel = "spring").
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // Sérialisés hors des signatures de contrôleur : export NDJSON, import groupé
+        // (flux), endpoint /actuator/jfr
+        bindings.registerReflectionHints(hints.reflection(),
+                PersonDto.class, BulkResponse.class, BulkItemResult.class, JfrSummary.class, JfrEndpoint.Status.class);
+
+        // logback-spring.xml instancie l'encodeur par son nom et appelle ses setters
+        hints.reflection().registerTypeIfPresent(classLoader, "net.logstash.logback.encoder.LogstashEncoder",
+                MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // Swagger UI servi depuis le webjar, version lue dans son pom.properties
+        hints.resources().registerPattern("META-INF/resources/webjars/swagger-ui/**");
+        hints.resources().registerPattern("META-INF/maven/org.webjars/swagger-ui/pom.properties");
+    }
+}
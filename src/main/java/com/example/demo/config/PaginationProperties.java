@@ -0,0 +1,18 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Bornes de pagination de l'API persons.
+ *
+ * @param defaultLimit taille de page quand le client n'en précise pas
+ * @param maxLimit     taille de page maximale acceptée
+ * @param maxOffset    nombre maximal de documents que la pagination par offset peut sauter
+ */
+@ConfigurationProperties(prefix = "persons.pagination")
+public record PaginationProperties(
+        @DefaultValue("100") int defaultLimit,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("10000") int maxOffset
+) {}
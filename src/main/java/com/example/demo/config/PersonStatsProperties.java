@@ -0,0 +1,19 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Agrégat en mémoire de GET /api/persons/stats.
+ *
+ * @param bucketWidth       largeur des tranches de l'histogramme des âges, en années
+ * @param reconcileInterval intervalle entre deux recalculs complets par Mongo, qui
+ *                          corrigent les écritures non vues (autres réplicas, import groupé)
+ */
+@ConfigurationProperties(prefix = "persons.stats")
+public record PersonStatsProperties(
+        @DefaultValue("10") int bucketWidth,
+        @DefaultValue("5m") Duration reconcileInterval
+) {}
@@ -0,0 +1,36 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Répartition des lectures de PersonRepository entre les membres du replica set.
+ * Les modes sont ceux de ReadPreference : primary, primaryPreferred, secondary,
+ * secondaryPreferred, nearest.
+ *
+ * @param enabled           active le routage ; sinon toutes les lectures vont au primaire
+ * @param get               lecture par id (GET /api/persons/{id}, validation d'ETag)
+ * @param list              pages par curseur ou par offset, projetées ou non
+ * @param search            GET /api/persons/search
+ * @param export            export NDJSON (un curseur long sur un seul membre)
+ * @param stats             agrégation de recalcul de /api/persons/stats
+ * @param maxStaleness      retard de réplication maximal d'un secondaire éligible
+ *                          (90 s au minimum, exigence du driver) ; 0 pour ne pas borner
+ * @param consistencyTokens renvoie X-Consistency-Token sur les écritures et l'accepte sur les lectures
+ * @param tokenSecret       clé HMAC des jetons (32 octets au moins), commune à toutes les instances ;
+ *                          vide : clé aléatoire, jetons valables sur l'instance émettrice seulement
+ */
+@ConfigurationProperties(prefix = "persons.read-routing")
+public record ReadRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("primary") String get,
+        @DefaultValue("secondaryPreferred") String list,
+        @DefaultValue("secondaryPreferred") String search,
+        @DefaultValue("secondaryPreferred") String export,
+        @DefaultValue("secondaryPreferred") String stats,
+        @DefaultValue("90s") Duration maxStaleness,
+        @DefaultValue("true") boolean consistencyTokens,
+        String tokenSecret
+) {}
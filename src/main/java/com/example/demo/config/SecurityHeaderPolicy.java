@@ -0,0 +1,114 @@
+package com.example.demo.config;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Classe chaque chemin (préfixe de route configuré, asset statique ou défaut) et
+ * renvoie le jeu d'en-têtes précalculé correspondant. La classification ne fait
+ * que des comparaisons de caractères : ni regex, ni sous-chaîne, ni allocation.
+ */
+@Component
+public class SecurityHeaderPolicy {
+
+    private final String[] routePrefixes;
+    private final HeaderBundle[] routeBundles;
+    private final HeaderBundle[] routeStaticBundles;
+    private final String[] staticExtensions;
+    private final HeaderBundle staticBundle;
+    private final HeaderBundle defaultBundle;
+
+    public SecurityHeaderPolicy(SecurityHeaderProperties properties) {
+        Map<String, String> common = commonHeaders();
+
+        // Headers de cache - ZAP Alert 10049
+        // Stratégie différenciée selon le type de contenu
+        // Assets statiques (CSS, JS, images) : cache long (1 an)
+        Map<String, String> staticHeaders = new LinkedHashMap<>(common);
+        staticHeaders.put("Cache-Control", "public, max-age=31536000, immutable");
+        this.staticBundle = new HeaderBundle(staticHeaders);
+
+        // Toutes les autres pages (y compris /, robots.txt, sitemap.xml) : pas de cache
+        // Ceci empêche les fuites d'informations sensibles via les caches partagés
+        Map<String, String> defaultHeaders = new LinkedHashMap<>(common);
+        defaultHeaders.put("Cache-Control", "no-cache, no-store, must-revalidate, private");
+        defaultHeaders.put("Pragma", "no-cache");
+        defaultHeaders.put("Expires", "0");
+        this.defaultBundle = new HeaderBundle(defaultHeaders);
+
+        // Le préfixe le plus long est testé en premier
+        List<SecurityHeaderProperties.Route> routes = properties.routes().stream()
+                .sorted(Comparator.comparingInt((SecurityHeaderProperties.Route route) -> route.pathPrefix().length()).reversed())
+                .toList();
+        this.routePrefixes = new String[routes.size()];
+        this.routeBundles = new HeaderBundle[routes.size()];
+        this.routeStaticBundles = new HeaderBundle[routes.size()];
+        for (int i = 0; i < routes.size(); i++) {
+            routePrefixes[i] = routes.get(i).pathPrefix();
+            routeBundles[i] = withRoute(defaultHeaders, routes.get(i));
+            // Assets d'une route : cache long, sauf si la route fixe elle-même ses en-têtes de cache
+            routeStaticBundles[i] = withRoute(staticHeaders, routes.get(i));
+        }
+        this.staticExtensions = properties.staticExtensions().toArray(String[]::new);
+    }
+
+    public static SecurityHeaderPolicy defaults() {
+        return new SecurityHeaderPolicy(new SecurityHeaderProperties(null, null));
+    }
+
+    public HeaderBundle classify(String path) {
+        for (int i = 0; i < routePrefixes.length; i++) {
+            if (path.startsWith(routePrefixes[i])) {
+                return isStaticAsset(path) ? routeStaticBundles[i] : routeBundles[i];
+            }
+        }
+        return isStaticAsset(path) ? staticBundle : defaultBundle;
+    }
+
+    /**
+     * Équivalent de path.matches(".+\\.(css|js|...)$") : au moins un caractère,
+     * un point, puis l'extension en fin de chemin.
+     */
+    private boolean isStaticAsset(String path) {
+        int length = path.length();
+        for (String extension : staticExtensions) {
+            int start = length - extension.length();
+            if (start >= 2 && path.charAt(start - 1) == '.'
+                    && path.regionMatches(start, extension, 0, extension.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static HeaderBundle withRoute(Map<String, String> base, SecurityHeaderProperties.Route route) {
+        Map<String, String> headers = new LinkedHashMap<>(base);
+        route.headers().forEach((name, value) -> {
+            // Noms d'en-têtes insensibles à la casse
+            headers.keySet().removeIf(existing -> existing.equalsIgnoreCase(name));
+            if (value != null && !value.isEmpty()) {
+                headers.put(name, value);
+            }
+        });
+        return new HeaderBundle(headers);
+    }
+
+    private static Map<String, String> commonHeaders() {
+        Map<String, String> headers = new LinkedHashMap<>();
+        // Empêche le MIME sniffing
+        headers.put("X-Content-Type-Options", "nosniff");
+
+        // Correction Spectre - ZAP Alert 90004
+        headers.put("Cross-Origin-Resource-Policy", "same-origin");
+        headers.put("Cross-Origin-Embedder-Policy", "require-corp");
+        headers.put("Cross-Origin-Opener-Policy", "same-origin");
+
+        // Empêche les iframes (protection clickjacking)
+        headers.put("X-Frame-Options", "DENY");
+        return headers;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Politique d'en-têtes de SecurityHeaderFilter.
+ *
+ * @param staticExtensions extensions servies avec un cache long (assets immuables)
+ * @param routes           en-têtes ajoutés ou remplacés pour un préfixe de chemin, par
+ *                         exemple security.headers.routes[0].headers[Cache-Control]=...
+ */
+@ConfigurationProperties(prefix = "security.headers")
+public record SecurityHeaderProperties(List<String> staticExtensions, List<Route> routes) {
+
+    public static final List<String> DEFAULT_STATIC_EXTENSIONS =
+            List.of("css", "js", "jpg", "jpeg", "png", "gif", "ico", "svg", "woff", "woff2", "ttf", "eot");
+
+    public SecurityHeaderProperties {
+        staticExtensions = staticExtensions == null ? DEFAULT_STATIC_EXTENSIONS : List.copyOf(staticExtensions);
+        routes = routes == null ? List.of() : List.copyOf(routes);
+    }
+
+    /**
+     * @param pathPrefix préfixe du chemin (le plus long préfixe correspondant l'emporte)
+     * @param headers    en-têtes appliqués en plus de la politique par défaut, ou à sa place
+     *                   pour un même nom ; une valeur vide retire l'en-tête
+     */
+    public record Route(String pathPrefix, Map<String, String> headers) {
+
+        public Route {
+            if (pathPrefix == null || pathPrefix.isEmpty()) {
+                throw new IllegalArgumentException("security.headers.routes[].path-prefix is required");
+            }
+            if (headers == null) {
+                throw new IllegalArgumentException("security.headers.routes[].headers is required for " + pathPrefix);
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.demo.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pendant WebFlux de SecurityHeaderFilter : même politique, mêmes en-têtes précalculés.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class SecurityHeaderWebFilter implements WebFilter {
+
+    private final SecurityHeaderPolicy policy;
+
+    public SecurityHeaderWebFilter(SecurityHeaderPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        policy.classify(exchange.getRequest().getPath().value()).applyTo(exchange.getResponse().getHeaders());
+        return chain.filter(exchange);
+    }
+}
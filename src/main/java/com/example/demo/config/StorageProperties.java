@@ -0,0 +1,27 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Moteur de stockage des personnes.
+ *
+ * @param engine           mongodb (dépôt Spring Data) ou embedded (magasin en colonnes en mémoire)
+ * @param snapshotPath     instantané du moteur embedded, rechargé au démarrage ; sans
+ *                         chemin, les données sont perdues à l'arrêt
+ * @param snapshotInterval intervalle entre deux instantanés, écrits seulement après des écritures
+ * @param initialCapacity  lignes préallouées par le moteur embedded
+ */
+@ConfigurationProperties(prefix = "persons.storage")
+public record StorageProperties(
+        @DefaultValue("mongodb") Engine engine,
+        Path snapshotPath,
+        @DefaultValue("1m") Duration snapshotInterval,
+        @DefaultValue("1024") int initialCapacity
+) {
+
+    public enum Engine { MONGODB, EMBEDDED }
+}
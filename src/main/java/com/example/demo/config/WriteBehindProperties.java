@@ -0,0 +1,26 @@
+package com.example.demo.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Regroupement des créations concurrentes (POST /api/persons) en insertions groupées.
+ *
+ * @param enabled          active le mode ; sinon chaque création fait son propre save
+ * @param batchSize        taille maximale d'un lot (N)
+ * @param maxDelay         attente maximale avant l'envoi d'un lot incomplet (T)
+ * @param queueCapacity    créations en attente au-delà desquelles on répond 503
+ * @param maxBatchesInFlight lots écrits en parallèle
+ * @param ackTimeout       attente maximale de l'acquittement par l'appelant, au-delà 503
+ */
+@ConfigurationProperties(prefix = "persons.write-behind")
+public record WriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("200") int batchSize,
+        @DefaultValue("5ms") Duration maxDelay,
+        @DefaultValue("10000") int queueCapacity,
+        @DefaultValue("4") int maxBatchesInFlight,
+        @DefaultValue("10s") Duration ackTimeout
+) {}
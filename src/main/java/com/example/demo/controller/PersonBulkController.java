@@ -0,0 +1,32 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.service.PersonBulkService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/persons")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class PersonBulkController {
+
+    private final PersonBulkService personBulkService;
+
+    public PersonBulkController(PersonBulkService personBulkService) {
+        this.personBulkService = personBulkService;
+    }
+
+    // Corps mal formé : 400, avec ce qui a été écrit avant l'erreur
+    @PostMapping(value = "/_bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BulkResponse> bulkPersons(InputStream body, @RequestParam(defaultValue = "true") boolean ordered) {
+        BulkResponse response = personBulkService.importPersons(body, ordered);
+        return response.error() == null ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+}
@@ -1,47 +1,178 @@
 package com.example.demo.controller;
 
 import com.example.demo.dto.PersonDto;
+import com.example.demo.dto.PersonPage;
+import com.example.demo.dto.PersonProjectionPage;
+import com.example.demo.dto.PersonStats;
+import com.example.demo.exception.PersonNotFoundException;
+import com.example.demo.exception.PreconditionFailedException;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.routing.ConsistencyToken;
+import com.example.demo.routing.ConsistencyTokenCodec;
+import com.example.demo.routing.ConsistencyTokens;
 import com.example.demo.service.PersonService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/persons")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class PersonController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PersonService personService;
+    private final ConsistencyTokenCodec tokenCodec;
 
-    public PersonController(PersonService personService) {
+    public PersonController(PersonService personService, ConsistencyTokenCodec tokenCodec) {
         this.personService = personService;
+        this.tokenCodec = tokenCodec;
     }
 
     @GetMapping
-    public List<PersonDto> getAllPersons() {
-        return personService.getAllPersons();
+    public ResponseEntity<List<PersonDto>> getAllPersons(@RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) Integer page,
+                                                         @RequestHeader(value = ConsistencyTokens.HEADER, required = false) String consistencyToken) {
+        return ConsistencyTokens.readAfter(tokenCodec.decode(consistencyToken), () -> {
+            if (page != null) {
+                return ResponseEntity.ok(personService.getPersonsPage(page, limit));
+            }
+            PersonPage result = personService.getPersonsAfter(after, limit);
+            return withNextCursor(result.items(), result.nextCursor());
+        });
+    }
+
+    // ?fields=id,name : projection poussée jusqu'à Mongo, réponse limitée à ces champs
+    @GetMapping(params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllPersonsProjected(@RequestParam String fields,
+                                                                            @RequestParam(required = false) String after,
+                                                                            @RequestParam(required = false) Integer limit,
+                                                                            @RequestParam(required = false) Integer page,
+                                                                            @RequestHeader(value = ConsistencyTokens.HEADER, required = false) String consistencyToken) {
+        return ConsistencyTokens.readAfter(tokenCodec.decode(consistencyToken), () -> {
+            if (page != null) {
+                return ResponseEntity.ok(personService.getPersonsPage(page, limit, fields));
+            }
+            PersonProjectionPage result = personService.getPersonsAfter(after, limit, fields);
+            return withNextCursor(result.items(), result.nextCursor());
+        });
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<PersonDto>> searchPersons(@RequestParam(required = false) String namePrefix,
+                                                         @RequestParam(required = false) Integer minAge,
+                                                         @RequestParam(required = false) Integer maxAge,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestHeader(value = ConsistencyTokens.HEADER, required = false) String consistencyToken) {
+        String prefix = namePrefix == null || namePrefix.isEmpty() ? null : namePrefix;
+        PersonPage result = ConsistencyTokens.readAfter(tokenCodec.decode(consistencyToken),
+                () -> personService.searchPersons(new PersonSearch(prefix, minAge, maxAge), after, limit));
+        return withNextCursor(result.items(), result.nextCursor());
+    }
+
+    // Servi depuis la mémoire, aucun accès Mongo par appel
+    @GetMapping("/stats")
+    public PersonStats getStats() {
+        return personService.getStats();
     }
 
     @GetMapping("/{id}")
-    public PersonDto getPersonById(@PathVariable String id) {
-        return personService.getPersonByIdOrThrow(id);
+    public ResponseEntity<PersonDto> getPersonById(@PathVariable String id,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                   @RequestHeader(value = ConsistencyTokens.HEADER, required = false) String consistencyToken) {
+        return ConsistencyTokens.readAfter(tokenCodec.decode(consistencyToken), () -> {
+            if (ifNoneMatch != null) {
+                // Validation par la version seule : ni document complet ni sérialisation
+                String etag = PersonETags.of(personService.getVersionOrThrow(id));
+                if (PersonETags.matches(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+            }
+            PersonDto person = personService.getPersonByIdOrThrow(id);
+            return ResponseEntity.ok().eTag(PersonETags.of(person.version())).body(person);
+        });
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public Map<String, Object> getPersonByIdProjected(@PathVariable String id, @RequestParam String fields,
+                                                      @RequestHeader(value = ConsistencyTokens.HEADER, required = false) String consistencyToken) {
+        return ConsistencyTokens.readAfter(tokenCodec.decode(consistencyToken),
+                () -> personService.getPersonByIdOrThrow(id, fields));
     }
 
     @PostMapping
     public ResponseEntity<PersonDto> createPerson(@RequestBody PersonDto dto) {
-        PersonDto createdPerson = personService.createPerson(dto);
-        return ResponseEntity.status(HttpStatus.CREATED).body(createdPerson);
+        ConsistencyTokens.Written<PersonDto> created = ConsistencyTokens.capture(() -> personService.createPerson(dto));
+        return withConsistencyToken(ResponseEntity.status(HttpStatus.CREATED), created.token()).body(created.value());
     }
 
     @PutMapping("/{id}")
-    public PersonDto updatePerson(@PathVariable String id, @RequestBody PersonDto dto) {
-        return personService.updatePerson(id, dto);
+    public ResponseEntity<PersonDto> updatePerson(@PathVariable String id, @RequestBody PersonDto dto,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<Long> expectedVersions = ifMatch == null ? null : PersonETags.parseIfMatch(ifMatch);
+        ConsistencyTokens.Written<PersonDto> updated = ConsistencyTokens.capture(() -> expectedVersions == null
+                ? personService.updatePerson(id, dto)
+                : updatePerson(id, dto, expectedVersions));
+        return withConsistencyToken(ResponseEntity.ok(), updated.token())
+                .eTag(PersonETags.of(updated.value().version()))
+                .body(updated.value());
+    }
+
+    /**
+     * If-Match "*" n'exige qu'une personne existante (412 sinon). Une liste est satisfaite
+     * par l'une de ses versions : une mise à jour conditionnelle par version, au plus une
+     * correspond à la version stockée.
+     */
+    private PersonDto updatePerson(String id, PersonDto dto, List<Long> expectedVersions) {
+        if (expectedVersions.isEmpty()) {
+            try {
+                return personService.updatePerson(id, dto);
+            } catch (PersonNotFoundException e) {
+                throw new PreconditionFailedException(id);
+            }
+        }
+        for (int i = 0; ; i++) {
+            try {
+                return personService.updatePerson(id, dto, expectedVersions.get(i));
+            } catch (PreconditionFailedException e) {
+                if (i == expectedVersions.size() - 1) {
+                    throw e;
+                }
+            }
+        }
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePerson(@PathVariable String id) {
-        personService.deletePerson(id);
-        return ResponseEntity.noContent().build();
+        ConsistencyToken token = ConsistencyTokens.tokenOf(() -> personService.deletePerson(id));
+        return withConsistencyToken(ResponseEntity.status(HttpStatus.NO_CONTENT), token).build();
+    }
+
+    // Jeton à renvoyer dans X-Consistency-Token pour relire cette écriture sur un secondaire
+    private <B extends ResponseEntity.HeadersBuilder<B>> B withConsistencyToken(B builder, ConsistencyToken token) {
+        String encoded = tokenCodec.encode(token);
+        return encoded == null ? builder : builder.header(ConsistencyTokens.HEADER, encoded);
+    }
+
+    private static <T> ResponseEntity<List<T>> withNextCursor(List<T> items, String nextCursor) {
+        if (nextCursor == null) {
+            return ResponseEntity.ok(items);
+        }
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", nextCursor)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, nextCursor)
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(items);
     }
-}
\ No newline at end of file
+}
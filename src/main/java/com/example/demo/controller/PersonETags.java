@@ -0,0 +1,66 @@
+package com.example.demo.controller;
+
+import com.example.demo.exception.InvalidRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETag fort dérivé du champ version du document : "n" (une personne sans version vaut 0).
+ */
+final class PersonETags {
+
+    private PersonETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * If-None-Match : liste d'ETags séparés par des virgules, "*" ou préfixe faible W/
+     * (comparaison faible, RFC 9110 §13.1.2).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * If-Match : "*" ou liste d'ETags forts séparés par des virgules (RFC 9110 §13.1.1).
+     * Retourne les versions attendues, liste vide pour "*" (toute version courante).
+     */
+    static List<Long> parseIfMatch(String ifMatch) {
+        String[] candidates = ifMatch.split(",");
+        if (candidates.length == 1 && candidates[0].trim().equals("*")) {
+            return List.of();
+        }
+        List<Long> versions = new ArrayList<>(candidates.length);
+        for (String candidate : candidates) {
+            versions.add(parseStrong(candidate.trim()));
+        }
+        return versions;
+    }
+
+    private static long parseStrong(String value) {
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new InvalidRequestException("If-Match must be \"*\" or a list of strong ETags");
+        }
+        try {
+            return Long.parseLong(value, 1, value.length() - 1, 10);
+        } catch (NumberFormatException e) {
+            throw new InvalidRequestException("If-Match must be \"*\" or a list of strong ETags");
+        }
+    }
+}
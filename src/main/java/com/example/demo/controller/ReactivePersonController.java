@@ -0,0 +1,181 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.dto.PersonDto;
+import com.example.demo.dto.PersonPage;
+import com.example.demo.dto.PersonProjectionPage;
+import com.example.demo.dto.PersonStats;
+import com.example.demo.exception.PersonNotFoundException;
+import com.example.demo.exception.PreconditionFailedException;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.service.ReactivePersonBulkService;
+import com.example.demo.service.ReactivePersonService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /api/persons sur WebFlux (profil reactive), même contrat que PersonController.
+ * En plus, Accept: application/x-ndjson sur GET /api/persons diffuse toutes les
+ * personnes après le curseur, au rythme de lecture du client. /export et /_bulk
+ * suivent le même principe : le curseur Mongo et le corps de la requête sont lus à
+ * la demande, sans tampon intermédiaire.
+ */
+@RestController
+@RequestMapping("/api/persons")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePersonController {
+
+    private final ReactivePersonService personService;
+    private final ReactivePersonBulkService personBulkService;
+
+    public ReactivePersonController(ReactivePersonService personService, ReactivePersonBulkService personBulkService) {
+        this.personService = personService;
+        this.personBulkService = personBulkService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<List<PersonDto>>> getAllPersons(@RequestParam(required = false) String after,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               @RequestParam(required = false) Integer page,
+                                                               ServerHttpRequest request) {
+        if (page != null) {
+            return personService.getPersonsPage(page, limit).map(ResponseEntity::ok);
+        }
+        return personService.getPersonsAfter(after, limit)
+                .map(result -> withNextCursor(result.items(), result.nextCursor(), request));
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PersonDto> streamPersons(@RequestParam(required = false) String after) {
+        return personService.streamPersonsAfter(after);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<PersonDto> exportPersons() {
+        return personService.streamPersonsAfter(null);
+    }
+
+    // Corps mal formé : 400, avec ce qui a été écrit avant l'erreur
+    @PostMapping(value = "/_bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Mono<ResponseEntity<BulkResponse>> bulkPersons(@RequestBody(required = false) Flux<PersonDto> body,
+                                                          @RequestParam(defaultValue = "true") boolean ordered) {
+        return personBulkService.importPersons(body == null ? Flux.empty() : body, ordered)
+                .map(response -> response.error() == null
+                        ? ResponseEntity.ok(response)
+                        : ResponseEntity.badRequest().body(response));
+    }
+
+    @GetMapping(params = "fields")
+    public Mono<ResponseEntity<List<Map<String, Object>>>> getAllPersonsProjected(@RequestParam String fields,
+                                                                                  @RequestParam(required = false) String after,
+                                                                                  @RequestParam(required = false) Integer limit,
+                                                                                  @RequestParam(required = false) Integer page,
+                                                                                  ServerHttpRequest request) {
+        if (page != null) {
+            return personService.getPersonsPage(page, limit, fields).map(ResponseEntity::ok);
+        }
+        return personService.getPersonsAfter(after, limit, fields)
+                .map((PersonProjectionPage result) -> withNextCursor(result.items(), result.nextCursor(), request));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<List<PersonDto>>> searchPersons(@RequestParam(required = false) String namePrefix,
+                                                               @RequestParam(required = false) Integer minAge,
+                                                               @RequestParam(required = false) Integer maxAge,
+                                                               @RequestParam(required = false) String after,
+                                                               @RequestParam(required = false) Integer limit,
+                                                               ServerHttpRequest request) {
+        String prefix = namePrefix == null || namePrefix.isEmpty() ? null : namePrefix;
+        return personService.searchPersons(new PersonSearch(prefix, minAge, maxAge), after, limit)
+                .map((PersonPage result) -> withNextCursor(result.items(), result.nextCursor(), request));
+    }
+
+    // Servi depuis la mémoire, aucun accès Mongo par appel
+    @GetMapping("/stats")
+    public Mono<PersonStats> getStats() {
+        return personService.getStats();
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<PersonDto>> getPersonById(@PathVariable String id,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return personService.getPersonByIdOrThrow(id).map(ReactivePersonController::withETag);
+        }
+        // Validation par la version seule : ni document complet ni sérialisation
+        return personService.getVersionOrThrow(id).flatMap(version -> {
+            String etag = PersonETags.of(version);
+            if (PersonETags.matches(ifNoneMatch, etag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<PersonDto>build());
+            }
+            return personService.getPersonByIdOrThrow(id).map(ReactivePersonController::withETag);
+        });
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    public Mono<Map<String, Object>> getPersonByIdProjected(@PathVariable String id, @RequestParam String fields) {
+        return personService.getPersonByIdOrThrow(id, fields);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<PersonDto>> createPerson(@RequestBody PersonDto dto) {
+        return personService.createPerson(dto).map(created -> ResponseEntity.status(HttpStatus.CREATED).body(created));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<PersonDto>> updatePerson(@PathVariable String id, @RequestBody PersonDto dto,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        List<Long> expectedVersions = ifMatch == null ? null : PersonETags.parseIfMatch(ifMatch);
+        Mono<PersonDto> updated = expectedVersions == null
+                ? personService.updatePerson(id, dto, null)
+                : updatePerson(id, dto, expectedVersions);
+        return updated.map(ReactivePersonController::withETag);
+    }
+
+    // Même sémantique d'If-Match que PersonController : "*" ou l'une des versions listées
+    private Mono<PersonDto> updatePerson(String id, PersonDto dto, List<Long> expectedVersions) {
+        if (expectedVersions.isEmpty()) {
+            return personService.updatePerson(id, dto, null)
+                    .onErrorMap(PersonNotFoundException.class, e -> new PreconditionFailedException(id));
+        }
+        Mono<PersonDto> updated = personService.updatePerson(id, dto, expectedVersions.getFirst());
+        for (Long version : expectedVersions.subList(1, expectedVersions.size())) {
+            updated = updated.onErrorResume(PreconditionFailedException.class,
+                    e -> personService.updatePerson(id, dto, version));
+        }
+        return updated;
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deletePerson(@PathVariable String id) {
+        return personService.deletePerson(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+
+    private static ResponseEntity<PersonDto> withETag(PersonDto person) {
+        return ResponseEntity.ok().eTag(PersonETags.of(person.version())).body(person);
+    }
+
+    private static <T> ResponseEntity<List<T>> withNextCursor(List<T> items, String nextCursor, ServerHttpRequest request) {
+        if (nextCursor == null) {
+            return ResponseEntity.ok(items);
+        }
+        String next = UriComponentsBuilder.fromUri(request.getURI())
+                .replaceQueryParam("after", nextCursor)
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(PersonController.NEXT_CURSOR_HEADER, nextCursor)
+                .header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"")
+                .body(items);
+    }
+}
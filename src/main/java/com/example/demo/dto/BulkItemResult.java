@@ -0,0 +1,12 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record BulkItemResult(
+    int index,
+    String id,
+    Status status,
+    @JsonInclude(JsonInclude.Include.NON_NULL) String error
+) {
+    public enum Status { OK, ERROR, SKIPPED }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.dto;
+
+import java.util.List;
+
+/**
+ * @param items un résultat par élément lu, dans l'ordre du corps ; indice et id seuls
+ *              pour les éléments écrits
+ * @param error erreur de lecture du corps qui a arrêté l'import, null sinon
+ */
+public record BulkResponse(
+    int succeeded,
+    int failed,
+    List<BulkItemResult> items,
+    String error
+) {}
@@ -1,7 +1,14 @@
 package com.example.demo.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 public record PersonDto(
     String id,
     String name,
-    int age
-) {}
+    int age,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Long version
+) {
+    public PersonDto(String id, String name, int age) {
+        this(id, name, age, null);
+    }
+}
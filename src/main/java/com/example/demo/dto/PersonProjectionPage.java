@@ -0,0 +1,9 @@
+package com.example.demo.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record PersonProjectionPage(
+    List<Map<String, Object>> items,
+    String nextCursor
+) {}
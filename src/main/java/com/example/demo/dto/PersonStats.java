@@ -0,0 +1,25 @@
+package com.example.demo.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Statistiques globales des personnes. minAge, maxAge et meanAge sont absents si la
+ * collection est vide ; reconciledAt est la date du dernier recalcul complet.
+ */
+public record PersonStats(
+    long count,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Integer minAge,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Integer maxAge,
+    @JsonInclude(JsonInclude.Include.NON_NULL) Double meanAge,
+    List<AgeBucket> ageHistogram,
+    Instant reconciledAt
+) {
+
+    /**
+     * Tranche [from, to] de l'histogramme ; seules les tranches non vides sont listées.
+     */
+    public record AgeBucket(int from, int to, long count) {}
+}
@@ -1,10 +1,23 @@
 package com.example.demo.entity;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-@Document(collection = "#{@environment.getProperty('mongodb.collection.person')}")
-public record Person(@Id String id, String name, int age) {
+// Index de GET /api/persons/search, créés par PersonIndexReconciler (auto-index-creation=false)
+// Nom résolu comme une propriété : pas d'appel SpEL par réflexion, compatible image native
+@Document(collection = "${mongodb.collection.person}")
+@CompoundIndexes({
+		@CompoundIndex(name = "name_id_age", def = "{'name': 1, '_id': 1, 'age': 1}"),
+		@CompoundIndex(name = "age_id", def = "{'age': 1, '_id': 1}")
+})
+public record Person(@Id String id, String name, int age, @Version Long version) {
+	public Person(String id, String name, int age) {
+		this(id, name, age, null);
+	}
+
 	public Person(String name, int age) {
 		this(null, name, age);
 	}
@@ -0,0 +1,34 @@
+package com.example.demo.exception;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Horodatage ISO-8601 des réponses d'erreur, à la seconde : formaté une fois par
+ * seconde puis partagé, au lieu d'un OffsetDateTime alloué et sérialisé par réponse.
+ */
+final class CoarseTimestamp {
+
+    private record Formatted(long epochSecond, String value) {}
+
+    private final Clock clock;
+    private volatile Formatted current = new Formatted(Long.MIN_VALUE, "");
+
+    CoarseTimestamp(Clock clock) {
+        this.clock = clock;
+    }
+
+    String now() {
+        long epochSecond = Math.floorDiv(clock.millis(), 1000);
+        Formatted formatted = current;
+        if (formatted.epochSecond() != epochSecond) {
+            Instant instant = Instant.ofEpochSecond(epochSecond);
+            formatted = new Formatted(epochSecond,
+                    DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(OffsetDateTime.ofInstant(instant, clock.getZone())));
+            current = formatted;
+        }
+        return formatted.value();
+    }
+}
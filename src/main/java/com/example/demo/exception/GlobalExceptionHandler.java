@@ -1,32 +1,133 @@
 package com.example.demo.exception;
 
+import jakarta.servlet.ServletException;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.web.ErrorResponse;
+import org.springframework.web.ErrorResponseException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
-import java.time.OffsetDateTime;
+import java.time.Clock;
+import java.time.Duration;
 
+/**
+ * Un handler par type d'exception : Spring résout le handler une fois par type puis
+ * le met en cache, sans chaîne d'instanceof. Les erreurs attendues (404, 400, 409, 412)
+ * sont des exceptions sans pile ; seules les 500 inattendues sont journalisées, avec
+ * un débit limité pour qu'une rafale ne sature pas les logs.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
+
+    private final CoarseTimestamp timestamp;
+    private final RateLimitedLogger unexpectedErrors;
+
+    public GlobalExceptionHandler() {
+        this(Clock.systemDefaultZone());
+    }
+
+    GlobalExceptionHandler(Clock clock) {
+        this.timestamp = new CoarseTimestamp(clock);
+        this.unexpectedErrors = new RateLimitedLogger(LoggerFactory.getLogger(GlobalExceptionHandler.class),
+                clock, Duration.ofMinutes(1), 10);
+    }
+
+    @ExceptionHandler(PersonNotFoundException.class)
+    @ResponseBody
+    public ProblemDetail handleNotFound(PersonNotFoundException ex) {
+        return problem(HttpStatus.NOT_FOUND, "Not Found", ex.getMessage());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    @ResponseBody
+    public ProblemDetail handlePreconditionFailed(PreconditionFailedException ex) {
+        return problem(HttpStatus.PRECONDITION_FAILED, "Precondition Failed", ex.getMessage());
+    }
+
+    // POST avec un id fourni par le client et déjà utilisé : la création n'écrase pas
+    @ExceptionHandler(DuplicateKeyException.class)
+    @ResponseBody
+    public ProblemDetail handleDuplicateKey(DuplicateKeyException ex) {
+        return problem(HttpStatus.CONFLICT, "Conflict", "Person already exists");
+    }
+
+    // Autres rejets de l'écriture par Mongo ; le message brut contient les valeurs en cause
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ResponseBody
+    public ProblemDetail handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        return problem(HttpStatus.CONFLICT, "Conflict", "Person write rejected");
+    }
+
+    @ExceptionHandler(InvalidRequestException.class)
+    @ResponseBody
+    public ProblemDetail handleInvalidRequest(InvalidRequestException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Bad Request", ex.getMessage());
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseBody
+    public ProblemDetail handleValidation(MethodArgumentNotValidException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Validation Failed", "Validation failed");
+    }
+
+    // JSON malformé : le message du parseur cite le corps reçu, il n'est pas renvoyé
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    @ResponseBody
+    public ProblemDetail handleNotReadable(HttpMessageNotReadableException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Bad Request", "Malformed request body");
+    }
+
+    // Paramètre de requête non convertible (?limit=abc, ?minAge=x...)
+    @ExceptionHandler(MethodArgumentTypeMismatchException.class)
+    @ResponseBody
+    public ProblemDetail handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
+        return problem(HttpStatus.BAD_REQUEST, "Bad Request", "Invalid value for parameter '" + ex.getName() + "'");
+    }
+
+    // Exceptions du framework (route inconnue, méthode non supportée...) : leur propre statut
+    @ExceptionHandler({ServletException.class, ErrorResponseException.class})
+    @ResponseBody
+    public ResponseEntity<ProblemDetail> handleFrameworkException(Exception ex) {
+        if (!(ex instanceof ErrorResponse error)) {
+            return ResponseEntity.internalServerError().body(handleAllExceptions(ex));
+        }
+        HttpStatusCode status = error.getStatusCode();
+        HttpStatus resolved = HttpStatus.resolve(status.value());
+        ProblemDetail problem = problem(status, resolved != null ? resolved.getReasonPhrase() : null, error.getBody().getDetail());
+        return ResponseEntity.status(status).headers(error.getHeaders()).body(problem);
+    }
+
     @ExceptionHandler(Exception.class)
     @ResponseBody
     public ProblemDetail handleAllExceptions(Exception ex) {
-        HttpStatus status = HttpStatus.INTERNAL_SERVER_ERROR;
-        String title = "Internal Server Error";
-        String detail = ex.getMessage();
-        if (ex instanceof PersonNotFoundException) {
-            status = HttpStatus.NOT_FOUND;
-            title = "Not Found";
-        } else if (ex instanceof org.springframework.web.bind.MethodArgumentNotValidException) {
-            status = HttpStatus.BAD_REQUEST;
-            title = "Validation Failed";
-            detail = "Validation failed";
-        }
+        unexpectedErrors.error("Unexpected error", ex);
+        return problem(HttpStatus.INTERNAL_SERVER_ERROR, "Internal Server Error", ex.getMessage());
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseBody
+    public ResponseEntity<ProblemDetail> handleOverload(ServiceOverloadedException ex) {
+        ProblemDetail problem = problem(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(Math.max(1, ex.getRetryAfter().toSeconds())))
+                .body(problem);
+    }
+
+    private ProblemDetail problem(HttpStatusCode status, String title, String detail) {
         ProblemDetail problem = ProblemDetail.forStatusAndDetail(status, detail);
         problem.setTitle(title);
-        problem.setProperty("timestamp", OffsetDateTime.now());
+        problem.setProperty("timestamp", timestamp.now());
         return problem;
     }
-}
\ No newline at end of file
+}
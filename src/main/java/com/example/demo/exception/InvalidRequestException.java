@@ -0,0 +1,10 @@
+package com.example.demo.exception;
+
+public class InvalidRequestException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public InvalidRequestException(String message) {
+        // Erreur client attendue : la pile d'appels n'apporte rien
+        super(message, null, false, false);
+    }
+}
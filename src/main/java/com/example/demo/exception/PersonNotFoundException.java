@@ -1,9 +1,25 @@
 package com.example.demo.exception;
 
+/**
+ * Sans pile d'appels ni message précalculé : un 404 ne coûte que l'allocation de
+ * l'exception. Le message n'est construit que s'il est lu.
+ */
 public class PersonNotFoundException extends RuntimeException {
     private static final long serialVersionUID = 1L;
 
-	public PersonNotFoundException(String id) {
-        super("Person not found with id: " + id);
+    private final String id;
+
+    public PersonNotFoundException(String id) {
+        super(null, null, false, false);
+        this.id = id;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getMessage() {
+        return "Person not found with id: " + id;
     }
 }
@@ -0,0 +1,10 @@
+package com.example.demo.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException(String id) {
+        // Erreur métier attendue : la pile d'appels n'apporte rien
+        super("Person has been modified since the given version: " + id, null, false, false);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.exception;
+
+import org.slf4j.Logger;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Journalise au plus maxPerWindow erreurs par fenêtre ; les suivantes sont comptées
+ * et le nombre d'erreurs supprimées est journalisé à l'ouverture de la fenêtre suivante.
+ */
+final class RateLimitedLogger {
+
+    private final Logger log;
+    private final Clock clock;
+    private final long windowMillis;
+    private final int maxPerWindow;
+    private final AtomicLong windowStart;
+    private final AtomicInteger logged = new AtomicInteger();
+    private final AtomicInteger suppressed = new AtomicInteger();
+
+    RateLimitedLogger(Logger log, Clock clock, Duration window, int maxPerWindow) {
+        this.log = log;
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+        this.maxPerWindow = maxPerWindow;
+        this.windowStart = new AtomicLong(clock.millis() - windowMillis);
+    }
+
+    void error(String message, Throwable ex) {
+        long now = clock.millis();
+        long start = windowStart.get();
+        if (now - start >= windowMillis && windowStart.compareAndSet(start, now)) {
+            int dropped = suppressed.getAndSet(0);
+            logged.set(0);
+            if (dropped > 0) {
+                log.error("{} unexpected errors were not logged during the last {} ms", dropped, windowMillis);
+            }
+        }
+        if (logged.incrementAndGet() <= maxPerWindow) {
+            log.error(message, ex);
+        } else {
+            suppressed.incrementAndGet();
+        }
+    }
+}
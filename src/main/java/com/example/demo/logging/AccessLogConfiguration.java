@@ -0,0 +1,37 @@
+package com.example.demo.logging;
+
+import com.example.demo.config.AccessLogProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Journal d'accès échantillonné, sur la pile servlet comme sur la pile réactive.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "persons.access-log", name = "enabled", havingValue = "true", matchIfMissing = true)
+class AccessLogConfiguration {
+
+    @Bean
+    AccessLogSampler accessLogSampler(AccessLogProperties properties) {
+        return new AccessLogSampler(properties);
+    }
+
+    // Avant le délestage (HIGHEST_PRECEDENCE + 10) : les 503 sont vues, et échantillonnées
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    FilterRegistrationBean<AccessLogFilter> accessLogFilter(AccessLogSampler sampler) {
+        FilterRegistrationBean<AccessLogFilter> registration = new FilterRegistrationBean<>(new AccessLogFilter(sampler));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    AccessLogWebFilter accessLogWebFilter(AccessLogSampler sampler) {
+        return new AccessLogWebFilter(sampler);
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.demo.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Journal d'accès de la pile servlet. La route est le motif (/api/persons/{id}) pour
+ * regrouper les lignes par endpoint sans exposer les identifiants.
+ *
+ * Les réponses asynchrones (export NDJSON) sont mesurées jusqu'à la fin du premier
+ * dispatch seulement.
+ */
+class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLogSampler sampler;
+
+    AccessLogFilter(AccessLogSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        int status = HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        try {
+            chain.doFilter(request, response);
+            status = response.getStatus();
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sampler.record(request.getMethod(), pattern != null ? pattern.toString() : request.getRequestURI(),
+                    status, System.nanoTime() - start);
+        }
+    }
+}
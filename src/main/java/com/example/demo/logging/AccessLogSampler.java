@@ -0,0 +1,80 @@
+package com.example.demo.logging;
+
+import com.example.demo.config.AccessLogProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+import static net.logstash.logback.argument.StructuredArguments.kv;
+
+/**
+ * Décide si une requête terminée est journalisée et écrit la ligne. Partagé par le
+ * filtre servlet et le filtre WebFlux.
+ *
+ * Le tirage n'a lieu qu'après la réponse : une requête ordinaire non retenue ne coûte
+ * qu'un nombre aléatoire, sans formatage ni événement logback.
+ *
+ * Les 503 (délestage, file d'écriture pleine) sont tirées au sort comme les requêtes
+ * ordinaires, en INFO : une ligne WARN par rejet remplirait la file de l'appender
+ * justement sous surcharge, et ferait attendre le chemin de délestage. Leur volume est
+ * suivi par le compteur concurrency.requests{outcome=rejected}.
+ */
+final class AccessLogSampler {
+
+    private static final Logger log = LoggerFactory.getLogger("access");
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final boolean alwaysLogErrors;
+    private final DoubleSupplier random;
+
+    AccessLogSampler(AccessLogProperties properties) {
+        this(properties, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    AccessLogSampler(AccessLogProperties properties, DoubleSupplier random) {
+        this.sampleRate = properties.sampleRate();
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.alwaysLogErrors = properties.alwaysLogErrors();
+        this.random = random;
+    }
+
+    Decision decide(int status, long durationNanos) {
+        if (alwaysLogErrors && status >= 500 && status != 503) {
+            return Decision.ERROR;
+        }
+        if (slowThresholdNanos > 0 && durationNanos >= slowThresholdNanos) {
+            return Decision.SLOW;
+        }
+        return sampleRate > 0 && random.getAsDouble() < sampleRate ? Decision.SAMPLED : Decision.SKIPPED;
+    }
+
+    void record(String method, String route, int status, long durationNanos) {
+        Decision decision = decide(status, durationNanos);
+        if (decision == Decision.SKIPPED) {
+            return;
+        }
+        double durationMs = durationNanos / 1_000_000.0;
+        if (decision == Decision.SAMPLED) {
+            if (log.isInfoEnabled()) {
+                log.info("{} {} {} {}", kv("method", method), kv("route", route), kv("status", status),
+                        kv("duration_ms", durationMs));
+            }
+        } else if (log.isWarnEnabled()) {
+            log.warn("{} {} {} {} {}", kv("method", method), kv("route", route), kv("status", status),
+                    kv("duration_ms", durationMs), kv("reason", decision.reason));
+        }
+    }
+
+    enum Decision {
+        SKIPPED(null), SAMPLED("sampled"), SLOW("slow"), ERROR("error");
+
+        private final String reason;
+
+        Decision(String reason) {
+            this.reason = reason;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.logging;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pendant WebFlux de AccessLogFilter, mesuré jusqu'à la fin de l'écriture de la réponse.
+ */
+class AccessLogWebFilter implements WebFilter {
+
+    private final AccessLogSampler sampler;
+
+    AccessLogWebFilter(AccessLogSampler sampler) {
+        this.sampler = sampler;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            sampler.record(exchange.getRequest().getMethod().name(),
+                    pattern != null ? pattern.getPatternString() : exchange.getRequest().getPath().value(),
+                    status != null ? status.value() : 200, System.nanoTime() - start);
+        });
+    }
+}
@@ -3,7 +3,13 @@ package com.example.demo.mapper;
 import com.example.demo.dto.PersonDto;
 import com.example.demo.entity.Person;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring")
 public interface PersonMapper extends GenericMapper<Person, PersonDto> {
-}
\ No newline at end of file
+
+    // La version est gérée par la base, jamais reprise du client
+    @Override
+    @Mapping(target = "version", ignore = true)
+    Person toEntity(PersonDto dto);
+}
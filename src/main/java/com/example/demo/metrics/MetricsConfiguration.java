@@ -0,0 +1,52 @@
+package com.example.demo.metrics;
+
+import com.example.demo.mapper.PersonMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.java21.instrument.binder.jdk.VirtualThreadMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Instrumentation propre à l'application, en complément de celle de Spring Boot
+ * (http.server.requests, mongodb.driver.commands, mongodb.driver.pool.*, jvm.gc.*,
+ * jvm.gc.memory.allocated pour le débit d'allocation).
+ */
+@Configuration(proxyBeanMethods = false)
+class MetricsConfiguration {
+
+    // Les services reçoivent le mapper mesuré, qui délègue au mapper généré
+    @Bean
+    @Primary
+    PersonMapper timedPersonMapper(@Qualifier("personMapperImpl") PersonMapper personMapper, MeterRegistry meterRegistry) {
+        return new TimedPersonMapper(personMapper, meterRegistry);
+    }
+
+    // Remplace le convertisseur JSON auto-configuré (même JsonMapper)
+    @Bean
+    TimedJsonHttpMessageConverter timedJsonHttpMessageConverter(JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        return new TimedJsonHttpMessageConverter(jsonMapper, meterRegistry);
+    }
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoPoolCheckoutMetrics(MeterRegistry meterRegistry) {
+        MongoPoolCheckoutMetrics listener = new MongoPoolCheckoutMetrics(meterRegistry);
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(listener));
+    }
+
+    // Épinglage des threads virtuels (événements JFR jdk.VirtualThreadPinned)
+    @Bean
+    @ConditionalOnMissingBean
+    VirtualThreadMetrics virtualThreadMetrics() {
+        return new VirtualThreadMetrics();
+    }
+
+    @Bean
+    VirtualThreadSchedulerMetrics virtualThreadSchedulerMetrics() {
+        return new VirtualThreadSchedulerMetrics();
+    }
+}
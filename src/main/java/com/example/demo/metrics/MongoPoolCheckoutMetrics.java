@@ -0,0 +1,42 @@
+package com.example.demo.metrics;
+
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attente pour obtenir une connexion du pool du driver (mongodb.driver.pool.checkout).
+ * Les métriques de pool fournies par Micrometer donnent l'occupation (taille,
+ * connexions empruntées, file d'attente), pas la durée de cette attente.
+ */
+public class MongoPoolCheckoutMetrics implements ConnectionPoolListener {
+
+    private final Timer succeeded;
+    private final Timer failed;
+
+    public MongoPoolCheckoutMetrics(MeterRegistry meterRegistry) {
+        this.succeeded = timer(meterRegistry, "success");
+        this.failed = timer(meterRegistry, "failed");
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("mongodb.driver.pool.checkout")
+                .description("Time spent waiting for a pooled MongoDB connection")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+        succeeded.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+        failed.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.json.JacksonJsonHttpMessageConverter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Convertisseur JSON de Spring MVC qui mesure l'écriture des corps de réponse
+ * (http.json.write{type}). Le tag type est la classe du corps (PersonDto, List,
+ * ProblemDetail...) : un ensemble fini, donc une cardinalité faible.
+ */
+public class TimedJsonHttpMessageConverter extends JacksonJsonHttpMessageConverter {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+    public TimedJsonHttpMessageConverter(JsonMapper jsonMapper, MeterRegistry meterRegistry) {
+        super(jsonMapper);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, ResolvableType resolvableType, HttpOutputMessage outputMessage,
+                                 Map<String, Object> hints) throws IOException {
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, resolvableType, outputMessage, hints);
+        } finally {
+            timers.computeIfAbsent(object.getClass(), this::timer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Class<?> type) {
+        return Timer.builder("http.json.write")
+                .description("JSON serialization of response bodies")
+                .tag("type", type.getSimpleName())
+                .register(meterRegistry);
+    }
+}
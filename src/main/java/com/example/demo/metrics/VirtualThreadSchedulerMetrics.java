@@ -0,0 +1,38 @@
+package com.example.demo.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jdk.management.VirtualThreadSchedulerMXBean;
+import org.springframework.core.NativeDetector;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Threads porteurs du scheduler des threads virtuels : parallélisme cible, taille
+ * du pool, threads virtuels montés et en attente d'un porteur. Complète les métriques
+ * d'épinglage de VirtualThreadMetrics (micrometer-java21).
+ */
+public class VirtualThreadSchedulerMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // MXBean propre à HotSpot, absent d'une image native
+        if (NativeDetector.inNativeImage()) {
+            return;
+        }
+        VirtualThreadSchedulerMXBean scheduler = ManagementFactory.getPlatformMXBean(VirtualThreadSchedulerMXBean.class);
+        Gauge.builder("jvm.threads.virtual.carrier.parallelism", scheduler, VirtualThreadSchedulerMXBean::getParallelism)
+                .description("Target parallelism of the virtual thread scheduler")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.carrier.pool.size", scheduler, VirtualThreadSchedulerMXBean::getPoolSize)
+                .description("Carrier threads started by the virtual thread scheduler")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.mounted", scheduler, VirtualThreadSchedulerMXBean::getMountedVirtualThreadCount)
+                .description("Virtual threads currently mounted on a carrier thread")
+                .register(registry);
+        Gauge.builder("jvm.threads.virtual.queued", scheduler, VirtualThreadSchedulerMXBean::getQueuedVirtualThreadCount)
+                .description("Virtual threads waiting for a carrier thread")
+                .register(registry);
+    }
+}
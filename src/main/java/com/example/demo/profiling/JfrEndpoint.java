@@ -0,0 +1,82 @@
+package com.example.demo.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.OptionalParameter;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * /actuator/jfr : pilotage de l'enregistrement continu.
+ * <ul>
+ *   <li>GET  /actuator/jfr : état de l'enregistrement</li>
+ *   <li>GET  /actuator/jfr/summary?seconds=300 : allocations, threads virtuels épinglés, requêtes lentes</li>
+ *   <li>POST /actuator/jfr/start | stop</li>
+ *   <li>POST /actuator/jfr/dump?seconds=300 : fichier .jfr de la fenêtre, à ouvrir dans JMC</li>
+ * </ul>
+ * Non exposé par défaut : le profil ops le publie sur le port de management seul.
+ */
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private static final Duration DEFAULT_WINDOW = Duration.ofMinutes(5);
+
+    private final JfrRecorder recorder;
+
+    public JfrEndpoint(JfrRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Status status() {
+        return new Status(recorder.isRunning(), recorder.startTime());
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Object> read(@Selector String view, @OptionalParameter Long seconds) throws IOException {
+        if (!"summary".equals(view)) {
+            return error(WebEndpointResponse.STATUS_NOT_FOUND, "Unknown view: " + view);
+        }
+        if (!recorder.isRunning()) {
+            return notRunning();
+        }
+        return new WebEndpointResponse<>(recorder.summarize(window(seconds)));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Object> control(@Selector String action, @OptionalParameter Long seconds) throws IOException {
+        return switch (action) {
+            case "start" -> new WebEndpointResponse<>(Map.of("started", recorder.start()));
+            case "stop" -> new WebEndpointResponse<>(Map.of("stopped", recorder.stop()));
+            case "dump" -> {
+                if (!recorder.isRunning()) {
+                    yield notRunning();
+                }
+                Path file = recorder.dump(window(seconds));
+                yield new WebEndpointResponse<>(Map.of("file", file.toString()));
+            }
+            default -> error(WebEndpointResponse.STATUS_NOT_FOUND, "Unknown action: " + action);
+        };
+    }
+
+    private static Duration window(Long seconds) {
+        return seconds != null && seconds > 0 ? Duration.ofSeconds(seconds) : DEFAULT_WINDOW;
+    }
+
+    private static WebEndpointResponse<Object> notRunning() {
+        return error(WebEndpointResponse.STATUS_BAD_REQUEST, "No JFR recording is running, POST /actuator/jfr/start first");
+    }
+
+    private static WebEndpointResponse<Object> error(int status, String message) {
+        return new WebEndpointResponse<>(Map.of("error", message), status);
+    }
+
+    public record Status(boolean running, Instant since) {}
+}
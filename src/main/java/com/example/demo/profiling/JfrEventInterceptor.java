@@ -0,0 +1,34 @@
+package com.example.demo.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Émet un PersonServiceEvent par appel. Hors enregistrement, l'événement n'est pas
+ * activé et l'appel passe directement.
+ */
+class JfrEventInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        PersonServiceEvent event = new PersonServiceEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+        event.begin();
+        String outcome = "success";
+        try {
+            return invocation.proceed();
+        } catch (Throwable ex) {
+            outcome = ex.getClass().getSimpleName();
+            throw ex;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.method = invocation.getMethod().getName();
+                event.outcome = outcome;
+                event.commit();
+            }
+        }
+    }
+}
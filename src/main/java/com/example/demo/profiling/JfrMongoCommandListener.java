@@ -0,0 +1,55 @@
+package com.example.demo.profiling;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import jdk.jfr.EventType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Un MongoCommandEvent par commande du driver, ouvert au départ de la commande et
+ * fermé à la réponse. Rien n'est alloué quand l'événement n'est pas enregistré.
+ */
+class JfrMongoCommandListener implements CommandListener {
+
+    private static final EventType EVENT_TYPE = EventType.getEventType(MongoCommandEvent.class);
+
+    private final Map<Integer, MongoCommandEvent> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public void commandStarted(CommandStartedEvent started) {
+        if (!EVENT_TYPE.isEnabled()) {
+            return;
+        }
+        MongoCommandEvent event = new MongoCommandEvent();
+        event.command = started.getCommandName();
+        event.database = started.getDatabaseName();
+        event.server = started.getConnectionDescription().getServerAddress().toString();
+        event.begin();
+        inFlight.put(started.getRequestId(), event);
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent succeeded) {
+        complete(succeeded.getRequestId(), true);
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent failed) {
+        complete(failed.getRequestId(), false);
+    }
+
+    private void complete(int requestId, boolean succeeded) {
+        MongoCommandEvent event = inFlight.remove(requestId);
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.succeeded = succeeded;
+                event.commit();
+            }
+        }
+    }
+}
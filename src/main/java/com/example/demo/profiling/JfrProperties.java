@@ -0,0 +1,28 @@
+package com.example.demo.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Enregistrement JFR continu piloté par /actuator/jfr.
+ *
+ * @param enabled         active l'endpoint et les événements applicatifs
+ * @param startOnStartup  démarre l'enregistrement avec l'application
+ * @param maxAge          profondeur de l'historique conservé sur disque
+ * @param maxSize         taille maximale de l'historique conservé
+ * @param eventThreshold  durée minimale des événements applicatifs enregistrés
+ * @param dumpDirectory   répertoire des fichiers .jfr extraits à la demande
+ */
+@ConfigurationProperties(prefix = "persons.profiling.jfr")
+public record JfrProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("false") boolean startOnStartup,
+        @DefaultValue("30m") Duration maxAge,
+        @DefaultValue("256MB") DataSize maxSize,
+        @DefaultValue("1ms") Duration eventThreshold,
+        @DefaultValue("${java.io.tmpdir}") Path dumpDirectory
+) {}
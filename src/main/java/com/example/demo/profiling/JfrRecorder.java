@@ -0,0 +1,130 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordingFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Enregistrement JFR continu à faible surcoût (configuration "default", < 1 %),
+ * conservé sur disque dans la limite de maxAge/maxSize. Les extractions et synthèses
+ * portent sur une fenêtre glissante se terminant maintenant.
+ */
+public class JfrRecorder implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecorder.class);
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    private final JfrProperties properties;
+    private final Clock clock;
+    private Recording recording;
+
+    public JfrRecorder(JfrProperties properties) {
+        this(properties, Clock.systemUTC());
+    }
+
+    JfrRecorder(JfrProperties properties, Clock clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public synchronized boolean start() {
+        if (isRunning()) {
+            return false;
+        }
+        Recording started = new Recording(defaultConfiguration());
+        started.setName("demo-continuous");
+        started.setToDisk(true);
+        started.setMaxAge(properties.maxAge());
+        started.setMaxSize(properties.maxSize().toBytes());
+        started.enable(HttpRequestEvent.class).withThreshold(properties.eventThreshold());
+        started.enable(PersonServiceEvent.class).withThreshold(properties.eventThreshold());
+        started.enable(MongoCommandEvent.class).withThreshold(properties.eventThreshold());
+        started.start();
+        recording = started;
+        log.info("Continuous JFR recording started (max age {}, max size {})", properties.maxAge(), properties.maxSize());
+        return true;
+    }
+
+    public synchronized boolean stop() {
+        if (!isRunning()) {
+            return false;
+        }
+        recording.close();
+        recording = null;
+        log.info("Continuous JFR recording stopped");
+        return true;
+    }
+
+    public synchronized boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    public synchronized Instant startTime() {
+        return isRunning() ? recording.getStartTime() : null;
+    }
+
+    /**
+     * Extrait les window dernières secondes dans un fichier .jfr de dumpDirectory.
+     */
+    public synchronized Path dump(Duration window) throws IOException {
+        Instant to = clock.instant();
+        Instant from = to.minus(window);
+        Path destination = properties.dumpDirectory().resolve("demo-" + FILE_TIMESTAMP.format(to) + ".jfr");
+        Path full = dumpAll();
+        try (RecordingFile file = new RecordingFile(full)) {
+            file.write(destination, event -> !event.getEndTime().isBefore(from));
+        } finally {
+            Files.deleteIfExists(full);
+        }
+        return destination;
+    }
+
+    public synchronized JfrSummary summarize(Duration window) throws IOException {
+        Instant to = clock.instant();
+        Path full = dumpAll();
+        try {
+            return JfrSummaryReader.read(full, to.minus(window), to);
+        } finally {
+            Files.deleteIfExists(full);
+        }
+    }
+
+    private Path dumpAll() throws IOException {
+        if (!isRunning()) {
+            throw new IllegalStateException("No JFR recording is running");
+        }
+        Path full = Files.createTempFile("demo-jfr-", ".jfr");
+        recording.dump(full);
+        return full;
+    }
+
+    private static Configuration defaultConfiguration() {
+        try {
+            return Configuration.getConfiguration("default");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ParseException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public synchronized void destroy() {
+        stop();
+    }
+}
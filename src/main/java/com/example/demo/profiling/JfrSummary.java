@@ -0,0 +1,31 @@
+package com.example.demo.profiling;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Synthèse d'une fenêtre de l'enregistrement, calculée côté serveur.
+ *
+ * @param topAllocations        sites d'allocation les plus lourds (échantillons pondérés)
+ * @param pinnedOrBlocked       plus longs épinglages ou attentes de moniteur de threads virtuels
+ * @param slowestRequests       requêtes HTTP les plus lentes
+ * @param slowestServiceCalls   appels PersonService les plus lents
+ * @param slowestMongoCommands  commandes MongoDB les plus lentes
+ */
+public record JfrSummary(
+        Instant from,
+        Instant to,
+        List<AllocationSite> topAllocations,
+        List<ThreadStall> pinnedOrBlocked,
+        List<SlowCall> slowestRequests,
+        List<SlowCall> slowestServiceCalls,
+        List<SlowCall> slowestMongoCommands
+) {
+
+    public record AllocationSite(String frame, long bytes, long samples) {}
+
+    public record ThreadStall(String type, String thread, String frame, Duration duration, Instant start) {}
+
+    public record SlowCall(String name, String detail, Duration duration, Instant start) {}
+}
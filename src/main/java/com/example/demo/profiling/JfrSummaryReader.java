@@ -0,0 +1,135 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Parcourt un fichier .jfr une seule fois et ne garde que les N premiers éléments
+ * de chaque classement.
+ */
+final class JfrSummaryReader {
+
+    private static final int TOP = 10;
+
+    private final Instant from;
+    private final Map<String, long[]> allocations = new HashMap<>();
+    private final Top<JfrSummary.ThreadStall> stalls = new Top<>(Comparator.comparing(JfrSummary.ThreadStall::duration));
+    private final Top<JfrSummary.SlowCall> requests = new Top<>(Comparator.comparing(JfrSummary.SlowCall::duration));
+    private final Top<JfrSummary.SlowCall> serviceCalls = new Top<>(Comparator.comparing(JfrSummary.SlowCall::duration));
+    private final Top<JfrSummary.SlowCall> mongoCommands = new Top<>(Comparator.comparing(JfrSummary.SlowCall::duration));
+
+    private JfrSummaryReader(Instant from) {
+        this.from = from;
+    }
+
+    static JfrSummary read(Path recording, Instant from, Instant to) throws IOException {
+        JfrSummaryReader reader = new JfrSummaryReader(from);
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                if (!event.getEndTime().isBefore(from)) {
+                    reader.accept(event);
+                }
+            }
+        }
+        return reader.summary(to);
+    }
+
+    private void accept(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case "jdk.ObjectAllocationSample" -> {
+                long[] site = allocations.computeIfAbsent(frame(event.getStackTrace()), key -> new long[2]);
+                site[0] += event.getLong("weight");
+                site[1]++;
+            }
+            case "jdk.VirtualThreadPinned" -> stall("pinned", event);
+            case "jdk.JavaMonitorEnter" -> {
+                RecordedThread thread = event.getThread();
+                if (thread != null && thread.isVirtual()) {
+                    stall("monitor-enter", event);
+                }
+            }
+            case "com.example.demo.HttpRequest" -> requests.add(new JfrSummary.SlowCall(
+                    event.getString("method") + " " + event.getString("route"),
+                    "status " + event.getInt("status"), event.getDuration(), event.getStartTime()));
+            case "com.example.demo.PersonService" -> serviceCalls.add(new JfrSummary.SlowCall(
+                    event.getString("method"), event.getString("outcome"), event.getDuration(), event.getStartTime()));
+            case "com.example.demo.MongoCommand" -> mongoCommands.add(new JfrSummary.SlowCall(
+                    event.getString("command"), event.getString("server") + (event.getBoolean("succeeded") ? "" : " (failed)"),
+                    event.getDuration(), event.getStartTime()));
+            default -> {
+                // événement non résumé
+            }
+        }
+    }
+
+    private void stall(String type, RecordedEvent event) {
+        RecordedThread thread = event.getThread();
+        stalls.add(new JfrSummary.ThreadStall(type, thread != null ? thread.getJavaName() : null,
+                frame(event.getStackTrace()), event.getDuration(), event.getStartTime()));
+    }
+
+    private JfrSummary summary(Instant to) {
+        List<JfrSummary.AllocationSite> sites = allocations.entrySet().stream()
+                .map(entry -> new JfrSummary.AllocationSite(entry.getKey(), entry.getValue()[0], entry.getValue()[1]))
+                .sorted(Comparator.comparingLong(JfrSummary.AllocationSite::bytes).reversed())
+                .limit(TOP)
+                .toList();
+        return new JfrSummary(from, to, sites, stalls.sorted(), requests.sorted(), serviceCalls.sorted(), mongoCommands.sorted());
+    }
+
+    // Première frame hors JDK : l'appelant applicatif plutôt qu'Arrays.copyOf
+    private static String frame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return "<unknown>";
+        }
+        for (RecordedFrame frame : stackTrace.getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.") && !type.startsWith("sun.")) {
+                return describe(frame);
+            }
+        }
+        return describe(stackTrace.getFrames().getFirst());
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+
+    private static final class Top<T> {
+
+        private final Comparator<T> order;
+        private final PriorityQueue<T> smallestFirst;
+
+        Top(Comparator<T> order) {
+            this.order = order;
+            this.smallestFirst = new PriorityQueue<>(order);
+        }
+
+        void add(T value) {
+            smallestFirst.add(value);
+            if (smallestFirst.size() > TOP) {
+                smallestFirst.poll();
+            }
+        }
+
+        List<T> sorted() {
+            List<T> values = new ArrayList<>(smallestFirst);
+            values.sort(order.reversed());
+            return values;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.demo.MongoCommand")
+@Label("MongoDB Command")
+@Description("MongoDB command sent by the driver, from start to reply")
+@Category({"Demo", "MongoDB"})
+@StackTrace(false)
+class MongoCommandEvent extends jdk.jfr.Event {
+
+    @Label("Command")
+    String command;
+
+    @Label("Database")
+    String database;
+
+    @Label("Server")
+    String server;
+
+    @Label("Succeeded")
+    boolean succeeded;
+}
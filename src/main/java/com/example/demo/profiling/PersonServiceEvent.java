@@ -0,0 +1,21 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.example.demo.PersonService")
+@Label("PersonService Call")
+@Description("Call to a public PersonService method")
+@Category({"Demo", "Persons"})
+@StackTrace(false)
+class PersonServiceEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Outcome")
+    String outcome;
+}
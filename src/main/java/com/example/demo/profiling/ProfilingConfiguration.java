@@ -0,0 +1,70 @@
+package com.example.demo.profiling;
+
+import com.example.demo.service.PersonService;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+import org.springframework.core.Ordered;
+
+/**
+ * Événements JFR applicatifs (requêtes HTTP, appels PersonService, commandes MongoDB)
+ * et endpoint /actuator/jfr. Les événements ne coûtent qu'un test isEnabled() tant
+ * qu'aucun enregistrement ne les active.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "persons.profiling.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+class ProfilingConfiguration {
+
+    // Statique : un BeanPostProcessor est instancié avant les autres beans de la configuration
+    @Bean
+    static BeanPostProcessor personServiceJfrEvents() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Pas de proxy de classe généré à l'exécution dans une image native
+                if (!(bean instanceof PersonService) || NativeDetector.inNativeImage()) {
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.setProxyTargetClass(true);
+                proxyFactory.addAdvice(new JfrEventInterceptor());
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer mongoCommandJfrEvents() {
+        JfrMongoCommandListener listener = new JfrMongoCommandListener();
+        return settings -> settings.addCommandListener(listener);
+    }
+
+    // Au plus près du conteneur pour mesurer toute la chaîne de filtres
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    FilterRegistrationBean<JfrRequestFilter> jfrRequestFilter() {
+        FilterRegistrationBean<JfrRequestFilter> registration = new FilterRegistrationBean<>(new JfrRequestFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    JfrRecorder jfrRecorder(JfrProperties properties) {
+        JfrRecorder recorder = new JfrRecorder(properties);
+        if (properties.startOnStartup()) {
+            recorder.start();
+        }
+        return recorder;
+    }
+
+    @Bean
+    JfrEndpoint jfrEndpoint(JfrRecorder recorder) {
+        return new JfrEndpoint(recorder);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.repository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Résultat d'un lot d'écritures groupées.
+ *
+ * @param ids      identifiant de chaque élément du lot, dans l'ordre d'envoi
+ * @param errors   message d'erreur Mongo par index dans le lot
+ * @param upserted index des upserts qui ont créé leur document (id client encore absent)
+ */
+public record PersonBulkWriteResult(
+        List<String> ids,
+        Map<Integer, String> errors,
+        Set<Integer> upserted
+) {
+
+    // Lot sans upsert : insertions seules
+    public PersonBulkWriteResult(List<String> ids, Map<Integer, String> errors) {
+        this(ids, errors, Set.of());
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Champs demandés par ?fields=, poussés en projection Mongo : les champs non demandés
+ * ne sont ni transférés, ni décodés, ni sérialisés. Seuls les champs de ALLOWED
+ * peuvent être projetés (pas de _class ni de champ interne).
+ */
+public record PersonFields(Set<String> names) {
+
+    public static final List<String> ALLOWED = List.of("id", "name", "age", "version");
+
+    /**
+     * Document projeté vers la représentation JSON, dans l'ordre demandé.
+     * _id est toujours renvoyé par Mongo (curseur) mais n'est exposé que s'il est demandé.
+     */
+    public Map<String, Object> project(Document document) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String name : names) {
+            if (name.equals("id")) {
+                Object id = document.get("_id");
+                projected.put(name, id instanceof ObjectId objectId ? objectId.toHexString() : id);
+            } else {
+                projected.put(name, document.get(name));
+            }
+        }
+        return projected;
+    }
+
+    // Même représentation quand la personne complète est déjà en cache
+    public Map<String, Object> project(Person person) {
+        Map<String, Object> projected = new LinkedHashMap<>();
+        for (String name : names) {
+            projected.put(name, switch (name) {
+                case "id" -> person.id();
+                case "name" -> person.name();
+                case "age" -> person.age();
+                case "version" -> person.version();
+                default -> throw new IllegalStateException("Field not allowed: " + name);
+            });
+        }
+        return projected;
+    }
+}
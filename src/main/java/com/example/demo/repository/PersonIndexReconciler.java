@@ -0,0 +1,106 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aligne les index de la collection sur ceux déclarés sur Person. Les index manquants
+ * sont créés après le démarrage, hors du chemin de démarrage ; les écarts (index
+ * non déclarés, ou de même nom avec d'autres clés) sont seulement signalés, jamais
+ * supprimés ni reconstruits automatiquement.
+ */
+@Component
+@ConditionalOnProperty(prefix = "persons.indexes", name = "reconcile-on-startup", havingValue = "true", matchIfMissing = true)
+public class PersonIndexReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonIndexReconciler.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public PersonIndexReconciler(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileInBackground() {
+        Thread.ofVirtual().name("person-index-reconciler").start(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.warn("Person index reconciliation failed, search queries may scan the collection", e);
+            }
+        });
+    }
+
+    public Report reconcile() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Person.class);
+        Map<String, List<String>> existing = new HashMap<>();
+        for (IndexInfo info : indexOps.getIndexInfo()) {
+            existing.put(info.getName(), keysOf(info));
+        }
+
+        List<String> created = new ArrayList<>();
+        List<String> mismatched = new ArrayList<>();
+        IndexResolver resolver = IndexResolver.create(mongoTemplate.getConverter().getMappingContext());
+        for (IndexDefinition definition : resolver.resolveIndexFor(Person.class)) {
+            String name = definition.getIndexOptions().getString("name");
+            List<String> keys = keysOf(definition.getIndexKeys());
+            List<String> current = existing.remove(name);
+            if (current == null) {
+                log.info("Creating missing person index {} {}", name, keys);
+                indexOps.createIndex(definition);
+                created.add(name);
+            } else if (!current.equals(keys)) {
+                log.warn("Person index {} drifted: declared {} but found {}", name, keys, current);
+                mismatched.add(name);
+            }
+        }
+        existing.remove("_id_");
+        List<String> undeclared = List.copyOf(existing.keySet());
+        if (!undeclared.isEmpty()) {
+            log.warn("Person collection has undeclared indexes {}", undeclared);
+        }
+        return new Report(created, mismatched, undeclared);
+    }
+
+    private static List<String> keysOf(IndexInfo info) {
+        List<String> keys = new ArrayList<>();
+        for (IndexField field : info.getIndexFields()) {
+            String direction = field.getDirection() == null ? "special"
+                    : field.getDirection() == Sort.Direction.ASC ? "1" : "-1";
+            keys.add(field.getKey() + ":" + direction);
+        }
+        return keys;
+    }
+
+    private static List<String> keysOf(Document indexKeys) {
+        List<String> keys = new ArrayList<>();
+        indexKeys.forEach((key, value) -> keys.add(key + ":" + (value instanceof Number n ? Integer.toString(n.intValue()) : "special")));
+        return keys;
+    }
+
+    /**
+     * @param created    index déclarés absents, créés par cette passe
+     * @param mismatched index déclarés présents sous le même nom mais avec d'autres clés
+     * @param undeclared index présents sur la collection mais non déclarés (hors _id_)
+     */
+    public record Report(List<String> created, List<String> mismatched, List<String> undeclared) {}
+}
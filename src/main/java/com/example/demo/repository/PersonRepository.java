@@ -1,9 +1,27 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Person;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface PersonRepository extends MongoRepository<Person, String> {
+public interface PersonRepository extends MongoRepository<Person, String>, PersonRepositoryCustom {
+
+    List<Person> findAllByOrderByIdAsc(Limit limit);
+
+    // Pas de requête count, contrairement à findAll(Pageable)
+    List<Person> findAllBy(Pageable pageable);
+
+    Optional<PersonVersion> findVersionById(String id);
+
+    // Curseur Mongo ouvert : le Stream doit être fermé par l'appelant
+    @Meta(cursorBatchSize = 1000)
+    Stream<Person> streamAllBy();
 }
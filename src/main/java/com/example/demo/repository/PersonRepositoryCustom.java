@@ -0,0 +1,62 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import org.bson.Document;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface PersonRepositoryCustom {
+
+    /**
+     * Écrit un lot en un seul aller-retour : insertion pour les personnes sans id
+     * (l'id est généré côté client), upsert pour les autres. Une insertion est en
+     * version 0 ; l'upsert incrémente la version ($inc), et crée donc en version 1 une
+     * personne dont l'id n'existait pas ($setOnInsert ne peut viser le même champ).
+     */
+    PersonBulkWriteResult bulkWrite(List<Person> persons, boolean ordered);
+
+    /**
+     * Met à jour nom et âge et incrémente la version en un seul aller-retour
+     * (findAndModify). Si expectedVersion est fourni, la mise à jour n'a lieu que si
+     * la version stockée est identique. Retourne la personne avant et après la mise à
+     * jour, ou null si aucun document ne correspond.
+     */
+    PersonUpdate updateIfPresent(String id, String name, int age, Long expectedVersion);
+
+    /**
+     * Supprime le document en un seul aller-retour (findAndDelete) et le retourne,
+     * vide si aucun document n'a été supprimé.
+     */
+    Optional<Person> deleteIfPresent(String id);
+
+    /**
+     * Nombre de personnes par âge, calculé par Mongo ($group) sur l'index age_id sans
+     * lire les documents.
+     */
+    Map<Integer, Long> countByAge();
+
+    /**
+     * Personnes qui suivent id dans l'ordre de _id de Mongo, y compris d'une tranche de
+     * type BSON à la suivante (voir PersonRepositoryCustomImpl.idAfter).
+     */
+    List<Person> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    /**
+     * Recherche par pagination clé : les personnes qui suivent after dans l'ordre de
+     * l'index choisi par search.sortKey(). after ne porte que l'id et la clé de tri.
+     */
+    List<Person> search(PersonSearch search, Person after, int limit);
+
+    /**
+     * Lectures projetées : seuls les champs demandés (et _id) sont lus dans Mongo.
+     */
+    List<Document> findProjectedAfter(PersonFields fields, String after, int limit);
+
+    List<Document> findProjectedPage(PersonFields fields, Pageable pageable);
+
+    Optional<Document> findProjectedById(String id, PersonFields fields);
+}
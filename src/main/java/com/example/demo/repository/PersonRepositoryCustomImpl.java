@@ -0,0 +1,235 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.group;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.project;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.sort;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class PersonRepositoryCustomImpl implements PersonRepositoryCustom {
+
+    private static final int BSON_OBJECT_ID = 7;
+
+    private final MongoOperations mongoOperations;
+
+    PersonRepositoryCustomImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public PersonBulkWriteResult bulkWrite(List<Person> persons, boolean ordered) {
+        BulkOperations bulk = mongoOperations.bulkOps(ordered ? BulkMode.ORDERED : BulkMode.UNORDERED, Person.class);
+        List<String> ids = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            if (person.id() == null) {
+                String id = new ObjectId().toHexString();
+                bulk.insert(new Person(id, person.name(), person.age(), 0L));
+                ids.add(id);
+            } else {
+                bulk.upsert(query(where("id").is(person.id())), update(person.name(), person.age()));
+                ids.add(person.id());
+            }
+        }
+        try {
+            return new PersonBulkWriteResult(ids, Map.of(), upsertedIndexes(bulk.execute()));
+        } catch (BulkOperationException ex) {
+            return new PersonBulkWriteResult(ids, errorsByIndex(ex.getErrors()), upsertedIndexes(ex.getResult()));
+        }
+    }
+
+    // Partagés avec ReactivePersonRepositoryCustomImpl
+    static Map<Integer, String> errorsByIndex(List<BulkWriteError> bulkErrors) {
+        Map<Integer, String> errors = new HashMap<>();
+        for (BulkWriteError error : bulkErrors) {
+            errors.put(error.getIndex(), error.getMessage());
+        }
+        return errors;
+    }
+
+    static Set<Integer> upsertedIndexes(BulkWriteResult result) {
+        Set<Integer> upserted = new HashSet<>();
+        for (BulkWriteUpsert upsert : result.getUpserts()) {
+            upserted.add(upsert.getIndex());
+        }
+        return upserted;
+    }
+
+    @Override
+    public PersonUpdate updateIfPresent(String id, String name, int age, Long expectedVersion) {
+        // Document d'avant : le nouveau s'en déduit, la mise à jour étant entièrement connue
+        Person previous = mongoOperations.findAndModify(updateQuery(id, expectedVersion), update(name, age),
+                FindAndModifyOptions.options().returnNew(false), Person.class);
+        return previous == null ? null : updated(previous, name, age);
+    }
+
+    // Requêtes partagées avec ReactivePersonRepositoryCustomImpl
+    static PersonUpdate updated(Person previous, String name, int age) {
+        long version = previous.version() == null ? 1 : previous.version() + 1;
+        return new PersonUpdate(previous, new Person(previous.id(), name, age, version));
+    }
+
+    static Query updateQuery(String id, Long expectedVersion) {
+        Query query = query(where("id").is(id));
+        if (expectedVersion != null) {
+            query.addCriteria(versionIs(expectedVersion));
+        }
+        return query;
+    }
+
+    @Override
+    public Optional<Person> deleteIfPresent(String id) {
+        return Optional.ofNullable(mongoOperations.findAndRemove(query(where("id").is(id)), Person.class));
+    }
+
+    @Override
+    public Map<Integer, Long> countByAge() {
+        // Tri et projection sur age seul : parcours couvert de l'index age_id, sans FETCH
+        Aggregation aggregation = newAggregation(
+                sort(Sort.Direction.ASC, "age"),
+                project("age").andExclude("_id"),
+                group("age").count().as("count"));
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Document result : mongoOperations.aggregate(aggregation, Person.class, Document.class)) {
+            counts.put(result.getInteger("_id"), ((Number) result.get("count")).longValue());
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Person> search(PersonSearch search, Person after, int limit) {
+        return mongoOperations.find(searchQuery(search, after, limit), Person.class);
+    }
+
+    /**
+     * Filtre, tri et borne de reprise sont exprimés sur les champs de l'index, sans $or :
+     * l'IXSCAN démarre directement à la clé du curseur et fournit l'ordre.
+     */
+    static Query searchQuery(PersonSearch search, Person after, int limit) {
+        List<Criteria> criteria = new ArrayList<>();
+        if (search.namePrefix() != null) {
+            criteria.add(where("name").regex("^" + escapeRegex(search.namePrefix())));
+        }
+        if (search.minAge() != null) {
+            criteria.add(where("age").gte(search.minAge()));
+        }
+        if (search.maxAge() != null) {
+            criteria.add(where("age").lte(search.maxAge()));
+        }
+        Sort sort = switch (search.sortKey()) {
+            case NAME -> Sort.by("name", "id");
+            case AGE -> Sort.by("age", "id");
+            case ID -> Sort.by("id");
+        };
+        if (after != null) {
+            switch (search.sortKey()) {
+                case NAME -> {
+                    criteria.add(where("name").gte(after.name()));
+                    criteria.add(new Criteria().norOperator(where("name").is(after.name()).and("id").lte(after.id())));
+                }
+                case AGE -> {
+                    criteria.add(where("age").gte(after.age()));
+                    criteria.add(new Criteria().norOperator(where("age").is(after.age()).and("id").lte(after.id())));
+                }
+                case ID -> criteria.add(idAfter(after.id()));
+            }
+        }
+        Query query = criteria.isEmpty() ? new Query() : query(new Criteria().andOperator(criteria));
+        return query.with(sort).limit(limit);
+    }
+
+    @Override
+    public List<Person> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return mongoOperations.find(query(idAfter(id)).with(Sort.by("id")).limit(limit), Person.class);
+    }
+
+    /**
+     * Borne de reprise d'un parcours trié sur _id. Mongo compare d'abord le type BSON :
+     * $gt sur une chaîne ne renvoie que des chaînes, alors que le tri place toutes les
+     * chaînes (id fournis par le client) avant tous les ObjectId (id générés). Un curseur
+     * chaîne poursuit donc dans la tranche ObjectId, chaque branche du $or étant une
+     * borne de l'index _id fusionnée dans l'ordre (SORT_MERGE). Un curseur au format
+     * ObjectId est converti par le mapping et borne déjà la dernière tranche.
+     */
+    static Criteria idAfter(String after) {
+        if (ObjectId.isValid(after)) {
+            return where("id").gt(after);
+        }
+        return new Criteria().orOperator(where("id").gt(after), where("id").type(BSON_OBJECT_ID));
+    }
+
+    @Override
+    public List<Document> findProjectedAfter(PersonFields fields, String after, int limit) {
+        Query query = after == null ? new Query() : query(idAfter(after));
+        return findProjected(query.with(Sort.by("id")).limit(limit), fields);
+    }
+
+    @Override
+    public List<Document> findProjectedPage(PersonFields fields, Pageable pageable) {
+        return findProjected(new Query().with(pageable), fields);
+    }
+
+    @Override
+    public Optional<Document> findProjectedById(String id, PersonFields fields) {
+        return findProjected(query(where("id").is(id)).limit(1), fields).stream().findFirst();
+    }
+
+    // Type de domaine Person pour le mapping id/_id et la conversion ObjectId, résultat brut
+    private List<Document> findProjected(Query query, PersonFields fields) {
+        return mongoOperations.query(Person.class).as(Document.class).matching(withFields(query, fields)).all();
+    }
+
+    static Query withFields(Query query, PersonFields fields) {
+        fields.names().forEach(name -> query.fields().include(name));
+        return query;
+    }
+
+    // Un préfixe littéral ancré (^abc) est converti par Mongo en bornes d'index exactes
+    private static String escapeRegex(String prefix) {
+        StringBuilder escaped = new StringBuilder(prefix.length() + 8);
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    static Update update(String name, int age) {
+        return new Update().set("name", name).set("age", age).inc("version", 1);
+    }
+
+    // Les documents antérieurs au champ version sont exposés en version 0
+    private static Criteria versionIs(long version) {
+        return version == 0 ? where("version").in(0L, null) : where("version").is(version);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.repository;
+
+/**
+ * Critères de GET /api/persons/search. Chaque combinaison correspond à un index
+ * déclaré sur Person : le préfixe de nom trie par (name, _id), la tranche d'âge
+ * seule par (age, _id), sans critère la recherche se ramène à un parcours de _id.
+ *
+ * @param namePrefix préfixe de nom, sensible à la casse (seule forme servie par des bornes d'index)
+ * @param minAge     âge minimal inclus
+ * @param maxAge     âge maximal inclus
+ */
+public record PersonSearch(String namePrefix, Integer minAge, Integer maxAge) {
+
+    public enum SortKey { NAME, AGE, ID }
+
+    public SortKey sortKey() {
+        if (namePrefix != null) {
+            return SortKey.NAME;
+        }
+        return minAge != null || maxAge != null ? SortKey.AGE : SortKey.ID;
+    }
+}
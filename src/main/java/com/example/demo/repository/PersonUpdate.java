@@ -0,0 +1,9 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+
+/**
+ * Résultat d'une mise à jour : le document tel qu'il était avant et tel qu'il est
+ * après, pour les agrégats qui doivent retirer l'ancienne valeur.
+ */
+public record PersonUpdate(Person previous, Person current) {}
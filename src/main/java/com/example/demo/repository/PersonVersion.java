@@ -0,0 +1,6 @@
+package com.example.demo.repository;
+
+/**
+ * Projection {version: 1} : seul le numéro de version est lu et décodé.
+ */
+public record PersonVersion(Long version) {}
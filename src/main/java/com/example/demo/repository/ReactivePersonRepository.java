@@ -0,0 +1,28 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Pendant réactif de PersonRepository, utilisé par le profil reactive. Mêmes requêtes
+ * et mêmes index ; les résultats sont émis au fil du curseur, à la demande de l'abonné.
+ */
+@Repository
+public interface ReactivePersonRepository extends ReactiveMongoRepository<Person, String>, ReactivePersonRepositoryCustom {
+
+    Flux<Person> findAllByOrderByIdAsc(Limit limit);
+
+    Flux<Person> findAllBy(Pageable pageable);
+
+    Mono<PersonVersion> findVersionById(String id);
+
+    // Flux sans limite, demandé par lots au driver selon la contre-pression de l'abonné
+    @Meta(cursorBatchSize = 1000)
+    Flux<Person> findAllByOrderByIdAsc();
+}
@@ -0,0 +1,38 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import org.bson.Document;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Opérations de PersonRepositoryCustom utilisées par ReactivePersonService, avec la
+ * même sémantique (voir PersonRepositoryCustom).
+ */
+public interface ReactivePersonRepositoryCustom {
+
+    Mono<PersonBulkWriteResult> bulkWrite(List<Person> persons, boolean ordered);
+
+    Flux<Person> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // Flux sans limite, demandé par lots au driver selon la contre-pression de l'abonné
+    Flux<Person> findByIdGreaterThanOrderByIdAsc(String id);
+
+    // Personne avant et après la mise à jour, vide si aucun document ne correspond
+    Mono<PersonUpdate> updateIfPresent(String id, String name, int age, Long expectedVersion);
+
+    // Personne supprimée, vide si aucun document ne correspond
+    Mono<Person> deleteIfPresent(String id);
+
+    Flux<Person> search(PersonSearch search, Person after, int limit);
+
+    Flux<Document> findProjectedAfter(PersonFields fields, String after, int limit);
+
+    Flux<Document> findProjectedPage(PersonFields fields, Pageable pageable);
+
+    Mono<Document> findProjectedById(String id, PersonFields fields);
+}
@@ -0,0 +1,121 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import com.mongodb.MongoBulkWriteException;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveBulkOperations;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+class ReactivePersonRepositoryCustomImpl implements ReactivePersonRepositoryCustom {
+
+    private final ReactiveMongoOperations mongoOperations;
+
+    ReactivePersonRepositoryCustomImpl(ReactiveMongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public Mono<PersonBulkWriteResult> bulkWrite(List<Person> persons, boolean ordered) {
+        ReactiveBulkOperations bulk = mongoOperations.bulkOps(ordered ? BulkMode.ORDERED : BulkMode.UNORDERED, Person.class);
+        List<String> ids = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            if (person.id() == null) {
+                String id = new ObjectId().toHexString();
+                bulk.insert(new Person(id, person.name(), person.age(), 0L));
+                ids.add(id);
+            } else {
+                bulk.upsert(query(where("id").is(person.id())), PersonRepositoryCustomImpl.update(person.name(), person.age()));
+                ids.add(person.id());
+            }
+        }
+        return bulk.execute()
+                .map(result -> new PersonBulkWriteResult(ids, Map.<Integer, String>of(),
+                        PersonRepositoryCustomImpl.upsertedIndexes(result)))
+                .onErrorResume(ex -> partialResult(ids, ex) != null, ex -> Mono.just(partialResult(ids, ex)));
+    }
+
+    /**
+     * Erreurs par élément et upserts d'une écriture groupée en échec partiel. Le template
+     * réactif traduit l'exception du driver (DuplicateKeyException pour une clé en
+     * double) : l'exception d'origine est cherchée dans les causes.
+     */
+    private static PersonBulkWriteResult partialResult(List<String> ids, Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof BulkOperationException bulk) {
+                return new PersonBulkWriteResult(ids, PersonRepositoryCustomImpl.errorsByIndex(bulk.getErrors()),
+                        PersonRepositoryCustomImpl.upsertedIndexes(bulk.getResult()));
+            }
+            if (cause instanceof MongoBulkWriteException bulk) {
+                return new PersonBulkWriteResult(ids, PersonRepositoryCustomImpl.errorsByIndex(bulk.getWriteErrors()),
+                        PersonRepositoryCustomImpl.upsertedIndexes(bulk.getWriteResult()));
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Flux<Person> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return mongoOperations.find(query(PersonRepositoryCustomImpl.idAfter(id)).with(Sort.by("id")).limit(limit), Person.class);
+    }
+
+    @Override
+    public Flux<Person> findByIdGreaterThanOrderByIdAsc(String id) {
+        Query query = query(PersonRepositoryCustomImpl.idAfter(id)).with(Sort.by("id")).cursorBatchSize(1000);
+        return mongoOperations.find(query, Person.class);
+    }
+
+    @Override
+    public Mono<PersonUpdate> updateIfPresent(String id, String name, int age, Long expectedVersion) {
+        return mongoOperations.findAndModify(PersonRepositoryCustomImpl.updateQuery(id, expectedVersion),
+                        PersonRepositoryCustomImpl.update(name, age), FindAndModifyOptions.options().returnNew(false), Person.class)
+                .map(previous -> PersonRepositoryCustomImpl.updated(previous, name, age));
+    }
+
+    @Override
+    public Mono<Person> deleteIfPresent(String id) {
+        return mongoOperations.findAndRemove(query(where("id").is(id)), Person.class);
+    }
+
+    @Override
+    public Flux<Person> search(PersonSearch search, Person after, int limit) {
+        return mongoOperations.find(PersonRepositoryCustomImpl.searchQuery(search, after, limit), Person.class);
+    }
+
+    @Override
+    public Flux<Document> findProjectedAfter(PersonFields fields, String after, int limit) {
+        Query query = after == null ? new Query() : query(PersonRepositoryCustomImpl.idAfter(after));
+        return findProjected(query.with(Sort.by("id")).limit(limit), fields);
+    }
+
+    @Override
+    public Flux<Document> findProjectedPage(PersonFields fields, Pageable pageable) {
+        return findProjected(new Query().with(pageable), fields);
+    }
+
+    @Override
+    public Mono<Document> findProjectedById(String id, PersonFields fields) {
+        return findProjected(query(where("id").is(id)).limit(1), fields).next();
+    }
+
+    private Flux<Document> findProjected(Query query, PersonFields fields) {
+        return mongoOperations.query(Person.class).as(Document.class)
+                .matching(PersonRepositoryCustomImpl.withFields(query, fields)).all();
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.demo.routing;
+
+import com.example.demo.exception.InvalidRequestException;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Jeton de cohérence causale : operationTime de la dernière écriture et $clusterTime
+ * (signé par le serveur) vus par le driver. Une lecture qui le présente attend qu'un
+ * membre ait appliqué l'écriture, quel que soit le membre et l'instance applicative.
+ *
+ * Encodé en base64url du document BSON {t: operationTime, c: $clusterTime}, suivi d'un
+ * HMAC-SHA256 de ce document. Le $clusterTime d'un jeton est transmis au serveur : sans
+ * keyfile, un replica set accepte un $clusterTime non signé, et un jeton forgé pourrait
+ * avancer l'horloge logique du cluster. Seuls les jetons émis par l'application passent.
+ */
+public record ConsistencyToken(BsonTimestamp operationTime, BsonDocument clusterTime) {
+
+    static final String MAC_ALGORITHM = "HmacSHA256";
+
+    // Un $clusterTime signé tient en une centaine d'octets, le HMAC en 43 caractères
+    private static final int MAX_ENCODED_LENGTH = 512;
+    private static final char SEPARATOR = '.';
+
+    public String encode(SecretKey key) {
+        BsonDocument document = new BsonDocument("t", operationTime).append("c", clusterTime);
+        ByteBuffer buffer = new RawBsonDocument(document, new BsonDocumentCodec()).getByteBuffer().asNIO();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(bytes) + SEPARATOR + encoder.encodeToString(mac(key, bytes));
+    }
+
+    public static ConsistencyToken decode(String encoded, SecretKey key) {
+        int separator = encoded.indexOf(SEPARATOR);
+        if (encoded.length() > MAX_ENCODED_LENGTH || separator < 0) {
+            throw invalid();
+        }
+        byte[] bytes;
+        byte[] signature;
+        try {
+            bytes = Base64.getUrlDecoder().decode(encoded.substring(0, separator));
+            signature = Base64.getUrlDecoder().decode(encoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+        // Comparaison en temps constant, avant toute lecture du BSON
+        if (!MessageDigest.isEqual(mac(key, bytes), signature)) {
+            throw invalid();
+        }
+        try {
+            RawBsonDocument document = new RawBsonDocument(bytes);
+            return new ConsistencyToken(document.getTimestamp("t"), document.getDocument("c"));
+        } catch (RuntimeException e) {
+            // Signé mais illisible : format d'une autre version de l'application
+            throw invalid();
+        }
+    }
+
+    /**
+     * Le plus récent des deux jetons, pour une requête qui écrit plusieurs fois.
+     */
+    public ConsistencyToken latest(ConsistencyToken other) {
+        return other == null || operationTime.compareTo(other.operationTime) >= 0 ? this : other;
+    }
+
+    private static byte[] mac(SecretKey key, byte[] bytes) {
+        try {
+            // Mac n'est pas thread-safe ; une instance par appel reste négligeable devant la lecture
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(bytes);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 unavailable", e);
+        }
+    }
+
+    private static InvalidRequestException invalid() {
+        return new InvalidRequestException("Invalid consistency token");
+    }
+}
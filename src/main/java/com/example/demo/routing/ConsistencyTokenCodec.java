@@ -0,0 +1,67 @@
+package com.example.demo.routing;
+
+import com.example.demo.config.ReadRoutingProperties;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Clé HMAC des jetons X-Consistency-Token. Routage ou jetons désactivés : aucun jeton
+ * n'est émis et ceux reçus sont ignorés (lecture ordinaire).
+ *
+ * Jetons activés, persons.read-routing.token-secret est obligatoire et partagé entre
+ * réplicas : une clé propre à chaque instance ferait refuser (400) les jetons émis par
+ * les autres derrière le répartiteur de charge.
+ */
+public final class ConsistencyTokenCodec {
+
+    static final int MIN_SECRET_LENGTH = 32;
+
+    private static final ConsistencyTokenCodec DISABLED = new ConsistencyTokenCodec(null);
+
+    private final SecretKey key;
+
+    private ConsistencyTokenCodec(SecretKey key) {
+        this.key = key;
+    }
+
+    public static ConsistencyTokenCodec of(ReadRoutingProperties properties) {
+        if (!properties.enabled() || !properties.consistencyTokens()) {
+            return DISABLED;
+        }
+        String secret = properties.tokenSecret();
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("persons.read-routing.token-secret (PERSONS_TOKEN_SECRET) is required "
+                    + "when consistency tokens are enabled, or set persons.read-routing.consistency-tokens=false");
+        }
+        byte[] bytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length < MIN_SECRET_LENGTH) {
+            throw new IllegalArgumentException("persons.read-routing.token-secret must be at least "
+                    + MIN_SECRET_LENGTH + " bytes");
+        }
+        return new ConsistencyTokenCodec(new SecretKeySpec(bytes, ConsistencyToken.MAC_ALGORITHM));
+    }
+
+    public static ConsistencyTokenCodec disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Valeur de l'en-tête pour ce jeton, null s'il n'y en a pas ou si les jetons sont désactivés.
+     */
+    public String encode(ConsistencyToken token) {
+        return token == null || key == null ? null : token.encode(key);
+    }
+
+    /**
+     * Jeton de l'en-tête, null s'il est absent ou si les jetons sont désactivés.
+     * Un jeton illisible ou non signé par cette clé est une InvalidRequestException (400).
+     */
+    public ConsistencyToken decode(String encoded) {
+        if (encoded == null || encoded.isEmpty() || key == null) {
+            return null;
+        }
+        return ConsistencyToken.decode(encoded, key);
+    }
+}
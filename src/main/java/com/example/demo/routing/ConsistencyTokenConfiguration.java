@@ -0,0 +1,15 @@
+package com.example.demo.routing;
+
+import com.example.demo.config.ReadRoutingProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Toujours présent : le contrôleur en dépend, routage activé ou non
+@Configuration(proxyBeanMethods = false)
+class ConsistencyTokenConfiguration {
+
+    @Bean
+    ConsistencyTokenCodec consistencyTokenCodec(ReadRoutingProperties properties) {
+        return ConsistencyTokenCodec.of(properties);
+    }
+}
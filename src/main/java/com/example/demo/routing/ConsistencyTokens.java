@@ -0,0 +1,84 @@
+package com.example.demo.routing;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.function.Supplier;
+
+/**
+ * Portée des jetons de cohérence d'une requête HTTP, sans paramètre supplémentaire
+ * dans les services : les écritures exécutées dans capture() relèvent l'operationTime
+ * des réponses Mongo (ReplicaReadListener, sur le thread appelant), les lectures
+ * exécutées dans readAfter() sont causales par rapport au jeton présenté.
+ *
+ * Les écritures regroupées (persons.write-behind) partent d'un autre thread et ne
+ * produisent pas de jeton.
+ */
+public final class ConsistencyTokens {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final ScopedValue<Capture> CAPTURE = ScopedValue.newInstance();
+    private static final ScopedValue<ConsistencyToken> AFTER = ScopedValue.newInstance();
+
+    /**
+     * Résultat d'une écriture et jeton de la dernière commande, null hors replica set
+     * ou si le routage des lectures est désactivé.
+     */
+    public record Written<T>(T value, ConsistencyToken token) {}
+
+    private ConsistencyTokens() {
+    }
+
+    public static <T> Written<T> capture(Supplier<T> write) {
+        Capture capture = new Capture();
+        T value = ScopedValue.where(CAPTURE, capture).call(write::get);
+        return new Written<>(value, capture.token);
+    }
+
+    public static ConsistencyToken tokenOf(Runnable write) {
+        return capture(() -> {
+            write.run();
+            return null;
+        }).token();
+    }
+
+    /**
+     * Exécute read après l'écriture désignée par le jeton (décodé par
+     * ConsistencyTokenCodec) ; sans jeton, lecture ordinaire.
+     */
+    public static <T> T readAfter(ConsistencyToken token, Supplier<T> read) {
+        if (token == null) {
+            return read.get();
+        }
+        return ScopedValue.where(AFTER, token).call(read::get);
+    }
+
+    // Les lectures partagées ou en cache peuvent précéder l'écriture du jeton
+    public static boolean isReadingAfterWrite() {
+        return AFTER.isBound();
+    }
+
+    static ConsistencyToken readingAfter() {
+        return AFTER.isBound() ? AFTER.get() : null;
+    }
+
+    static boolean isCapturing() {
+        return CAPTURE.isBound();
+    }
+
+    // Réponse d'une commande d'écriture : operationTime et $clusterTime en replica set
+    static void observe(BsonDocument reply) {
+        BsonValue operationTime = reply.get("operationTime");
+        BsonValue clusterTime = reply.get("$clusterTime");
+        if (CAPTURE.isBound() && operationTime != null && operationTime.isTimestamp()
+                && clusterTime != null && clusterTime.isDocument()) {
+            Capture capture = CAPTURE.get();
+            capture.token = new ConsistencyToken(operationTime.asTimestamp(), clusterTime.asDocument()).latest(capture.token);
+        }
+    }
+
+    private static final class Capture {
+        private ConsistencyToken token;
+    }
+}
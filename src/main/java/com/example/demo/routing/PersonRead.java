@@ -0,0 +1,9 @@
+package com.example.demo.routing;
+
+/**
+ * Familles de lectures de PersonRepository, chacune avec sa préférence de lecture
+ * (voir ReadRoutingProperties).
+ */
+public enum PersonRead {
+    GET, LIST, SEARCH, EXPORT, STATS
+}
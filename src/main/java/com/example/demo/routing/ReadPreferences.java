@@ -0,0 +1,49 @@
+package com.example.demo.routing;
+
+import com.example.demo.config.ReadRoutingProperties;
+import com.mongodb.ReadPreference;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Préférence de lecture de chaque PersonRead, construite une fois au démarrage : une
+ * configuration invalide (mode inconnu, maxStaleness trop court) empêche le démarrage
+ * au lieu d'échouer à la première sélection de serveur.
+ */
+public final class ReadPreferences {
+
+    // Minimum imposé par le driver (spécification Max Staleness)
+    static final Duration MIN_STALENESS = Duration.ofSeconds(90);
+
+    private final Map<PersonRead, ReadPreference> preferences = new EnumMap<>(PersonRead.class);
+
+    public ReadPreferences(ReadRoutingProperties properties) {
+        Duration maxStaleness = properties.maxStaleness();
+        if (!maxStaleness.isZero() && maxStaleness.compareTo(MIN_STALENESS) < 0) {
+            throw new IllegalArgumentException("persons.read-routing.max-staleness must be 0 or at least "
+                    + MIN_STALENESS.toSeconds() + "s, got " + maxStaleness);
+        }
+        preferences.put(PersonRead.GET, preference(properties.get(), maxStaleness));
+        preferences.put(PersonRead.LIST, preference(properties.list(), maxStaleness));
+        preferences.put(PersonRead.SEARCH, preference(properties.search(), maxStaleness));
+        preferences.put(PersonRead.EXPORT, preference(properties.export(), maxStaleness));
+        preferences.put(PersonRead.STATS, preference(properties.stats(), maxStaleness));
+    }
+
+    public ReadPreference of(PersonRead read) {
+        return preferences.get(read);
+    }
+
+    // Le primaire n'a pas de retard : maxStaleness n'y est pas applicable
+    private static ReadPreference preference(String mode, Duration maxStaleness) {
+        ReadPreference preference = ReadPreference.valueOf(mode);
+        if (preference.equals(ReadPreference.primary()) || maxStaleness.isZero()) {
+            return preference;
+        }
+        return ReadPreference.valueOf(mode, List.of(), maxStaleness.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
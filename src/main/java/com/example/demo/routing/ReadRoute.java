@@ -0,0 +1,23 @@
+package com.example.demo.routing;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+
+/**
+ * Lecture en cours sur le thread courant, posée par ReadRoutingInterceptor autour d'un
+ * appel de PersonRepository et appliquée par RoutingMongoTemplate à chaque collection.
+ *
+ * @param session session causale si la lecture suit un jeton, null sinon
+ */
+record ReadRoute(PersonRead read, ReadPreference preference, ClientSession session) {
+
+    private static final ScopedValue<ReadRoute> CURRENT = ScopedValue.newInstance();
+
+    static ReadRoute current() {
+        return CURRENT.isBound() ? CURRENT.get() : null;
+    }
+
+    <T, X extends Throwable> T call(ScopedValue.CallableOp<T, X> read) throws X {
+        return ScopedValue.where(CURRENT, this).call(read);
+    }
+}
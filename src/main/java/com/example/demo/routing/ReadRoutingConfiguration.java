@@ -0,0 +1,67 @@
+package com.example.demo.routing;
+
+import com.example.demo.config.ReadRoutingProperties;
+import com.example.demo.repository.PersonRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.mongodb.autoconfigure.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.util.function.SingletonSupplier;
+
+/**
+ * Lectures de PersonRepository réparties sur le replica set selon leur PersonRead,
+ * avec jetons de cohérence causale pour relire ses propres écritures sur un secondaire.
+ * Sans objet pour le moteur embedded.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "persons.read-routing", name = "enabled", havingValue = "true")
+class ReadRoutingConfiguration {
+
+    @Bean
+    ReadPreferences personReadPreferences(ReadRoutingProperties properties) {
+        return new ReadPreferences(properties);
+    }
+
+    // Remplace le MongoTemplate auto-configuré (même fabrique, même convertisseur)
+    @Bean
+    MongoTemplate mongoTemplate(MongoDatabaseFactory databaseFactory, MongoConverter converter) {
+        return new RoutingMongoTemplate(databaseFactory, converter);
+    }
+
+    @Bean
+    MongoClientSettingsBuilderCustomizer replicaReadListener(MeterRegistry meterRegistry, ReadRoutingProperties properties) {
+        ReplicaReadListener listener = new ReplicaReadListener(meterRegistry, properties.consistencyTokens());
+        return settings -> settings.addCommandListener(listener);
+    }
+
+    // Statique, comme personRepositoryLatencySampling : dépendances résolues au premier appel
+    @Bean
+    static BeanPostProcessor personRepositoryReadRouting(ObjectProvider<ReadPreferences> preferences,
+                                                         ObjectProvider<MongoDatabaseFactory> databaseFactory) {
+        ReadRoutingInterceptor interceptor = new ReadRoutingInterceptor(SingletonSupplier.of(preferences::getObject),
+                SingletonSupplier.of(databaseFactory::getObject));
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof PersonRepository)) {
+                    return bean;
+                }
+                if (bean instanceof Advised advised && !advised.isFrozen()) {
+                    advised.addAdvice(0, interceptor);
+                    return bean;
+                }
+                ProxyFactory proxyFactory = new ProxyFactory(bean);
+                proxyFactory.addAdvice(interceptor);
+                return proxyFactory.getProxy();
+            }
+        };
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.demo.routing;
+
+import com.mongodb.ClientSessionOptions;
+import com.mongodb.ReadPreference;
+import com.mongodb.client.ClientSession;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static java.util.Map.entry;
+
+/**
+ * Associe chaque méthode de lecture de PersonRepository à sa PersonRead et pose la
+ * ReadRoute correspondante pendant l'appel. Les méthodes absentes de la table
+ * (écritures, existsById du chemin de mise à jour) restent sur le primaire.
+ */
+class ReadRoutingInterceptor implements MethodInterceptor {
+
+    private static final Map<String, PersonRead> READS = Map.ofEntries(
+            entry("findById", PersonRead.GET),
+            entry("findVersionById", PersonRead.GET),
+            entry("findProjectedById", PersonRead.GET),
+            entry("findAllByOrderByIdAsc", PersonRead.LIST),
+            entry("findByIdGreaterThanOrderByIdAsc", PersonRead.LIST),
+            entry("findAllBy", PersonRead.LIST),
+            entry("findProjectedAfter", PersonRead.LIST),
+            entry("findProjectedPage", PersonRead.LIST),
+            entry("search", PersonRead.SEARCH),
+            entry("streamAllBy", PersonRead.EXPORT),
+            entry("countByAge", PersonRead.STATS));
+
+    private static final ClientSessionOptions CAUSAL = ClientSessionOptions.builder().causallyConsistent(true).build();
+
+    private final Supplier<ReadPreferences> preferences;
+    private final Supplier<MongoDatabaseFactory> databaseFactory;
+
+    ReadRoutingInterceptor(Supplier<ReadPreferences> preferences, Supplier<MongoDatabaseFactory> databaseFactory) {
+        this.preferences = preferences;
+        this.databaseFactory = databaseFactory;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        PersonRead read = READS.get(invocation.getMethod().getName());
+        if (read == null) {
+            return invocation.proceed();
+        }
+        ReadPreference preference = preferences.get().of(read);
+        ConsistencyToken after = ConsistencyTokens.readingAfter();
+        // Le curseur d'export survit à l'appel : il ne peut pas dépendre d'une session fermée au retour
+        if (after == null || read == PersonRead.EXPORT) {
+            return new ReadRoute(read, preference, null).call(invocation::proceed);
+        }
+        try (ClientSession session = databaseFactory.get().getSession(CAUSAL)) {
+            session.advanceClusterTime(after.clusterTime());
+            session.advanceOperationTime(after.operationTime());
+            return new ReadRoute(read, preference, session).call(invocation::proceed);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.routing;
+
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Écoute du driver, appelée sur le thread qui exécute la commande (driver synchrone) :
+ * - persons.reads : durée des lectures routées, par PersonRead et par membre, pour
+ *   vérifier la répartition effective entre primaire et secondaires
+ * - jetons de cohérence : operationTime des réponses aux écritures d'un capture()
+ */
+class ReplicaReadListener implements CommandListener {
+
+    private static final Set<String> READ_COMMANDS = Set.of("find", "aggregate", "count");
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify");
+
+    private final MeterRegistry meterRegistry;
+    private final boolean consistencyTokens;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    ReplicaReadListener(MeterRegistry meterRegistry, boolean consistencyTokens) {
+        this.meterRegistry = meterRegistry;
+        this.consistencyTokens = consistencyTokens;
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        String command = event.getCommandName();
+        if (consistencyTokens && WRITE_COMMANDS.contains(command) && ConsistencyTokens.isCapturing()) {
+            ConsistencyTokens.observe(event.getResponse());
+            return;
+        }
+        ReadRoute route = ReadRoute.current();
+        if (route != null && READ_COMMANDS.contains(command)) {
+            ConnectionDescription connection = event.getConnectionDescription();
+            TimerKey key = new TimerKey(route.read(), connection.getServerAddress().toString(),
+                    connection.getServerType().name().toLowerCase(Locale.ROOT));
+            timers.computeIfAbsent(key, this::timer).record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder("persons.reads")
+                .description("Routed PersonRepository reads by operation and replica set member")
+                .tag("read", key.read().name().toLowerCase(Locale.ROOT))
+                .tag("member", key.member())
+                .tag("member.type", key.memberType())
+                .register(meterRegistry);
+    }
+
+    private record TimerKey(PersonRead read, String member, String memberType) {}
+}
@@ -0,0 +1,37 @@
+package com.example.demo.routing;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import org.bson.Document;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * MongoTemplate qui applique la ReadRoute du thread courant : préférence de lecture sur
+ * la collection et, pour une lecture après jeton, base liée à la session causale. Les
+ * requêtes dérivées de PersonRepository passent par ici comme les requêtes écrites à
+ * la main. Une préférence portée par la Query elle-même reste prioritaire.
+ */
+public class RoutingMongoTemplate extends MongoTemplate {
+
+    public RoutingMongoTemplate(MongoDatabaseFactory databaseFactory, MongoConverter converter) {
+        super(databaseFactory, converter);
+    }
+
+    @Override
+    protected MongoDatabase doGetDatabase() {
+        ReadRoute route = ReadRoute.current();
+        if (route == null || route.session() == null) {
+            return super.doGetDatabase();
+        }
+        return getMongoDatabaseFactory().withSession(route.session()).getMongoDatabase();
+    }
+
+    @Override
+    protected MongoCollection<Document> prepareCollection(MongoCollection<Document> collection) {
+        MongoCollection<Document> prepared = super.prepareCollection(collection);
+        ReadRoute route = ReadRoute.current();
+        return route == null ? prepared : prepared.withReadPreference(route.preference());
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.demo.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.example.demo.dto.BulkItemResult;
+import com.example.demo.dto.BulkItemResult.Status;
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.entity.Person;
+import com.example.demo.repository.PersonBulkWriteResult;
+
+/**
+ * Avancement d'un import groupé, partagé par PersonBulkService et
+ * ReactivePersonBulkService : un résultat par élément, réduit à l'indice et à l'id pour
+ * les éléments écrits (seul moyen de connaître les ObjectId générés), et les
+ * statistiques tenues à jour : chaque création est comptée, insertion ou upsert d'un id
+ * absent. Un upsert d'un id existant peut changer l'âge sans que l'ancien soit connu,
+ * écart laissé au recalcul périodique. Utilisé par un seul import à la fois.
+ */
+final class BulkProgress {
+
+    private final PersonStatistics statistics;
+    private final List<BulkItemResult> items = new ArrayList<>();
+    private int processed;
+    private int succeeded;
+    private int failed;
+
+    BulkProgress(PersonStatistics statistics) {
+        this.statistics = statistics;
+    }
+
+    int processed() {
+        return processed;
+    }
+
+    /**
+     * Enregistre le résultat de chaque élément du lot. Retourne false si l'import
+     * ordonné doit s'arrêter.
+     */
+    boolean record(List<Person> batch, PersonBulkWriteResult written, boolean ordered) {
+        boolean aborted = false;
+        for (int i = 0; i < batch.size(); i++) {
+            String error = written.errors().get(i);
+            String id = written.ids().get(i);
+            if (error != null) {
+                items.add(new BulkItemResult(processed + i, id, Status.ERROR, error));
+                failed++;
+                aborted = ordered;
+            } else if (aborted) {
+                items.add(new BulkItemResult(processed + i, id, Status.SKIPPED, null));
+                failed++;
+            } else {
+                items.add(new BulkItemResult(processed + i, id, Status.OK, null));
+                succeeded++;
+                if (batch.get(i).id() == null || written.upserted().contains(i)) {
+                    statistics.recordCreated(batch.get(i).age());
+                }
+            }
+        }
+        processed += batch.size();
+        return !aborted;
+    }
+
+    BulkResponse response(String error) {
+        return new BulkResponse(succeeded, failed, List.copyOf(items), error);
+    }
+}
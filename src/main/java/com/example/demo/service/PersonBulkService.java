@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.cache.PersonCache;
+import com.example.demo.config.BulkProperties;
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonBulkWriteResult;
+import com.example.demo.repository.PersonRepository;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectReader;
+
+@Service
+public class PersonBulkService {
+
+    private final PersonRepository personRepository;
+    private final PersonMapper personMapper;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final BulkProperties properties;
+    private final PersonCache personCache;
+    private final PersonStatistics statistics;
+
+    public PersonBulkService(PersonRepository personRepository, PersonMapper personMapper,
+                             ObjectMapper objectMapper, BulkProperties properties, PersonCache personCache,
+                             PersonStatistics statistics) {
+        this.personRepository = personRepository;
+        this.personMapper = personMapper;
+        this.objectMapper = objectMapper;
+        this.reader = objectMapper.readerFor(PersonDto.class);
+        this.properties = properties;
+        this.personCache = personCache;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Importe un tableau JSON ou un flux NDJSON de personnes. Le corps est lu élément par
+     * élément et envoyé à Mongo par lots de persons.bulk.batch-size : seul le lot courant
+     * est en mémoire. En mode ordonné, l'import s'arrête à la première erreur.
+     *
+     * La réponse compte les éléments écrits et donne un résultat par élément, réduit à
+     * l'indice et à l'id pour les éléments écrits (voir BulkProgress). Un corps mal
+     * formé arrête l'import après avoir écrit les éléments complets qui précèdent ; la
+     * réponse porte alors l'erreur de lecture.
+     */
+    public BulkResponse importPersons(InputStream body, boolean ordered) {
+        BulkProgress progress = new BulkProgress(statistics);
+        List<Person> batch = new ArrayList<>(properties.batchSize());
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            JsonToken token = parser.nextToken();
+            // Tableau JSON : on descend d'un niveau ; NDJSON : suite de valeurs racines
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && token != JsonToken.END_ARRAY) {
+                if (token != JsonToken.START_OBJECT) {
+                    return abort(batch, ordered, progress, "Bulk item " + (progress.processed() + batch.size()) + " is not a JSON object");
+                }
+                batch.add(personMapper.toEntity(reader.readValue(parser)));
+                if (batch.size() == properties.batchSize() && !flush(batch, ordered, progress)) {
+                    return progress.response(null);
+                }
+                token = parser.nextToken();
+            }
+            flush(batch, ordered, progress);
+            return progress.response(null);
+        } catch (JacksonException ex) {
+            return abort(batch, ordered, progress, "Malformed bulk body after item " + (progress.processed() + batch.size()));
+        }
+    }
+
+    // Les éléments complets lus avant l'erreur sont écrits, comme dans un import sans erreur
+    private BulkResponse abort(List<Person> batch, boolean ordered, BulkProgress progress, String error) {
+        flush(batch, ordered, progress);
+        return progress.response(error);
+    }
+
+    /**
+     * Envoie le lot courant et enregistre le résultat de chaque élément.
+     * Retourne false si l'import ordonné doit s'arrêter.
+     */
+    private boolean flush(List<Person> batch, boolean ordered, BulkProgress progress) {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        PersonBulkWriteResult written = personRepository.bulkWrite(List.copyOf(batch), ordered);
+        written.ids().forEach(personCache::invalidate);
+        boolean proceed = progress.record(batch, written, ordered);
+        batch.clear();
+        return proceed;
+    }
+}
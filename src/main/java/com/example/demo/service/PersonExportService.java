@@ -0,0 +1,58 @@
+package com.example.demo.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Service;
+
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonRepository;
+
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.ObjectWriter;
+
+@Service
+public class PersonExportService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_EVERY = 500;
+
+    private final PersonRepository personRepository;
+    private final PersonMapper personMapper;
+    private final ObjectWriter writer;
+
+    public PersonExportService(PersonRepository personRepository, PersonMapper personMapper, ObjectMapper objectMapper) {
+        this.personRepository = personRepository;
+        this.personMapper = personMapper;
+        this.writer = objectMapper.writerFor(PersonDto.class);
+    }
+
+    /**
+     * Écrit la collection en NDJSON directement depuis le curseur Mongo : un seul document
+     * est en mémoire à la fois. Une IOException (client déconnecté) ferme le Stream, ce qui
+     * tue le curseur côté serveur.
+     */
+    public long export(OutputStream out) throws IOException {
+        long written = 0;
+        BufferedOutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE);
+        try (Stream<Person> persons = personRepository.streamAllBy()) {
+            Iterator<Person> iterator = persons.iterator();
+            while (iterator.hasNext()) {
+                buffered.write(writer.writeValueAsBytes(personMapper.toDto(iterator.next())));
+                buffered.write('\n');
+                written++;
+                // Premier flush immédiat pour le time-to-first-byte, puis par blocs
+                if (written == 1 || written % FLUSH_EVERY == 0) {
+                    buffered.flush();
+                }
+            }
+        }
+        buffered.flush();
+        return written;
+    }
+}
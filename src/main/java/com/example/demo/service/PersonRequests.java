@@ -0,0 +1,93 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.entity.Person;
+import com.example.demo.exception.InvalidRequestException;
+import com.example.demo.repository.PersonFields;
+import com.example.demo.repository.PersonSearch;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Validation des paramètres et curseurs de /api/persons, commune à PersonService
+ * et ReactivePersonService pour que les deux piles exposent le même contrat.
+ */
+final class PersonRequests {
+
+    private PersonRequests() {
+    }
+
+    static int resolveLimit(PaginationProperties pagination, Integer limit) {
+        if (limit == null) {
+            return pagination.defaultLimit();
+        }
+        return Math.clamp(limit, 1, pagination.maxLimit());
+    }
+
+    static int checkOffset(PaginationProperties pagination, int page, Integer limit) {
+        int size = resolveLimit(pagination, limit);
+        if (page < 0 || (long) page * size + size > pagination.maxOffset()) {
+            throw new InvalidRequestException("Offset paging is limited to the first "
+                    + pagination.maxOffset() + " persons, use the 'after' cursor instead");
+        }
+        return size;
+    }
+
+    static PersonFields parseFields(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!PersonFields.ALLOWED.contains(name)) {
+                throw new InvalidRequestException("Unknown field '" + name + "', allowed fields are " + PersonFields.ALLOWED);
+            }
+            names.add(name);
+        }
+        if (names.isEmpty()) {
+            throw new InvalidRequestException("fields must name at least one of " + PersonFields.ALLOWED);
+        }
+        return new PersonFields(names);
+    }
+
+    static void checkSearch(PersonSearch search) {
+        if (search.minAge() != null && search.maxAge() != null && search.minAge() > search.maxAge()) {
+            throw new InvalidRequestException("minAge must not be greater than maxAge");
+        }
+    }
+
+    // Curseur de recherche : clé de tri et id séparés par \0, en base64url
+    static String encodeSearchCursor(PersonSearch search, Person last) {
+        String key = switch (search.sortKey()) {
+            case NAME -> last.name();
+            case AGE -> Integer.toString(last.age());
+            case ID -> "";
+        };
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((key + '\0' + last.id()).getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Person decodeSearchCursor(PersonSearch search, String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('\0');
+            String key = decoded.substring(0, separator);
+            String id = decoded.substring(separator + 1);
+            return switch (search.sortKey()) {
+                case NAME -> new Person(id, key, 0);
+                case AGE -> new Person(id, null, Integer.parseInt(key));
+                case ID -> new Person(id, null, 0);
+            };
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidRequestException("Invalid search cursor");
+        }
+    }
+
+    static long versionOf(Long version) {
+        return version == null ? 0 : version;
+    }
+}
@@ -1,55 +1,253 @@
 package com.example.demo.service;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.bson.Document;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import com.example.demo.cache.NoOpPersonCache;
+import com.example.demo.cache.PersonCache;
+import com.example.demo.concurrent.SingleFlight;
+import com.example.demo.config.PaginationProperties;
 import com.example.demo.dto.PersonDto;
+import com.example.demo.dto.PersonPage;
+import com.example.demo.dto.PersonProjectionPage;
+import com.example.demo.dto.PersonStats;
 import com.example.demo.entity.Person;
 import com.example.demo.exception.PersonNotFoundException;
+import com.example.demo.exception.PreconditionFailedException;
 import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonFields;
 import com.example.demo.repository.PersonRepository;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.repository.PersonUpdate;
+import com.example.demo.routing.ConsistencyTokens;
 
 @Service
 public class PersonService {
 
     private final PersonRepository personRepository;
     private final PersonMapper personMapper;
+    private final PaginationProperties pagination;
+    private final PersonCache personCache;
+    // Les lectures concurrentes identiques partagent une seule requête Mongo
+    private final Function<String, Optional<Person>> byIdLoader;
+    private final SingleFlight<PageKey, PersonPage> pageFlight;
+    private final SingleFlight<OffsetKey, List<PersonDto>> offsetFlight;
+    private final PersonWriteBatcher writeBatcher;
+    private final PersonStatistics statistics;
 
-    public PersonService(PersonRepository personRepository, PersonMapper personMapper) {
+    public PersonService(PersonRepository personRepository, PersonMapper personMapper,
+                         PaginationProperties pagination, PersonCache personCache, MeterRegistry meterRegistry,
+                         PersonWriteBatcher writeBatcher, PersonStatistics statistics) {
         this.personRepository = personRepository;
         this.personMapper = personMapper;
+        this.pagination = pagination;
+        this.personCache = personCache;
+        // Caffeine regroupe déjà les chargements concurrents d'un même id : SingleFlight
+        // seulement quand le cache est désactivé
+        if (personCache instanceof NoOpPersonCache) {
+            SingleFlight<String, Optional<Person>> byIdFlight = new SingleFlight<>("persons.by-id", meterRegistry);
+            this.byIdLoader = id -> byIdFlight.execute(id, () -> personRepository.findById(id));
+        } else {
+            this.byIdLoader = personRepository::findById;
+        }
+        this.pageFlight = new SingleFlight<>("persons.page", meterRegistry);
+        this.offsetFlight = new SingleFlight<>("persons.offset-page", meterRegistry);
+        this.writeBatcher = writeBatcher;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Pagination par curseur sur _id : chaque page est une lecture d'index bornée,
+     * quelle que soit sa profondeur. Le curseur suivant est null sur la dernière page.
+     */
+    public PersonPage getPersonsAfter(String after, Integer limit) {
+        int size = resolveLimit(limit);
+        // Après un jeton de cohérence, pas de résultat partagé avec une lecture plus ancienne
+        if (ConsistencyTokens.isReadingAfterWrite()) {
+            return fetchPersonsAfter(after, size);
+        }
+        return pageFlight.execute(new PageKey(after, size), () -> fetchPersonsAfter(after, size));
+    }
+
+    private PersonPage fetchPersonsAfter(String after, int size) {
+        // Un élément de plus pour savoir s'il reste une page sans requête count
+        Limit fetch = Limit.of(size + 1);
+        List<Person> persons = after == null
+                ? personRepository.findAllByOrderByIdAsc(fetch)
+                : personRepository.findByIdGreaterThanOrderByIdAsc(after, fetch);
+        String nextCursor = null;
+        if (persons.size() > size) {
+            persons = persons.subList(0, size);
+            nextCursor = persons.getLast().id();
+        }
+        return new PersonPage(personMapper.toDtoList(persons), nextCursor);
+    }
+
+    /**
+     * Pagination par offset, conservée pour compatibilité : le skip coûte un parcours
+     * des documents sautés, elle est donc plafonnée à persons.pagination.max-offset.
+     */
+    public List<PersonDto> getPersonsPage(int page, Integer limit) {
+        int size = checkOffset(page, limit);
+        if (ConsistencyTokens.isReadingAfterWrite()) {
+            return personMapper.toDtoList(personRepository.findAllBy(PageRequest.of(page, size, Sort.by("id"))));
+        }
+        return offsetFlight.execute(new OffsetKey(page, size), () ->
+                personMapper.toDtoList(personRepository.findAllBy(PageRequest.of(page, size, Sort.by("id")))));
+    }
+
+    /**
+     * Variante projetée de getPersonsAfter : fields est la liste ?fields=, validée
+     * contre PersonFields.ALLOWED.
+     */
+    public PersonProjectionPage getPersonsAfter(String after, Integer limit, String fields) {
+        PersonFields projection = PersonRequests.parseFields(fields);
+        int size = resolveLimit(limit);
+        List<Document> documents = personRepository.findProjectedAfter(projection, after, size + 1);
+        String nextCursor = null;
+        if (documents.size() > size) {
+            documents = documents.subList(0, size);
+            nextCursor = documents.getLast().get("_id").toString();
+        }
+        return new PersonProjectionPage(documents.stream().map(projection::project).toList(), nextCursor);
+    }
+
+    public List<Map<String, Object>> getPersonsPage(int page, Integer limit, String fields) {
+        PersonFields projection = PersonRequests.parseFields(fields);
+        int size = checkOffset(page, limit);
+        return personRepository.findProjectedPage(projection, PageRequest.of(page, size, Sort.by("id"))).stream()
+                .map(projection::project)
+                .toList();
+    }
+
+    /**
+     * Une personne déjà en cache est projetée en mémoire ; sinon seule la projection
+     * est lue, sans remplir le cache avec un document partiel. Après un jeton de
+     * cohérence, le cache est ignoré comme pour la lecture complète.
+     */
+    public Map<String, Object> getPersonByIdOrThrow(String id, String fields) {
+        PersonFields projection = PersonRequests.parseFields(fields);
+        Optional<Person> cached = ConsistencyTokens.isReadingAfterWrite() ? Optional.empty() : personCache.peek(id);
+        if (cached.isPresent()) {
+            return projection.project(cached.get());
+        }
+        return personRepository.findProjectedById(id, projection)
+                .map(projection::project)
+                .orElseThrow(() -> new PersonNotFoundException(id));
     }
 
-    public List<PersonDto> getAllPersons() {
-        return personMapper.toDtoList(personRepository.findAll());
+    /**
+     * Recherche par préfixe de nom et tranche d'âge, paginée par curseur sur la clé
+     * de l'index utilisé (voir PersonSearch). Le curseur est opaque pour le client.
+     */
+    public PersonPage searchPersons(PersonSearch search, String after, Integer limit) {
+        PersonRequests.checkSearch(search);
+        int size = resolveLimit(limit);
+        Person from = after == null ? null : PersonRequests.decodeSearchCursor(search, after);
+        List<Person> persons = personRepository.search(search, from, size + 1);
+        String nextCursor = null;
+        if (persons.size() > size) {
+            persons = persons.subList(0, size);
+            nextCursor = PersonRequests.encodeSearchCursor(search, persons.getLast());
+        }
+        return new PersonPage(personMapper.toDtoList(persons), nextCursor);
     }
 
     public PersonDto getPersonByIdOrThrow(String id) {
-        return personRepository.findById(id)
+        // Le cache peut précéder une écriture faite sur une autre instance : lecture causale directe
+        if (ConsistencyTokens.isReadingAfterWrite()) {
+            return personRepository.findById(id)
+                    .map(personMapper::toDto)
+                    .orElseThrow(() -> new PersonNotFoundException(id));
+        }
+        return personCache.get(id, byIdLoader)
                 .map(personMapper::toDto)
                 .orElseThrow(() -> new PersonNotFoundException(id));
     }
 
+    /**
+     * Version courante, pour les requêtes conditionnelles : lue dans le cache si la
+     * personne y est, sinon par une projection {version: 1} sans décoder le document.
+     */
+    public long getVersionOrThrow(String id) {
+        Optional<Person> cached = ConsistencyTokens.isReadingAfterWrite() ? Optional.empty() : personCache.peek(id);
+        if (cached.isPresent()) {
+            return PersonRequests.versionOf(cached.get().version());
+        }
+        return personRepository.findVersionById(id)
+                .map(projection -> PersonRequests.versionOf(projection.version()))
+                .orElseThrow(() -> new PersonNotFoundException(id));
+    }
+
+    /**
+     * Statistiques globales, servies depuis l'agrégat en mémoire (voir PersonStatistics).
+     */
+    public PersonStats getStats() {
+        return statistics.current();
+    }
+
+    /**
+     * Création seule : un id fourni par le client et déjà utilisé lève
+     * DuplicateKeyException (409), la personne existante n'est pas écrasée.
+     */
     public PersonDto createPerson(PersonDto dto) {
         Person person = personMapper.toEntity(dto);
-        Person savedPerson = personRepository.save(person);
+        Person savedPerson = writeBatcher.isEnabled() && person.id() == null
+                ? writeBatcher.insert(person)
+                : personRepository.save(person);
+        // Un id fourni par le client peut avoir une absence en cache
+        personCache.invalidate(savedPerson.id());
+        statistics.recordCreated(savedPerson.age());
         return personMapper.toDto(savedPerson);
     }
 
     public PersonDto updatePerson(String id, PersonDto dto) {
-        if (!personRepository.existsById(id)) {
+        return updatePerson(id, dto, null);
+    }
+
+    /**
+     * Mise à jour avec contrôle de concurrence optimiste : si expectedVersion est fourni
+     * (If-Match) et ne correspond plus, PreconditionFailedException.
+     */
+    public PersonDto updatePerson(String id, PersonDto dto, Long expectedVersion) {
+        PersonUpdate update = personRepository.updateIfPresent(id, dto.name(), dto.age(), expectedVersion);
+        personCache.invalidate(id);
+        if (update == null) {
+            // Aller-retour supplémentaire seulement en cas d'échec, pour distinguer 412 et 404
+            if (expectedVersion != null && personRepository.existsById(id)) {
+                throw new PreconditionFailedException(id);
+            }
             throw new PersonNotFoundException(id);
         }
-        Person updatedPerson = new Person(id, dto.name(), dto.age());
-        Person savedPerson = personRepository.save(updatedPerson);
-        return personMapper.toDto(savedPerson);
+        statistics.recordUpdated(update.previous().age(), update.current().age());
+        return personMapper.toDto(update.current());
     }
 
     public void deletePerson(String id) {
-        if (!personRepository.existsById(id)) {
-            throw new PersonNotFoundException(id);
-        }
-        personRepository.deleteById(id);
+        Optional<Person> deleted = personRepository.deleteIfPresent(id);
+        personCache.invalidate(id);
+        Person person = deleted.orElseThrow(() -> new PersonNotFoundException(id));
+        statistics.recordDeleted(person.age());
+    }
+
+    private record PageKey(String after, int size) {}
+
+    private record OffsetKey(int page, int size) {}
+
+    private int resolveLimit(Integer limit) {
+        return PersonRequests.resolveLimit(pagination, limit);
+    }
+
+    private int checkOffset(int page, Integer limit) {
+        return PersonRequests.checkOffset(pagination, page, limit);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,223 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PersonStatsProperties;
+import com.example.demo.dto.PersonStats;
+import com.example.demo.repository.PersonRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Nombre de personnes par âge, tenu en mémoire : amorcé par une agrégation Mongo, mis
+ * à jour par PersonService à chaque création, modification et suppression et par les
+ * créations de l'import groupé, et recalculé périodiquement pour corriger la dérive
+ * (écritures d'autres instances, changements d'âge des upserts de l'import groupé).
+ * L'agrégation n'est pas un instantané : une écriture enregistrée pendant son parcours
+ * peut y figurer ou non. Les âges ainsi touchés gardent leur compteur incrémental, ni
+ * perdu ni compté deux fois ; leur dérive éventuelle attend le recalcul suivant.
+ *
+ * Chaque écriture republie un instantané immuable : GET /api/persons/stats n'est qu'une
+ * lecture volatile, sans requête Mongo ni calcul.
+ */
+@Component
+public class PersonStatistics {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonStatistics.class);
+
+    private final PersonRepository personRepository;
+    private final int bucketWidth;
+    private final Clock clock;
+    private final Counter drift;
+
+    // Un seul recalcul à la fois ; toujours pris avant this
+    private final Object reconcileLock = new Object();
+
+    // Protégés par this ; les âges sans personne sont retirés
+    private final TreeMap<Integer, Long> countsByAge = new TreeMap<>();
+    // Âges modifiés depuis le début de l'agrégation en cours, null hors recalcul
+    private Set<Integer> touchedAges;
+    private Instant reconciledAt;
+    private volatile PersonStats snapshot;
+
+    public PersonStatistics(PersonRepository personRepository, PersonStatsProperties properties, MeterRegistry meterRegistry) {
+        this(personRepository, properties, meterRegistry, Clock.systemUTC());
+    }
+
+    PersonStatistics(PersonRepository personRepository, PersonStatsProperties properties, MeterRegistry meterRegistry,
+                     Clock clock) {
+        this.personRepository = personRepository;
+        this.bucketWidth = properties.bucketWidth();
+        this.clock = clock;
+        this.drift = Counter.builder("persons.stats.drift")
+                .description("Persons counted differently by the in-memory statistics and by MongoDB at reconciliation")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedInBackground() {
+        Thread.ofVirtual().name("person-stats-seed").start(() -> {
+            try {
+                reconcile();
+            } catch (RuntimeException e) {
+                log.warn("Person statistics seeding failed, first GET /api/persons/stats will retry", e);
+            }
+        });
+    }
+
+    @Scheduled(initialDelayString = "${persons.stats.reconcile-interval:5m}",
+            fixedDelayString = "${persons.stats.reconcile-interval:5m}")
+    public void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException e) {
+            log.warn("Person statistics reconciliation failed, serving incrementally maintained values", e);
+        }
+    }
+
+    /**
+     * Remplace les compteurs par ceux de Mongo et retourne l'écart absolu constaté.
+     */
+    public long reconcile() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                touchedAges = new HashSet<>();
+            }
+            Map<Integer, Long> fresh;
+            try {
+                fresh = personRepository.countByAge();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    touchedAges = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                // Âges écrits pendant l'agrégation : compteur incrémental conservé. Avant
+                // l'amorçage, il n'y a pas de compteur fiable et le résultat est pris tel quel
+                TreeMap<Integer, Long> reconciled = new TreeMap<>(fresh);
+                if (snapshot != null) {
+                    for (int age : touchedAges) {
+                        Long count = countsByAge.get(age);
+                        if (count == null) {
+                            reconciled.remove(age);
+                        } else {
+                            reconciled.put(age, count);
+                        }
+                    }
+                }
+                touchedAges = null;
+                long difference = 0;
+                if (snapshot != null) {
+                    TreeMap<Integer, Long> all = new TreeMap<>(countsByAge);
+                    reconciled.forEach((age, count) -> all.merge(age, -count, Long::sum));
+                    for (long delta : all.values()) {
+                        difference += Math.abs(delta);
+                    }
+                }
+                countsByAge.clear();
+                reconciled.forEach((age, count) -> {
+                    if (count > 0) {
+                        countsByAge.put(age, count);
+                    }
+                });
+                reconciledAt = clock.instant();
+                publish();
+                if (difference > 0) {
+                    drift.increment(difference);
+                    log.info("Person statistics corrected by {} person(s) at reconciliation", difference);
+                }
+                return difference;
+            }
+        }
+    }
+
+    public PersonStats current() {
+        PersonStats current = snapshot;
+        if (current == null) {
+            // Amorçage pas encore terminé (ou en échec) : un seul recalcul synchrone
+            synchronized (reconcileLock) {
+                if (snapshot == null) {
+                    reconcile();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    public synchronized void recordCreated(int age) {
+        add(age, 1);
+        publishIfSeeded();
+    }
+
+    public synchronized void recordUpdated(int previousAge, int age) {
+        if (previousAge == age) {
+            return;
+        }
+        add(previousAge, -1);
+        add(age, 1);
+        publishIfSeeded();
+    }
+
+    public synchronized void recordDeleted(int age) {
+        add(age, -1);
+        publishIfSeeded();
+    }
+
+    private void add(int age, long delta) {
+        countsByAge.compute(age, (key, count) -> {
+            long next = (count == null ? 0 : count) + delta;
+            return next > 0 ? next : null;
+        });
+        if (touchedAges != null) {
+            touchedAges.add(age);
+        }
+    }
+
+    // Avant l'amorçage, les écritures s'appliquent aux compteurs mais rien n'est publié
+    private void publishIfSeeded() {
+        if (snapshot != null) {
+            publish();
+        }
+    }
+
+    private void publish() {
+        long count = 0;
+        long ageSum = 0;
+        List<PersonStats.AgeBucket> histogram = new ArrayList<>();
+        int bucketFrom = 0;
+        long bucketCount = 0;
+        for (Map.Entry<Integer, Long> entry : countsByAge.entrySet()) {
+            int from = Math.floorDiv(entry.getKey(), bucketWidth) * bucketWidth;
+            if (bucketCount > 0 && from != bucketFrom) {
+                histogram.add(new PersonStats.AgeBucket(bucketFrom, bucketFrom + bucketWidth - 1, bucketCount));
+                bucketCount = 0;
+            }
+            bucketFrom = from;
+            bucketCount += entry.getValue();
+            count += entry.getValue();
+            ageSum += entry.getKey() * entry.getValue();
+        }
+        if (bucketCount > 0) {
+            histogram.add(new PersonStats.AgeBucket(bucketFrom, bucketFrom + bucketWidth - 1, bucketCount));
+        }
+        snapshot = count == 0
+                ? new PersonStats(0, null, null, null, List.of(), reconciledAt)
+                : new PersonStats(count, countsByAge.firstKey(), countsByAge.lastKey(), (double) ageSum / count,
+                        List.copyOf(histogram), reconciledAt);
+    }
+}
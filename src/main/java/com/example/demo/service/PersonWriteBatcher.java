@@ -0,0 +1,189 @@
+package com.example.demo.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.config.WriteBehindProperties;
+import com.example.demo.entity.Person;
+import com.example.demo.exception.ServiceOverloadedException;
+import com.example.demo.repository.PersonBulkWriteResult;
+import com.example.demo.repository.PersonRepository;
+
+/**
+ * Regroupe les créations concurrentes : chaque appelant dépose sa personne dans une
+ * file bornée et attend l'acquittement de son lot. Un lot part dès qu'il atteint
+ * batchSize documents ou maxDelay après sa première entrée, en une seule écriture
+ * groupée non ordonnée. File pleine : ServiceOverloadedException (503).
+ *
+ * Seules les personnes sans id passent par ici : l'id est généré à l'envoi et la
+ * version vaut 0, sans relecture. Une création avec id client garde son propre
+ * insert, pour lever DuplicateKeyException (409) si l'id existe déjà.
+ */
+@Component
+public class PersonWriteBatcher implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(PersonWriteBatcher.class);
+
+    private final PersonRepository personRepository;
+    private final WriteBehindProperties properties;
+    private final BlockingQueue<PendingInsert> queue;
+    private final Semaphore batchesInFlight;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public PersonWriteBatcher(PersonRepository personRepository, WriteBehindProperties properties) {
+        this.personRepository = personRepository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.queueCapacity()));
+        this.batchesInFlight = new Semaphore(properties.maxBatchesInFlight());
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Insère la personne avec le prochain lot et attend son acquittement, au plus
+     * persons.write-behind.ack-timeout.
+     */
+    public Person insert(Person person) {
+        if (person.id() != null) {
+            throw new IllegalArgumentException("Write-behind only inserts persons without id");
+        }
+        PendingInsert pending = new PendingInsert(person, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            throw new ServiceOverloadedException("Person write queue is full", Duration.ofSeconds(1));
+        }
+        // stop() entre le test et l'offre : le flusher a pu faire son dernier tour sans
+        // voir l'entrée. Si elle est encore en file, personne ne l'écrira : on la retire.
+        if (!running && queue.remove(pending)) {
+            throw new ServiceOverloadedException("Person write queue is stopping", Duration.ofSeconds(1));
+        }
+        try {
+            return pending.result().get(properties.ackTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            // Le lot peut encore aboutir : le client relira avant de réessayer
+            throw new ServiceOverloadedException("Person write not acknowledged in time", Duration.ofSeconds(1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ServiceOverloadedException("Person write interrupted", Duration.ofSeconds(1));
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        running = true;
+        flusher = Thread.ofPlatform().name("person-write-batcher").daemon().start(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        if (flusher == null) {
+            return;
+        }
+        running = false;
+        try {
+            flusher.join();
+            // Attend les derniers lots en cours d'écriture
+            batchesInFlight.acquire(properties.maxBatchesInFlight());
+            batchesInFlight.release(properties.maxBatchesInFlight());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        long maxDelayNanos = properties.maxDelay().toNanos();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingInsert first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                List<PendingInsert> batch = new ArrayList<>(properties.batchSize());
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < properties.batchSize()) {
+                    queue.drainTo(batch, properties.batchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.batchSize() || remaining <= 0) {
+                        break;
+                    }
+                    PendingInsert next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                batchesInFlight.acquire();
+                Thread.ofVirtual().start(() -> {
+                    try {
+                        flush(batch);
+                    } finally {
+                        batchesInFlight.release();
+                    }
+                });
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    void flush(List<PendingInsert> batch) {
+        List<Person> persons = new ArrayList<>(batch.size());
+        for (PendingInsert pending : batch) {
+            persons.add(pending.person());
+        }
+        try {
+            PersonBulkWriteResult written = personRepository.bulkWrite(persons, false);
+            for (int i = 0; i < batch.size(); i++) {
+                PendingInsert pending = batch.get(i);
+                String error = written.errors().get(i);
+                if (error != null) {
+                    // Rejet propre au document (409), pas une panne du lot
+                    pending.result().completeExceptionally(new DataIntegrityViolationException(error));
+                } else {
+                    Person person = pending.person();
+                    pending.result().complete(new Person(written.ids().get(i), person.name(), person.age(), 0L));
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Person write batch of {} failed: {}", batch.size(), ex.getMessage());
+            for (PendingInsert pending : batch) {
+                pending.result().completeExceptionally(ex);
+            }
+        }
+    }
+
+    record PendingInsert(Person person, CompletableFuture<Person> result) {}
+}
@@ -0,0 +1,63 @@
+package com.example.demo.service;
+
+import com.example.demo.config.BulkProperties;
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.ReactivePersonRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Import groupé du profil reactive, même contrat que PersonBulkService. Le corps est
+ * décodé élément par élément par le décodeur Jackson de WebFlux ; au plus un lot est
+ * lu d'avance pendant l'écriture du précédent.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePersonBulkService {
+
+    private final ReactivePersonRepository personRepository;
+    private final PersonMapper personMapper;
+    private final BulkProperties properties;
+    private final PersonStatistics statistics;
+
+    public ReactivePersonBulkService(ReactivePersonRepository personRepository, PersonMapper personMapper,
+                                     BulkProperties properties, PersonStatistics statistics) {
+        this.personRepository = personRepository;
+        this.personMapper = personMapper;
+        this.properties = properties;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Toute erreur du corps (élément mal formé, flux interrompu) arrête la lecture :
+     * les éléments déjà décodés sont écrits et la réponse porte l'erreur de lecture.
+     */
+    public Mono<BulkResponse> importPersons(Flux<PersonDto> body, boolean ordered) {
+        return Mono.defer(() -> {
+            BulkProgress progress = new BulkProgress(statistics);
+            AtomicInteger read = new AtomicInteger();
+            AtomicReference<String> error = new AtomicReference<>();
+            Flux<Person> persons = body
+                    .map(personMapper::toEntity)
+                    .doOnNext(person -> read.incrementAndGet())
+                    .onErrorResume(ex -> {
+                        error.set("Malformed bulk body after item " + read.get());
+                        return Flux.empty();
+                    });
+            return persons.buffer(properties.batchSize())
+                    .concatMap(batch -> personRepository.bulkWrite(batch, ordered)
+                            .map(written -> progress.record(batch, written, ordered)), 1)
+                    // Import ordonné en échec : plus rien n'est lu du corps
+                    .takeUntil(proceed -> !proceed)
+                    .then(Mono.fromSupplier(() -> progress.response(error.get())));
+        });
+    }
+}
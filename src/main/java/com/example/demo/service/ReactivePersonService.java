@@ -0,0 +1,175 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.dto.PersonDto;
+import com.example.demo.dto.PersonPage;
+import com.example.demo.dto.PersonProjectionPage;
+import com.example.demo.dto.PersonStats;
+import com.example.demo.entity.Person;
+import com.example.demo.exception.PersonNotFoundException;
+import com.example.demo.exception.PreconditionFailedException;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonFields;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.repository.ReactivePersonRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Même contrat que PersonService sur ReactivePersonRepository, pour comparer les deux
+ * modèles à fonctionnalités égales. Pas de cache local ni de regroupement des lectures
+ * ou des écritures : la comparaison porte sur le modèle d'exécution. Les statistiques
+ * en mémoire (PersonStatistics) sont partagées avec la pile servlet.
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactivePersonService {
+
+    private final ReactivePersonRepository personRepository;
+    private final PersonMapper personMapper;
+    private final PaginationProperties pagination;
+    private final PersonStatistics statistics;
+
+    public ReactivePersonService(ReactivePersonRepository personRepository, PersonMapper personMapper,
+                                 PaginationProperties pagination, PersonStatistics statistics) {
+        this.personRepository = personRepository;
+        this.personMapper = personMapper;
+        this.pagination = pagination;
+        this.statistics = statistics;
+    }
+
+    public Mono<PersonPage> getPersonsAfter(String after, Integer limit) {
+        int size = PersonRequests.resolveLimit(pagination, limit);
+        Limit fetch = Limit.of(size + 1);
+        Flux<Person> persons = after == null
+                ? personRepository.findAllByOrderByIdAsc(fetch)
+                : personRepository.findByIdGreaterThanOrderByIdAsc(after, fetch);
+        return persons.collectList().map(list -> page(list, size, Person::id));
+    }
+
+    /**
+     * Toutes les personnes après le curseur, émises au fil du curseur Mongo : le driver
+     * ne demande le lot suivant que lorsque le client a consommé le précédent.
+     */
+    public Flux<PersonDto> streamPersonsAfter(String after) {
+        Flux<Person> persons = after == null
+                ? personRepository.findAllByOrderByIdAsc()
+                : personRepository.findByIdGreaterThanOrderByIdAsc(after);
+        return persons.map(personMapper::toDto);
+    }
+
+    public Mono<List<PersonDto>> getPersonsPage(int page, Integer limit) {
+        return Mono.fromCallable(() -> PersonRequests.checkOffset(pagination, page, limit))
+                .flatMap(size -> personRepository.findAllBy(PageRequest.of(page, size, Sort.by("id")))
+                        .map(personMapper::toDto)
+                        .collectList());
+    }
+
+    public Mono<PersonProjectionPage> getPersonsAfter(String after, Integer limit, String fields) {
+        return Mono.fromCallable(() -> PersonRequests.parseFields(fields)).flatMap(projection -> {
+            int size = PersonRequests.resolveLimit(pagination, limit);
+            return personRepository.findProjectedAfter(projection, after, size + 1).collectList().map(documents -> {
+                String nextCursor = null;
+                if (documents.size() > size) {
+                    documents = documents.subList(0, size);
+                    nextCursor = documents.getLast().get("_id").toString();
+                }
+                return new PersonProjectionPage(documents.stream().map(projection::project).toList(), nextCursor);
+            });
+        });
+    }
+
+    public Mono<List<Map<String, Object>>> getPersonsPage(int page, Integer limit, String fields) {
+        return Mono.fromCallable(() -> PersonRequests.parseFields(fields)).flatMap(projection -> {
+            int size = PersonRequests.checkOffset(pagination, page, limit);
+            return personRepository.findProjectedPage(projection, PageRequest.of(page, size, Sort.by("id")))
+                    .map(projection::project)
+                    .collectList();
+        });
+    }
+
+    public Mono<Map<String, Object>> getPersonByIdOrThrow(String id, String fields) {
+        return Mono.fromCallable(() -> PersonRequests.parseFields(fields)).flatMap(projection ->
+                personRepository.findProjectedById(id, projection)
+                        .map(projection::project)
+                        .switchIfEmpty(Mono.error(() -> new PersonNotFoundException(id))));
+    }
+
+    public Mono<PersonPage> searchPersons(PersonSearch search, String after, Integer limit) {
+        return Mono.fromCallable(() -> {
+            PersonRequests.checkSearch(search);
+            return Optional.ofNullable(after == null ? null : PersonRequests.decodeSearchCursor(search, after));
+        }).flatMap(from -> {
+            int size = PersonRequests.resolveLimit(pagination, limit);
+            return personRepository.search(search, from.orElse(null), size + 1).collectList()
+                    .map(list -> page(list, size, last -> PersonRequests.encodeSearchCursor(search, last)));
+        });
+    }
+
+    public Mono<PersonDto> getPersonByIdOrThrow(String id) {
+        return personRepository.findById(id)
+                .map(personMapper::toDto)
+                .switchIfEmpty(Mono.error(() -> new PersonNotFoundException(id)));
+    }
+
+    public Mono<Long> getVersionOrThrow(String id) {
+        return personRepository.findVersionById(id)
+                .map(projection -> PersonRequests.versionOf(projection.version()))
+                .switchIfEmpty(Mono.error(() -> new PersonNotFoundException(id)));
+    }
+
+    /**
+     * Lecture volatile de l'instantané ; seul un appel avant la fin de l'amorçage agrège
+     * dans Mongo, de façon bloquante, d'où le passage sur boundedElastic.
+     */
+    public Mono<PersonStats> getStats() {
+        return Mono.fromCallable(statistics::current).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<PersonDto> createPerson(PersonDto dto) {
+        return personRepository.save(personMapper.toEntity(dto))
+                .doOnNext(saved -> statistics.recordCreated(saved.age()))
+                .map(personMapper::toDto);
+    }
+
+    public Mono<PersonDto> updatePerson(String id, PersonDto dto, Long expectedVersion) {
+        return personRepository.updateIfPresent(id, dto.name(), dto.age(), expectedVersion)
+                .map(update -> {
+                    statistics.recordUpdated(update.previous().age(), update.current().age());
+                    return personMapper.toDto(update.current());
+                })
+                // Aller-retour supplémentaire seulement en cas d'échec, pour distinguer 412 et 404
+                .switchIfEmpty(Mono.defer(() -> expectedVersion == null
+                        ? Mono.error(new PersonNotFoundException(id))
+                        : personRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                                ? new PreconditionFailedException(id)
+                                : new PersonNotFoundException(id)))));
+    }
+
+    public Mono<Void> deletePerson(String id) {
+        return personRepository.deleteIfPresent(id)
+                .switchIfEmpty(Mono.error(() -> new PersonNotFoundException(id)))
+                .doOnNext(deleted -> statistics.recordDeleted(deleted.age()))
+                .then();
+    }
+
+    private PersonPage page(List<Person> persons, int size, Function<Person, String> cursorOf) {
+        String nextCursor = null;
+        if (persons.size() > size) {
+            persons = persons.subList(0, size);
+            nextCursor = cursorOf.apply(persons.getLast());
+        }
+        return new PersonPage(personMapper.toDtoList(persons), nextCursor);
+    }
+}
@@ -0,0 +1,636 @@
+package com.example.demo.storage;
+
+import com.example.demo.entity.Person;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.repository.PersonUpdate;
+import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Personnes rangées en colonnes de types primitifs plutôt qu'un objet par personne.
+ * Par ligne : 32 octets de colonnes (jusqu'au double avant agrandissement), 8 à 16 pour
+ * la table d'ids et 4 à 8 par index trié, soit 50 à 100 octets. Chaque nom distinct
+ * coûte en plus sa String et son entrée de dictionnaire, environ 100 octets plus sa
+ * longueur ; un id client non ObjectId garde aussi sa String. Contre plusieurs centaines
+ * pour un Person avec ses String et son entrée de HashMap. Un Person n'est construit qu'à la lecture.
+ *
+ * - id : 12 octets (idHigh, idLow) pour un ObjectId, String sinon (stringIds)
+ * - nom : code dans un dictionnaire, chaque nom distinct n'est stocké qu'une fois
+ * - index primaire : table à adressage ouvert id -> ligne
+ * - index secondaires : lignes triées par id, par (âge, id) et par (nom, id), mêmes
+ *   ordres que les index Mongo de PersonSearch ; l'index des noms est une seule liste
+ *   pour tous les noms, pas une liste par nom
+ *
+ * Un verrou lecture/écriture protège l'ensemble : lectures concurrentes, écritures
+ * exclusives et courtes : un index n'est décalé que dans un bloc de SlotList, quel que
+ * soit l'ordre d'arrivée des ids.
+ */
+final class ColumnarPersonStore {
+
+    private static final int EMPTY = 0;
+    private static final int DELETED = -1;
+    private static final int NO_NAME = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final SlotList.SlotOrder idOrder = this::compareRows;
+    private final SlotList.SlotOrder nameOrder = this::compareNames;
+
+    // Colonnes, indexées par ligne ; les lignes libérées sont réutilisées
+    private long[] idHigh;
+    private int[] idLow;
+    private String[] stringIds;
+    private int[] nameCodes;
+    private int[] ages;
+    private long[] versions;
+    private int rowCount;
+    private int[] freeRows = new int[16];
+    private int freeCount;
+
+    // Ligne + 1 par case, EMPTY ou DELETED sinon
+    private int[] table;
+    private int tableUsed;
+
+    private final SlotList byId = new SlotList();
+    private final TreeMap<Integer, SlotList> byAge = new TreeMap<>();
+    // Lignes nommées triées par (nom, id) ; dictionnaire nom -> code, lignes par code
+    private final SlotList byName = new SlotList();
+    private final HashMap<String, Integer> codesByName = new HashMap<>();
+    private String[] namesByCode;
+    private int[] nameRowCounts;
+    private int nameCodeCount;
+    private int[] freeCodes = new int[16];
+    private int freeCodeCount;
+
+    // Incrémenté à chaque écriture : un instantané n'est réécrit que s'il a changé
+    private long modifications;
+
+    ColumnarPersonStore(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 16);
+        idHigh = new long[capacity];
+        idLow = new int[capacity];
+        stringIds = new String[capacity];
+        nameCodes = new int[capacity];
+        ages = new int[capacity];
+        versions = new long[capacity];
+        namesByCode = new String[16];
+        nameRowCounts = new int[16];
+        table = new int[tableLength(capacity)];
+    }
+
+    // --- Lectures ---
+
+    Person findById(String id) {
+        PersonId key = PersonId.of(id);
+        lock.readLock().lock();
+        try {
+            int row = find(key);
+            return row < 0 ? null : person(row);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Long versionOf(String id) {
+        PersonId key = PersonId.of(id);
+        lock.readLock().lock();
+        try {
+            int row = find(key);
+            return row < 0 ? null : versions[row];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long modifications() {
+        lock.readLock().lock();
+        try {
+            return modifications;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long count() {
+        lock.readLock().lock();
+        try {
+            return byId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Personnes qui suivent afterId dans l'ordre des ids (depuis le début si null).
+     */
+    List<Person> after(String afterId, int limit) {
+        PersonId key = afterId == null ? null : PersonId.of(afterId);
+        lock.readLock().lock();
+        try {
+            int start = key == null ? 0 : byId.upperBound(row -> compareRowToKey(row, key));
+            return collect(byId, start, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    List<Person> page(long offset, int limit) {
+        lock.readLock().lock();
+        try {
+            return offset >= byId.size() ? List.of() : collect(byId, (int) offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Même sémantique que PersonRepositoryCustomImpl.searchQuery : parcours de l'index
+     * de la clé de tri, repris après (clé, id) de after.
+     */
+    List<Person> search(PersonSearch search, Person after, int limit) {
+        PersonId afterId = after == null ? null : PersonId.of(after.id());
+        int minAge = search.minAge() == null ? Integer.MIN_VALUE : search.minAge();
+        int maxAge = search.maxAge() == null ? Integer.MAX_VALUE : search.maxAge();
+        lock.readLock().lock();
+        try {
+            List<Person> result = new ArrayList<>(Math.min(limit, 1024));
+            switch (search.sortKey()) {
+                case ID -> {
+                    int start = afterId == null ? 0 : byId.upperBound(row -> compareRowToKey(row, afterId));
+                    return collect(byId, start, limit);
+                }
+                case AGE -> {
+                    int from = after == null ? minAge : Math.max(minAge, after.age());
+                    if (from > maxAge) {
+                        return result;
+                    }
+                    NavigableMap<Integer, SlotList> range = byAge.subMap(from, true, maxAge, true);
+                    for (Map.Entry<Integer, SlotList> entry : range.entrySet()) {
+                        int start = after != null && entry.getKey() == after.age()
+                                ? entry.getValue().upperBound(row -> compareRowToKey(row, afterId)) : 0;
+                        result.addAll(collect(entry.getValue(), start, limit - result.size()));
+                        if (result.size() >= limit) {
+                            break;
+                        }
+                    }
+                }
+                case NAME -> {
+                    String prefix = search.namePrefix();
+                    String afterName = after == null ? null : after.name();
+                    int start = afterName != null && afterName.compareTo(prefix) >= 0
+                            ? byName.upperBound(row -> {
+                                int comparison = nameOf(row).compareTo(afterName);
+                                return comparison != 0 ? comparison : compareRowToKey(row, afterId);
+                            })
+                            : byName.lowerBound(row -> nameOf(row).compareTo(prefix));
+                    for (int i = start; i < byName.size() && result.size() < limit; i++) {
+                        int row = byName.get(i);
+                        if (!nameOf(row).startsWith(prefix)) {
+                            break;
+                        }
+                        if (ages[row] >= minAge && ages[row] <= maxAge) {
+                            result.add(person(row));
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    Map<Integer, Long> countByAge() {
+        lock.readLock().lock();
+        try {
+            Map<Integer, Long> counts = new HashMap<>();
+            byAge.forEach((age, rows) -> counts.put(age, (long) rows.size()));
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // --- Écritures ---
+
+    /**
+     * Insertion d'une nouvelle personne en version 0 ; id généré (ObjectId) si null.
+     */
+    Person insert(String id, String name, int age) {
+        PersonId key = PersonId.of(id != null ? id : new ObjectId().toHexString());
+        lock.writeLock().lock();
+        try {
+            if (find(key) >= 0) {
+                throw new DuplicateKeyException("Person " + id + " already exists");
+            }
+            return person(insertRow(key, name, age, 0L));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sauvegarde d'une personne déjà versionnée, comme save() de Spring Data : la
+     * version doit être la version stockée, sinon OptimisticLockingFailureException.
+     */
+    Person replace(Person person) {
+        PersonId key = PersonId.of(person.id());
+        lock.writeLock().lock();
+        try {
+            int row = find(key);
+            if (row < 0 || versions[row] != person.version()) {
+                throw new OptimisticLockingFailureException("Person " + person.id() + " was modified or deleted");
+            }
+            updateRow(row, person.name(), person.age(), person.version() + 1);
+            return person(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Upsert de l'import groupé : mise à jour avec version + 1, ou insertion en version
+     * 1 comme le $inc de Mongo sur un document créé par upsert. Retourne true si la
+     * personne a été créée.
+     */
+    boolean upsert(String id, String name, int age) {
+        PersonId key = PersonId.of(id);
+        lock.writeLock().lock();
+        try {
+            int row = find(key);
+            if (row < 0) {
+                insertRow(key, name, age, 1L);
+                return true;
+            }
+            updateRow(row, name, age, versions[row] + 1);
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    PersonUpdate update(String id, String name, int age, Long expectedVersion) {
+        PersonId key = PersonId.of(id);
+        lock.writeLock().lock();
+        try {
+            int row = find(key);
+            if (row < 0 || (expectedVersion != null && versions[row] != expectedVersion)) {
+                return null;
+            }
+            Person previous = person(row);
+            updateRow(row, name, age, versions[row] + 1);
+            return new PersonUpdate(previous, person(row));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Suppression, conditionnée à la version stockée si expectedVersion est fourni
+     * (delete(entity) de Spring Data) : OptimisticLockingFailureException sinon.
+     */
+    Person delete(String id, Long expectedVersion) {
+        PersonId key = PersonId.of(id);
+        lock.writeLock().lock();
+        try {
+            int row = find(key);
+            if (expectedVersion != null && (row < 0 || versions[row] != expectedVersion)) {
+                throw new OptimisticLockingFailureException("Person " + id + " was modified or deleted");
+            }
+            if (row < 0) {
+                return null;
+            }
+            Person removed = person(row);
+            removeRow(row);
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void clear() {
+        lock.writeLock().lock();
+        try {
+            while (byId.size() > 0) {
+                removeRow(byId.get(byId.size() - 1));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // --- Instantanés ---
+
+    /**
+     * Copie des colonnes vivantes dans l'ordre des ids, prise sous verrou de lecture ;
+     * l'écriture du fichier se fait ensuite sans bloquer les écritures.
+     */
+    PersonSnapshots.Columns capture() {
+        lock.readLock().lock();
+        try {
+            int size = byId.size();
+            PersonSnapshots.Columns columns = new PersonSnapshots.Columns(Arrays.copyOf(namesByCode, nameCodeCount),
+                    new String[size], new long[size], new int[size], new int[size], new int[size], new long[size]);
+            for (int i = 0; i < size; i++) {
+                int row = byId.get(i);
+                columns.stringIds()[i] = stringIds[row];
+                columns.idHigh()[i] = idHigh[row];
+                columns.idLow()[i] = idLow[row];
+                columns.nameCodes()[i] = nameCodes[row];
+                columns.ages()[i] = ages[row];
+                columns.versions()[i] = versions[row];
+            }
+            return columns;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Reconstruit un magasin depuis des colonnes triées par id : les index secondaires
+     * se remplissent par ajout en fin ; seuls les noms distincts sont triés, les lignes
+     * sont réparties par code dans cet ordre.
+     */
+    static ColumnarPersonStore restore(PersonSnapshots.Columns columns, int initialCapacity) {
+        int size = columns.ages().length;
+        ColumnarPersonStore store = new ColumnarPersonStore(Math.max(initialCapacity, size));
+        System.arraycopy(columns.idHigh(), 0, store.idHigh, 0, size);
+        System.arraycopy(columns.idLow(), 0, store.idLow, 0, size);
+        System.arraycopy(columns.stringIds(), 0, store.stringIds, 0, size);
+        System.arraycopy(columns.nameCodes(), 0, store.nameCodes, 0, size);
+        System.arraycopy(columns.ages(), 0, store.ages, 0, size);
+        System.arraycopy(columns.versions(), 0, store.versions, 0, size);
+        store.rowCount = size;
+
+        String[] names = columns.names();
+        store.namesByCode = Arrays.copyOf(names, Math.max(names.length, 16));
+        store.nameRowCounts = new int[store.namesByCode.length];
+        store.nameCodeCount = names.length;
+        for (int code = names.length - 1; code >= 0; code--) {
+            if (names[code] == null) {
+                store.pushFreeCode(code);
+            } else {
+                store.codesByName.put(names[code], code);
+            }
+        }
+        int named = 0;
+        for (int row = 0; row < size; row++) {
+            store.byId.append(row);
+            store.byAge.computeIfAbsent(store.ages[row], age -> new SlotList()).append(row);
+            int code = store.nameCodes[row];
+            if (code != NO_NAME) {
+                store.nameRowCounts[code]++;
+                named++;
+            }
+            store.index(row);
+        }
+        // Tri par dénombrement : premier indice de chaque code dans l'ordre des noms
+        int[] starts = new int[names.length];
+        int next = 0;
+        for (int code : IntStream.range(0, names.length).filter(code -> names[code] != null)
+                .boxed().sorted(Comparator.comparing(code -> names[code])).toList()) {
+            starts[code] = next;
+            next += store.nameRowCounts[code];
+        }
+        int[] ordered = new int[named];
+        for (int row = 0; row < size; row++) {
+            int code = store.nameCodes[row];
+            if (code != NO_NAME) {
+                ordered[starts[code]++] = row;
+            }
+        }
+        for (int row : ordered) {
+            store.byName.append(row);
+        }
+        return store;
+    }
+
+    // --- Lignes ---
+
+    private int insertRow(PersonId key, String name, int age, long version) {
+        modifications++;
+        int row = allocateRow();
+        stringIds[row] = key.string();
+        idHigh[row] = key.high();
+        idLow[row] = key.low();
+        ages[row] = age;
+        versions[row] = version;
+        // Les listes triées comparent les ids : la ligne doit être complète avant
+        attachName(row, name);
+        byId.insert(row, idOrder);
+        byAge.computeIfAbsent(age, a -> new SlotList()).insert(row, idOrder);
+        index(row);
+        return row;
+    }
+
+    private void updateRow(int row, String name, int age, long version) {
+        modifications++;
+        if (ages[row] != age) {
+            detachAge(row);
+            ages[row] = age;
+            byAge.computeIfAbsent(age, a -> new SlotList()).insert(row, idOrder);
+        }
+        if (!Objects.equals(nameOf(row), name)) {
+            detachName(row);
+            attachName(row, name);
+        }
+        versions[row] = version;
+    }
+
+    private void removeRow(int row) {
+        modifications++;
+        byId.remove(row, idOrder);
+        detachAge(row);
+        detachName(row);
+        unindex(row);
+        stringIds[row] = null;
+        if (freeCount == freeRows.length) {
+            freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+        }
+        freeRows[freeCount++] = row;
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) {
+            return freeRows[--freeCount];
+        }
+        if (rowCount == ages.length) {
+            int capacity = rowCount * 2;
+            idHigh = Arrays.copyOf(idHigh, capacity);
+            idLow = Arrays.copyOf(idLow, capacity);
+            stringIds = Arrays.copyOf(stringIds, capacity);
+            nameCodes = Arrays.copyOf(nameCodes, capacity);
+            ages = Arrays.copyOf(ages, capacity);
+            versions = Arrays.copyOf(versions, capacity);
+        }
+        return rowCount++;
+    }
+
+    private void detachAge(int row) {
+        SlotList rows = byAge.get(ages[row]);
+        rows.remove(row, idOrder);
+        if (rows.size() == 0) {
+            byAge.remove(ages[row]);
+        }
+    }
+
+    private void attachName(int row, String name) {
+        if (name == null) {
+            nameCodes[row] = NO_NAME;
+            return;
+        }
+        Integer code = codesByName.get(name);
+        if (code == null) {
+            if (freeCodeCount > 0) {
+                code = freeCodes[--freeCodeCount];
+            } else {
+                if (nameCodeCount == namesByCode.length) {
+                    namesByCode = Arrays.copyOf(namesByCode, nameCodeCount * 2);
+                    nameRowCounts = Arrays.copyOf(nameRowCounts, nameCodeCount * 2);
+                }
+                code = nameCodeCount++;
+            }
+            namesByCode[code] = name;
+            codesByName.put(name, code);
+        }
+        nameCodes[row] = code;
+        nameRowCounts[code]++;
+        byName.insert(row, nameOrder);
+    }
+
+    // Avant tout changement de nameCodes[row] : la liste retrouve la ligne par son nom
+    private void detachName(int row) {
+        int code = nameCodes[row];
+        if (code == NO_NAME) {
+            return;
+        }
+        byName.remove(row, nameOrder);
+        nameCodes[row] = NO_NAME;
+        if (--nameRowCounts[code] == 0) {
+            codesByName.remove(namesByCode[code]);
+            namesByCode[code] = null;
+            pushFreeCode(code);
+        }
+    }
+
+    private void pushFreeCode(int code) {
+        if (freeCodeCount == freeCodes.length) {
+            freeCodes = Arrays.copyOf(freeCodes, freeCodeCount * 2);
+        }
+        freeCodes[freeCodeCount++] = code;
+    }
+
+    private List<Person> collect(SlotList rows, int start, int limit) {
+        List<Person> result = new ArrayList<>(Math.max(0, Math.min(limit, rows.size() - start)));
+        for (int i = start; i < rows.size() && result.size() < limit; i++) {
+            result.add(person(rows.get(i)));
+        }
+        return result;
+    }
+
+    private Person person(int row) {
+        return new Person(idOf(row), nameOf(row), ages[row], versions[row]);
+    }
+
+    private String idOf(int row) {
+        return stringIds[row] != null ? stringIds[row] : PersonId.toHex(idHigh[row], idLow[row]);
+    }
+
+    private String nameOf(int row) {
+        return nameCodes[row] == NO_NAME ? null : namesByCode[nameCodes[row]];
+    }
+
+    private int compareRows(int row, int other) {
+        return PersonId.compare(stringIds[row], idHigh[row], idLow[row], stringIds[other], idHigh[other], idLow[other]);
+    }
+
+    // Lignes nommées uniquement : les lignes sans nom ne sont pas dans byName
+    private int compareNames(int row, int other) {
+        int comparison = namesByCode[nameCodes[row]].compareTo(namesByCode[nameCodes[other]]);
+        return comparison != 0 ? comparison : compareRows(row, other);
+    }
+
+    private int compareRowToKey(int row, PersonId key) {
+        return PersonId.compare(stringIds[row], idHigh[row], idLow[row], key.string(), key.high(), key.low());
+    }
+
+    // --- Index primaire ---
+
+    private int find(PersonId key) {
+        int mask = table.length - 1;
+        int i = PersonId.hash(key.string(), key.high(), key.low()) & mask;
+        while (table[i] != EMPTY) {
+            int row = table[i] - 1;
+            if (table[i] != DELETED && compareRowToKey(row, key) == 0) {
+                return row;
+            }
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    // La ligne n'est pas encore indexée : la première case libre ou supprimée convient
+    private void index(int row) {
+        if ((tableUsed + 1) * 2 > table.length) {
+            rehash();
+        }
+        int mask = table.length - 1;
+        int i = PersonId.hash(stringIds[row], idHigh[row], idLow[row]) & mask;
+        while (table[i] > 0) {
+            i = (i + 1) & mask;
+        }
+        if (table[i] == EMPTY) {
+            tableUsed++;
+        }
+        table[i] = row + 1;
+    }
+
+    private void unindex(int row) {
+        int mask = table.length - 1;
+        int i = PersonId.hash(stringIds[row], idHigh[row], idLow[row]) & mask;
+        while (table[i] != row + 1) {
+            i = (i + 1) & mask;
+        }
+        table[i] = DELETED;
+    }
+
+    // Reconstruit la table sans les cases supprimées, agrandie d'après le nombre de lignes vivantes
+    private void rehash() {
+        int[] previous = table;
+        table = new int[tableLength(byId.size() + 1)];
+        tableUsed = 0;
+        int mask = table.length - 1;
+        for (int entry : previous) {
+            if (entry > 0) {
+                int row = entry - 1;
+                int i = PersonId.hash(stringIds[row], idHigh[row], idLow[row]) & mask;
+                while (table[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                table[i] = entry;
+                tableUsed++;
+            }
+        }
+    }
+
+    // Taux de remplissage maximal de 50 % : sondages linéaires courts
+    private static int tableLength(int capacity) {
+        int length = 16;
+        while (length < capacity * 2) {
+            length <<= 1;
+        }
+        return length;
+    }
+}
@@ -0,0 +1,511 @@
+package com.example.demo.storage;
+
+import com.example.demo.entity.Person;
+import com.example.demo.repository.PersonBulkWriteResult;
+import com.example.demo.repository.PersonFields;
+import com.example.demo.repository.PersonRepository;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.repository.PersonUpdate;
+import com.example.demo.repository.PersonVersion;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.BeanUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * PersonRepository servi par le magasin en colonnes, sans MongoDB : même contrat que
+ * le dépôt Spring Data (versions, conflits optimistes, ordre de _id, pagination par
+ * clé), pour le profil embedded et comme dépôt de test réaliste. Les requêtes par
+ * l'exemple sont évaluées par parcours complet (voir PersonExamples).
+ */
+public final class EmbeddedPersonRepository implements PersonRepository {
+
+    private static final int STREAM_PAGE_SIZE = 1000;
+    private static final Sort ID_ORDER = Sort.by("id");
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final ColumnarPersonStore store;
+
+    public EmbeddedPersonRepository(int initialCapacity) {
+        this(new ColumnarPersonStore(initialCapacity));
+    }
+
+    private EmbeddedPersonRepository(ColumnarPersonStore store) {
+        this.store = store;
+    }
+
+    /**
+     * Recharge un instantané écrit par snapshot(Path).
+     */
+    public static EmbeddedPersonRepository restore(Path snapshot, int initialCapacity) throws IOException {
+        return new EmbeddedPersonRepository(ColumnarPersonStore.restore(PersonSnapshots.read(snapshot), initialCapacity));
+    }
+
+    /**
+     * Écrit l'état courant dans snapshot, en remplaçant atomiquement le fichier existant.
+     * Les colonnes sont copiées sous verrou de lecture, le fichier écrit sans verrou.
+     */
+    public void snapshot(Path snapshot) throws IOException {
+        PersonSnapshots.write(snapshot, store.capture());
+    }
+
+    /**
+     * Compteur d'écritures : deux valeurs égales signifient qu'aucune écriture n'a eu
+     * lieu entre-temps.
+     */
+    public long modifications() {
+        return store.modifications();
+    }
+
+    // --- CrudRepository / MongoRepository ---
+
+    @Override
+    public <S extends Person> S save(S entity) {
+        Person saved = entity.version() == null
+                ? store.insert(entity.id(), entity.name(), entity.age())
+                : store.replace(entity);
+        return cast(saved);
+    }
+
+    @Override
+    public <S extends Person> List<S> saveAll(Iterable<S> entities) {
+        List<S> saved = new ArrayList<>();
+        entities.forEach(entity -> saved.add(save(entity)));
+        return saved;
+    }
+
+    @Override
+    public <S extends Person> S insert(S entity) {
+        return cast(store.insert(entity.id(), entity.name(), entity.age()));
+    }
+
+    @Override
+    public <S extends Person> List<S> insert(Iterable<S> entities) {
+        List<S> inserted = new ArrayList<>();
+        entities.forEach(entity -> inserted.add(insert(entity)));
+        return inserted;
+    }
+
+    @Override
+    public Optional<Person> findById(String id) {
+        return Optional.ofNullable(store.findById(id));
+    }
+
+    @Override
+    public boolean existsById(String id) {
+        return store.versionOf(id) != null;
+    }
+
+    @Override
+    public List<Person> findAll() {
+        return store.after(null, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Person> findAllById(Iterable<String> ids) {
+        List<Person> found = new ArrayList<>();
+        for (String id : ids) {
+            Person person = store.findById(id);
+            if (person != null) {
+                found.add(person);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public long count() {
+        return store.count();
+    }
+
+    @Override
+    public void deleteById(String id) {
+        store.delete(id, null);
+    }
+
+    @Override
+    public void delete(Person entity) {
+        store.delete(entity.id(), entity.version());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends String> ids) {
+        ids.forEach(id -> store.delete(id, null));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Person> entities) {
+        entities.forEach(this::delete);
+    }
+
+    @Override
+    public void deleteAll() {
+        store.clear();
+    }
+
+    @Override
+    public List<Person> findAll(Sort sort) {
+        List<Person> persons = findAll();
+        if (!isIdOrder(sort)) {
+            persons.sort(comparator(sort));
+        }
+        return persons;
+    }
+
+    @Override
+    public Page<Person> findAll(Pageable pageable) {
+        return PageableExecutionUtils.getPage(findAllBy(pageable), pageable, store::count);
+    }
+
+    // --- Requêtes dérivées ---
+
+    @Override
+    public List<Person> findAllByOrderByIdAsc(Limit limit) {
+        return store.after(null, limit.isUnlimited() ? Integer.MAX_VALUE : limit.max());
+    }
+
+    @Override
+    public List<Person> findByIdGreaterThanOrderByIdAsc(String id, Limit limit) {
+        return store.after(id, limit.isUnlimited() ? Integer.MAX_VALUE : limit.max());
+    }
+
+    @Override
+    public List<Person> findAllBy(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return findAll(pageable.getSort());
+        }
+        if (isIdOrder(pageable.getSort())) {
+            return store.page(pageable.getOffset(), pageable.getPageSize());
+        }
+        return new ArrayList<>(pageOf(findAll(pageable.getSort()), pageable));
+    }
+
+    @Override
+    public Optional<PersonVersion> findVersionById(String id) {
+        return Optional.ofNullable(store.versionOf(id)).map(PersonVersion::new);
+    }
+
+    // Parcours par pages de clés, comme le curseur Mongo par lots de 1000
+    @Override
+    public Stream<Person> streamAllBy() {
+        return Stream.iterate(store.after(null, STREAM_PAGE_SIZE), page -> !page.isEmpty(),
+                        page -> page.size() < STREAM_PAGE_SIZE ? List.of() : store.after(page.getLast().id(), STREAM_PAGE_SIZE))
+                .flatMap(List::stream);
+    }
+
+    // --- PersonRepositoryCustom ---
+
+    @Override
+    public PersonBulkWriteResult bulkWrite(List<Person> persons, boolean ordered) {
+        List<String> ids = new ArrayList<>(persons.size());
+        Map<Integer, String> errors = new HashMap<>();
+        Set<Integer> upserted = new HashSet<>();
+        for (int i = 0; i < persons.size(); i++) {
+            Person person = persons.get(i);
+            String id = person.id() != null ? person.id() : new ObjectId().toHexString();
+            ids.add(id);
+            // Lot ordonné : comme Mongo, rien n'est écrit après la première erreur
+            if (ordered && !errors.isEmpty()) {
+                continue;
+            }
+            try {
+                if (person.id() == null) {
+                    store.insert(id, person.name(), person.age());
+                } else if (store.upsert(id, person.name(), person.age())) {
+                    upserted.add(i);
+                }
+            } catch (DataAccessException e) {
+                errors.put(i, e.getMessage());
+            }
+        }
+        return new PersonBulkWriteResult(ids, errors, upserted);
+    }
+
+    @Override
+    public PersonUpdate updateIfPresent(String id, String name, int age, Long expectedVersion) {
+        return store.update(id, name, age, expectedVersion);
+    }
+
+    @Override
+    public Optional<Person> deleteIfPresent(String id) {
+        return Optional.ofNullable(store.delete(id, null));
+    }
+
+    @Override
+    public Map<Integer, Long> countByAge() {
+        return store.countByAge();
+    }
+
+    @Override
+    public List<Person> search(PersonSearch search, Person after, int limit) {
+        return store.search(search, after, limit);
+    }
+
+    @Override
+    public List<Document> findProjectedAfter(PersonFields fields, String after, int limit) {
+        return store.after(after, limit).stream().map(person -> project(person, fields)).toList();
+    }
+
+    @Override
+    public List<Document> findProjectedPage(PersonFields fields, Pageable pageable) {
+        return findAllBy(pageable).stream().map(person -> project(person, fields)).toList();
+    }
+
+    @Override
+    public Optional<Document> findProjectedById(String id, PersonFields fields) {
+        return findById(id).map(person -> project(person, fields));
+    }
+
+    // --- QueryByExampleExecutor ---
+    // Sans index sur les propriétés de l'exemple : parcours complet dans l'ordre de _id
+
+    @Override
+    public <S extends Person> Optional<S> findOne(Example<S> example) {
+        return matching(PersonExamples.predicate(example)).findFirst().map(EmbeddedPersonRepository::<S>cast);
+    }
+
+    @Override
+    public <S extends Person> List<S> findAll(Example<S> example) {
+        return findAll(example, Sort.unsorted());
+    }
+
+    @Override
+    public <S extends Person> List<S> findAll(Example<S> example, Sort sort) {
+        return sorted(matching(PersonExamples.predicate(example)), sort).map(EmbeddedPersonRepository::<S>cast).toList();
+    }
+
+    @Override
+    public <S extends Person> Page<S> findAll(Example<S> example, Pageable pageable) {
+        List<S> matches = findAll(example, pageable.getSort());
+        return PageableExecutionUtils.getPage(pageOf(matches, pageable), pageable, matches::size);
+    }
+
+    @Override
+    public <S extends Person> long count(Example<S> example) {
+        return matching(PersonExamples.predicate(example)).count();
+    }
+
+    @Override
+    public <S extends Person> boolean exists(Example<S> example) {
+        return matching(PersonExamples.predicate(example)).findAny().isPresent();
+    }
+
+    @Override
+    public <S extends Person, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleQuery<S>(PersonExamples.predicate(example), Sort.unsorted(),
+                Integer.MAX_VALUE, EmbeddedPersonRepository::<S>cast));
+    }
+
+    private Stream<Person> matching(Predicate<Person> predicate) {
+        return streamAllBy().filter(predicate);
+    }
+
+    private static Stream<Person> sorted(Stream<Person> persons, Sort sort) {
+        return isIdOrder(sort) ? persons : persons.sorted(comparator(sort));
+    }
+
+    /**
+     * findBy : tri, limite et projection appliqués en mémoire au même parcours.
+     * project() est sans effet, toutes les colonnes d'une ligne étant déjà lues.
+     */
+    private final class ExampleQuery<T> implements FluentQuery.FetchableFluentQuery<T> {
+
+        private final Predicate<Person> predicate;
+        private final Sort sort;
+        private final int limit;
+        private final Function<Person, T> mapper;
+
+        ExampleQuery(Predicate<Person> predicate, Sort sort, int limit, Function<Person, T> mapper) {
+            this.predicate = predicate;
+            this.sort = sort;
+            this.limit = limit;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> sortBy(Sort sort) {
+            return new ExampleQuery<>(predicate, this.sort.and(sort), limit, mapper);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            return new ExampleQuery<>(predicate, sort, limit, mapper);
+        }
+
+        @Override
+        public <R> FluentQuery.FetchableFluentQuery<R> as(Class<R> resultType) {
+            return new ExampleQuery<>(predicate, sort, limit, projection(resultType));
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<T> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public T oneValue() {
+            List<T> found = results(Math.min(limit, 2));
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, found.size());
+            }
+            return found.isEmpty() ? null : found.getFirst();
+        }
+
+        @Override
+        public T firstValue() {
+            List<T> found = results(Math.min(limit, 1));
+            return found.isEmpty() ? null : found.getFirst();
+        }
+
+        @Override
+        public List<T> all() {
+            return results(limit);
+        }
+
+        @Override
+        public Page<T> page(Pageable pageable) {
+            List<Person> matches = sorted(matching(predicate), sort.and(pageable.getSort())).limit(limit).toList();
+            return PageableExecutionUtils.getPage(pageOf(matches, pageable).stream().map(mapper).toList(),
+                    pageable, matches::size);
+        }
+
+        @Override
+        public Slice<T> slice(Pageable pageable) {
+            List<Person> matches = sorted(matching(predicate), sort.and(pageable.getSort())).limit(limit).toList();
+            boolean hasNext = pageable.isPaged() && pageable.getOffset() + pageable.getPageSize() < matches.size();
+            return new SliceImpl<>(pageOf(matches, pageable).stream().map(mapper).toList(), pageable, hasNext);
+        }
+
+        @Override
+        public Stream<T> stream() {
+            return sorted(matching(predicate), sort).limit(limit).map(mapper);
+        }
+
+        @Override
+        public long count() {
+            return matching(predicate).limit(limit).count();
+        }
+
+        @Override
+        public boolean exists() {
+            return limit > 0 && matching(predicate).findAny().isPresent();
+        }
+
+        private List<T> results(int max) {
+            return sorted(matching(predicate), sort).limit(max).map(mapper).toList();
+        }
+    }
+
+    /**
+     * Person lui-même, une projection par interface ou un DTO. Comme pour le dépôt Mongo,
+     * les paramètres du constructeur du DTO sont liés par nom aux propriétés de Person ;
+     * un paramètre sans propriété correspondante reçoit sa valeur par défaut.
+     */
+    private static <R> Function<Person, R> projection(Class<R> resultType) {
+        if (resultType.isAssignableFrom(Person.class)) {
+            return resultType::cast;
+        }
+        if (resultType.isInterface()) {
+            return person -> PROJECTIONS.createProjection(resultType, person);
+        }
+        Constructor<R> constructor = BeanUtils.getResolvableConstructor(resultType);
+        String[] names = BeanUtils.getParameterNames(constructor);
+        return person -> {
+            Object[] arguments = new Object[names.length];
+            for (int i = 0; i < names.length; i++) {
+                arguments[i] = property(person, names[i]);
+            }
+            return BeanUtils.instantiateClass(constructor, arguments);
+        };
+    }
+
+    private static Object property(Person person, String name) {
+        return switch (name) {
+            case "id" -> person.id();
+            case "name" -> person.name();
+            case "age" -> person.age();
+            case "version" -> person.version();
+            default -> null;
+        };
+    }
+
+    // Même forme que la projection Mongo : _id toujours présent, puis les champs demandés
+    private static Document project(Person person, PersonFields fields) {
+        Document document = new Document("_id", person.id());
+        for (String name : fields.names()) {
+            switch (name) {
+                case "name" -> document.put("name", person.name());
+                case "age" -> document.put("age", person.age());
+                case "version" -> document.put("version", person.version());
+                default -> {
+                }
+            }
+        }
+        return document;
+    }
+
+    private static <T> List<T> pageOf(List<T> sorted, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return sorted;
+        }
+        int from = (int) Math.min(pageable.getOffset(), sorted.size());
+        return sorted.subList(from, Math.min(from + pageable.getPageSize(), sorted.size()));
+    }
+
+    // Les lignes sont déjà dans l'ordre de _id
+    private static boolean isIdOrder(Sort sort) {
+        return sort.isUnsorted() || sort.equals(ID_ORDER);
+    }
+
+    private static Comparator<Person> comparator(Sort sort) {
+        Comparator<Person> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Person> property = switch (order.getProperty()) {
+                case "id" -> (person, other) -> PersonId.compare(person.id(), other.id());
+                case "name" -> Comparator.comparing(Person::name, Comparator.nullsFirst(Comparator.<String>naturalOrder()));
+                case "age" -> Comparator.comparingInt(Person::age);
+                case "version" -> Comparator.comparing(Person::version, Comparator.nullsFirst(Comparator.<Long>naturalOrder()));
+                default -> throw new IllegalArgumentException("Cannot sort persons by " + order.getProperty());
+            };
+            property = order.isDescending() ? property.reversed() : property;
+            comparator = comparator == null ? property : comparator.thenComparing(property);
+        }
+        return comparator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S extends Person> S cast(Person person) {
+        return (S) person;
+    }
+}
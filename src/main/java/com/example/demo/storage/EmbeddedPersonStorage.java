@@ -0,0 +1,81 @@
+package com.example.demo.storage;
+
+import com.example.demo.config.StorageProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Cycle de vie du moteur embedded : rechargement de l'instantané au démarrage,
+ * instantané périodique s'il y a eu des écritures, et dernier instantané à l'arrêt,
+ * après la vidange des écritures regroupées (les SmartLifecycle s'arrêtent avant).
+ *
+ * Distinct du dépôt, qui peut être enveloppé dans un proxy par les post-processeurs.
+ */
+public class EmbeddedPersonStorage implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(EmbeddedPersonStorage.class);
+
+    private final EmbeddedPersonRepository repository;
+    private final Path snapshotPath;
+    private long snapshotModifications;
+
+    EmbeddedPersonStorage(EmbeddedPersonRepository repository, Path snapshotPath) {
+        this.repository = repository;
+        this.snapshotPath = snapshotPath;
+        this.snapshotModifications = repository.modifications();
+    }
+
+    public static EmbeddedPersonStorage open(StorageProperties properties) throws IOException {
+        Path snapshotPath = properties.snapshotPath();
+        if (snapshotPath == null || !Files.exists(snapshotPath)) {
+            return new EmbeddedPersonStorage(new EmbeddedPersonRepository(properties.initialCapacity()), snapshotPath);
+        }
+        long start = System.nanoTime();
+        EmbeddedPersonRepository repository = EmbeddedPersonRepository.restore(snapshotPath, properties.initialCapacity());
+        log.info("Restored {} persons from {} in {}", repository.count(), snapshotPath,
+                Duration.ofNanos(System.nanoTime() - start));
+        return new EmbeddedPersonStorage(repository, snapshotPath);
+    }
+
+    public EmbeddedPersonRepository repository() {
+        return repository;
+    }
+
+    @Scheduled(initialDelayString = "${persons.storage.snapshot-interval:1m}",
+            fixedDelayString = "${persons.storage.snapshot-interval:1m}")
+    public void scheduledSnapshot() {
+        try {
+            snapshotIfModified();
+        } catch (IOException e) {
+            log.warn("Embedded person snapshot to {} failed, previous snapshot kept", snapshotPath, e);
+        }
+    }
+
+    /**
+     * Écrit un instantané si des écritures ont eu lieu depuis le précédent. Une écriture
+     * concurrente de la copie des colonnes provoque au pire un instantané de plus.
+     */
+    public synchronized boolean snapshotIfModified() throws IOException {
+        long modifications = repository.modifications();
+        if (snapshotPath == null || modifications == snapshotModifications) {
+            return false;
+        }
+        repository.snapshot(snapshotPath);
+        snapshotModifications = modifications;
+        return true;
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (snapshotIfModified()) {
+            log.info("Wrote {} persons to {}", repository.count(), snapshotPath);
+        }
+    }
+}
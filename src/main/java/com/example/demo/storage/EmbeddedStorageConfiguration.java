@@ -0,0 +1,30 @@
+package com.example.demo.storage;
+
+import com.example.demo.config.StorageProperties;
+import com.example.demo.repository.PersonRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+
+/**
+ * Moteur embedded à la place du dépôt Spring Data MongoDB (profil embedded, qui
+ * désactive aussi les dépôts Mongo et les traitements liés à la collection).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "persons.storage", name = "engine", havingValue = "embedded")
+class EmbeddedStorageConfiguration {
+
+    @Bean
+    EmbeddedPersonStorage embeddedPersonStorage(StorageProperties properties) throws IOException {
+        return EmbeddedPersonStorage.open(properties);
+    }
+
+    @Bean
+    @Primary
+    PersonRepository embeddedPersonRepository(EmbeddedPersonStorage storage) {
+        return storage.repository();
+    }
+}
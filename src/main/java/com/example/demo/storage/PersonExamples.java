@@ -0,0 +1,90 @@
+package com.example.demo.storage;
+
+import com.example.demo.entity.Person;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Example de Person évalué en mémoire, avec la sémantique de la requête que le dépôt
+ * Mongo en tire : propriétés nulles de la sonde ignorées (sauf NullHandler.INCLUDE),
+ * chemins ignorés, toutes ou l'une des propriétés, StringMatcher avec ou sans casse.
+ * age étant primitif, il est toujours comparé tant que son chemin n'est pas ignoré.
+ */
+final class PersonExamples {
+
+    private PersonExamples() {
+    }
+
+    static Predicate<Person> predicate(Example<? extends Person> example) {
+        Person probe = example.getProbe();
+        ExampleMatcherAccessor matcher = new ExampleMatcherAccessor(example.getMatcher());
+        List<Predicate<Person>> criteria = new ArrayList<>();
+        addCriterion(criteria, matcher, "id", probe.id(), Person::id);
+        addCriterion(criteria, matcher, "name", probe.name(), Person::name);
+        addCriterion(criteria, matcher, "age", probe.age(), Person::age);
+        addCriterion(criteria, matcher, "version", probe.version(), Person::version);
+        // Sonde vide : la requête Mongo n'a aucun critère et renvoie tout
+        if (criteria.isEmpty()) {
+            return person -> true;
+        }
+        return example.getMatcher().isAllMatching()
+                ? person -> criteria.stream().allMatch(criterion -> criterion.test(person))
+                : person -> criteria.stream().anyMatch(criterion -> criterion.test(person));
+    }
+
+    private static void addCriterion(List<Predicate<Person>> criteria, ExampleMatcherAccessor matcher, String path,
+                                     Object probeValue, Function<Person, Object> property) {
+        if (matcher.isIgnoredPath(path)) {
+            return;
+        }
+        Object value = matcher.getValueTransformerForPath(path).apply(Optional.ofNullable(probeValue)).orElse(null);
+        if (value == null) {
+            // _id n'est jamais nul en base : une sonde sans id ne contraint pas l'id
+            if (matcher.getNullHandler() == ExampleMatcher.NullHandler.INCLUDE && !"id".equals(path)) {
+                criteria.add(person -> property.apply(person) == null);
+            }
+            return;
+        }
+        if (value instanceof String string) {
+            Predicate<String> matches = stringMatcher(matcher.getStringMatcherForPath(path),
+                    matcher.isIgnoreCaseForPath(path), string);
+            criteria.add(person -> property.apply(person) instanceof String actual && matches.test(actual));
+        } else {
+            criteria.add(person -> value.equals(property.apply(person)));
+        }
+    }
+
+    // Mêmes expressions que MongoRegexCreator : ancrées selon le StringMatcher, REGEX telle quelle
+    private static Predicate<String> stringMatcher(ExampleMatcher.StringMatcher stringMatcher, boolean ignoreCase,
+                                                   String value) {
+        int flags = ignoreCase ? Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE : 0;
+        if (stringMatcher == ExampleMatcher.StringMatcher.REGEX) {
+            Pattern pattern = Pattern.compile(value, flags);
+            return actual -> pattern.matcher(actual).find();
+        }
+        if (!ignoreCase) {
+            return switch (stringMatcher) {
+                case STARTING -> actual -> actual.startsWith(value);
+                case ENDING -> actual -> actual.endsWith(value);
+                case CONTAINING -> actual -> actual.contains(value);
+                default -> value::equals;
+            };
+        }
+        String quoted = Pattern.quote(value);
+        Pattern pattern = Pattern.compile(switch (stringMatcher) {
+            case STARTING -> "^" + quoted;
+            case ENDING -> quoted + "$";
+            case CONTAINING -> quoted;
+            default -> "^" + quoted + "$";
+        }, flags);
+        return actual -> pattern.matcher(actual).find();
+    }
+}
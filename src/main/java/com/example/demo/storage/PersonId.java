@@ -0,0 +1,73 @@
+package com.example.demo.storage;
+
+import org.bson.types.ObjectId;
+
+/**
+ * Identifiant tel que Mongo le stocke : un id au format ObjectId occupe 12 octets
+ * (high, low) au lieu d'une String, les autres ids restent des chaînes. L'ordre est
+ * celui de Mongo sur _id : chaînes d'abord, puis ObjectId par octets.
+ */
+record PersonId(String string, long high, int low) {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    static PersonId of(String id) {
+        if (!ObjectId.isValid(id)) {
+            return new PersonId(id, 0, 0);
+        }
+        byte[] bytes = new ObjectId(id).toByteArray();
+        long high = 0;
+        for (int i = 0; i < 8; i++) {
+            high = (high << 8) | (bytes[i] & 0xff);
+        }
+        int low = 0;
+        for (int i = 8; i < 12; i++) {
+            low = (low << 8) | (bytes[i] & 0xff);
+        }
+        return new PersonId(null, high, low);
+    }
+
+    boolean isObjectId() {
+        return string == null;
+    }
+
+    static int compare(String string, long high, int low, String otherString, long otherHigh, int otherLow) {
+        if (string != null || otherString != null) {
+            if (string == null) {
+                return 1;
+            }
+            return otherString == null ? -1 : string.compareTo(otherString);
+        }
+        int compared = Long.compareUnsigned(high, otherHigh);
+        return compared != 0 ? compared : Integer.compareUnsigned(low, otherLow);
+    }
+
+    // Tri en mémoire de personnes déjà lues (findAll(Sort))
+    static int compare(String id, String other) {
+        PersonId key = of(id);
+        PersonId otherKey = of(other);
+        return compare(key.string, key.high, key.low, otherKey.string, otherKey.high, otherKey.low);
+    }
+
+    // Même forme que ObjectId.toHexString(), sans passer par un tableau d'octets
+    static String toHex(long high, int low) {
+        char[] chars = new char[24];
+        for (int i = 15; i >= 0; i--) {
+            chars[i] = HEX[(int) (high & 0xf)];
+            high >>>= 4;
+        }
+        for (int i = 23; i >= 16; i--) {
+            chars[i] = HEX[low & 0xf];
+            low >>>= 4;
+        }
+        return new String(chars);
+    }
+
+    static int hash(String string, long high, int low) {
+        if (string != null) {
+            return string.hashCode();
+        }
+        long mixed = (high ^ ((long) low << 32) ^ low) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
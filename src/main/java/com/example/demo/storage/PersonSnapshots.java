@@ -0,0 +1,163 @@
+package com.example.demo.storage;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Fichier d'instantané du moteur embarqué, lu et écrit par projection mémoire : les
+ * colonnes sont copiées en bloc entre le fichier et les tableaux, sans décodage ligne
+ * par ligne, ce qui ramène un redémarrage à quelques copies mémoire.
+ *
+ * Format (little-endian) :
+ *   magic, format, nombre de lignes n, nombre de codes de nom m   (4 x int)
+ *   m noms : longueur (int, -1 pour un code libre) puis octets UTF-8
+ *   k ids non ObjectId : k (int) puis, pour chacun, ligne (int), longueur (int), octets UTF-8
+ *   colonnes dans l'ordre des ids : idHigh long[n], idLow int[n], nameCodes int[n],
+ *   ages int[n], versions long[n]
+ *
+ * L'écriture se fait dans un fichier temporaire renommé ensuite : un arrêt brutal
+ * laisse l'instantané précédent intact.
+ */
+final class PersonSnapshots {
+
+    private static final int MAGIC = 0x50534e31;
+    private static final int FORMAT = 1;
+
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Colonnes des lignes vivantes, triées par id ; stringIds est null pour un ObjectId
+     * et names null pour un code libre.
+     */
+    record Columns(String[] names, String[] stringIds, long[] idHigh, int[] idLow, int[] nameCodes, int[] ages,
+                   long[] versions) {}
+
+    private PersonSnapshots() {
+    }
+
+    static void write(Path path, Columns columns) throws IOException {
+        int size = columns.ages().length;
+        byte[][] names = new byte[columns.names().length][];
+        long bytes = 16;
+        for (int code = 0; code < names.length; code++) {
+            String name = columns.names()[code];
+            names[code] = name == null ? null : name.getBytes(StandardCharsets.UTF_8);
+            bytes += 4 + (name == null ? 0 : names[code].length);
+        }
+        byte[][] stringIds = new byte[size][];
+        int stringIdCount = 0;
+        bytes += 4;
+        for (int row = 0; row < size; row++) {
+            if (columns.stringIds()[row] != null) {
+                stringIds[row] = columns.stringIds()[row].getBytes(StandardCharsets.UTF_8);
+                bytes += 8 + stringIds[row].length;
+                stringIdCount++;
+            }
+        }
+        bytes += (long) size * (8 + 4 + 4 + 4 + 8);
+
+        Path directory = path.toAbsolutePath().getParent();
+        if (directory != null) {
+            Files.createDirectories(directory);
+        }
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes, arena);
+            long offset = 0;
+            segment.set(INT, offset, MAGIC);
+            segment.set(INT, offset + 4, FORMAT);
+            segment.set(INT, offset + 8, size);
+            segment.set(INT, offset + 12, names.length);
+            offset += 16;
+            for (byte[] name : names) {
+                segment.set(INT, offset, name == null ? -1 : name.length);
+                offset += 4;
+                if (name != null) {
+                    MemorySegment.copy(name, 0, segment, ValueLayout.JAVA_BYTE, offset, name.length);
+                    offset += name.length;
+                }
+            }
+            segment.set(INT, offset, stringIdCount);
+            offset += 4;
+            for (int row = 0; row < size; row++) {
+                if (stringIds[row] != null) {
+                    segment.set(INT, offset, row);
+                    segment.set(INT, offset + 4, stringIds[row].length);
+                    MemorySegment.copy(stringIds[row], 0, segment, ValueLayout.JAVA_BYTE, offset + 8, stringIds[row].length);
+                    offset += 8 + stringIds[row].length;
+                }
+            }
+            MemorySegment.copy(columns.idHigh(), 0, segment, LONG, offset, size);
+            offset += 8L * size;
+            MemorySegment.copy(columns.idLow(), 0, segment, INT, offset, size);
+            offset += 4L * size;
+            MemorySegment.copy(columns.nameCodes(), 0, segment, INT, offset, size);
+            offset += 4L * size;
+            MemorySegment.copy(columns.ages(), 0, segment, INT, offset, size);
+            offset += 4L * size;
+            MemorySegment.copy(columns.versions(), 0, segment, LONG, offset, size);
+            segment.force();
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Columns read(Path path) throws IOException {
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MemorySegment segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            if (segment.byteSize() < 16 || segment.get(INT, 0) != MAGIC || segment.get(INT, 4) != FORMAT) {
+                throw new IOException("Not a person snapshot (format " + FORMAT + "): " + path);
+            }
+            int size = segment.get(INT, 8);
+            String[] names = new String[segment.get(INT, 12)];
+            long offset = 16;
+            for (int code = 0; code < names.length; code++) {
+                int length = segment.get(INT, offset);
+                offset += 4;
+                if (length >= 0) {
+                    names[code] = string(segment, offset, length);
+                    offset += length;
+                }
+            }
+            String[] stringIds = new String[size];
+            int stringIdCount = segment.get(INT, offset);
+            offset += 4;
+            for (int i = 0; i < stringIdCount; i++) {
+                int row = segment.get(INT, offset);
+                int length = segment.get(INT, offset + 4);
+                stringIds[row] = string(segment, offset + 8, length);
+                offset += 8 + length;
+            }
+            Columns columns = new Columns(names, stringIds, new long[size], new int[size], new int[size], new int[size],
+                    new long[size]);
+            MemorySegment.copy(segment, LONG, offset, columns.idHigh(), 0, size);
+            offset += 8L * size;
+            MemorySegment.copy(segment, INT, offset, columns.idLow(), 0, size);
+            offset += 4L * size;
+            MemorySegment.copy(segment, INT, offset, columns.nameCodes(), 0, size);
+            offset += 4L * size;
+            MemorySegment.copy(segment, INT, offset, columns.ages(), 0, size);
+            offset += 4L * size;
+            MemorySegment.copy(segment, LONG, offset, columns.versions(), 0, size);
+            return columns;
+        }
+    }
+
+    private static String string(MemorySegment segment, long offset, int length) {
+        byte[] bytes = new byte[length];
+        MemorySegment.copy(segment, ValueLayout.JAVA_BYTE, offset, bytes, 0, length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.demo.storage;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Liste triée de numéros de ligne, sans boxing : entrée d'un index (les ids, un âge,
+ * les noms). L'ordre est fourni par le magasin.
+ *
+ * Les lignes sont réparties en blocs triés d'au plus CHUNK entrées. Une insertion ou
+ * une suppression ne décale que son bloc, puis le début des blocs suivants (un int
+ * par bloc) : un id client inséré au milieu de millions d'ObjectId coûte quelques
+ * milliers d'opérations, pas le décalage de toute la liste. Les ids croissants
+ * (ObjectId générés) remplissent le dernier bloc sans décalage.
+ */
+final class SlotList {
+
+    static final int CHUNK = 1024;
+
+    @FunctionalInterface
+    interface SlotOrder {
+        int compare(int slot, int other);
+    }
+
+    // Blocs non vides, triés entre eux ; chunkStarts donne l'indice global de leur première entrée
+    private int[][] chunks = new int[1][];
+    private int[] chunkSizes = new int[1];
+    private int[] chunkStarts = new int[1];
+    private int chunkCount;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        int chunk = chunkAt(index);
+        return chunks[chunk][index - chunkStarts[chunk]];
+    }
+
+    // Chargement d'un instantané et ids croissants : ajout en fin, bloc suivant quand le dernier est plein
+    void append(int slot) {
+        int last = chunkCount - 1;
+        if (last < 0 || chunkSizes[last] == CHUNK) {
+            openChunk(chunkCount, new int[16], 0, size);
+            last = chunkCount - 1;
+        }
+        int[] rows = chunks[last];
+        if (chunkSizes[last] == rows.length) {
+            rows = chunks[last] = Arrays.copyOf(rows, Math.min(rows.length * 2, CHUNK));
+        }
+        rows[chunkSizes[last]++] = slot;
+        size++;
+    }
+
+    void insert(int slot, SlotOrder order) {
+        IntUnaryOperator compareToSlot = other -> order.compare(other, slot);
+        if (size == 0 || compareToSlot.applyAsInt(lastOf(chunkCount - 1)) <= 0) {
+            append(slot);
+            return;
+        }
+        // Le dernier bloc se termine après slot : ce bloc existe
+        int chunk = firstChunkEndingAfter(compareToSlot, false);
+        int index = upperBound(chunks[chunk], chunkSizes[chunk], compareToSlot);
+        if (chunkSizes[chunk] == CHUNK) {
+            split(chunk);
+            if (index > CHUNK / 2) {
+                chunk++;
+                index -= CHUNK / 2;
+            }
+        }
+        int count = chunkSizes[chunk];
+        int[] rows = chunks[chunk];
+        if (count == rows.length) {
+            rows = chunks[chunk] = Arrays.copyOf(rows, Math.min(rows.length * 2, CHUNK));
+        }
+        System.arraycopy(rows, index, rows, index + 1, count - index);
+        rows[index] = slot;
+        chunkSizes[chunk]++;
+        size++;
+        shiftStarts(chunk + 1, 1);
+    }
+
+    void remove(int slot, SlotOrder order) {
+        IntUnaryOperator compareToSlot = other -> order.compare(other, slot);
+        int chunk = firstChunkEndingAfter(compareToSlot, true);
+        if (chunk == chunkCount) {
+            return;
+        }
+        int[] rows = chunks[chunk];
+        int count = chunkSizes[chunk];
+        int index = lowerBound(rows, count, compareToSlot);
+        if (index < count && rows[index] == slot) {
+            System.arraycopy(rows, index + 1, rows, index, count - index - 1);
+            chunkSizes[chunk] = --count;
+            size--;
+            if (count == 0) {
+                closeChunk(chunk);
+                shiftStarts(chunk, -1);
+            } else {
+                shiftStarts(chunk + 1, -1);
+            }
+        }
+    }
+
+    /**
+     * Premier indice dont la ligne est strictement après la clé : compareToKey donne,
+     * pour une ligne, le signe de sa comparaison avec la clé.
+     */
+    int upperBound(IntUnaryOperator compareToKey) {
+        int chunk = firstChunkEndingAfter(compareToKey, false);
+        return chunk == chunkCount
+                ? size
+                : chunkStarts[chunk] + upperBound(chunks[chunk], chunkSizes[chunk], compareToKey);
+    }
+
+    int lowerBound(IntUnaryOperator compareToKey) {
+        int chunk = firstChunkEndingAfter(compareToKey, true);
+        return chunk == chunkCount
+                ? size
+                : chunkStarts[chunk] + lowerBound(chunks[chunk], chunkSizes[chunk], compareToKey);
+    }
+
+    // Premier bloc dont la dernière ligne est après la clé (ou égale si inclusive), chunkCount sinon
+    private int firstChunkEndingAfter(IntUnaryOperator compareToKey, boolean inclusive) {
+        int low = 0;
+        int high = chunkCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int comparison = compareToKey.applyAsInt(lastOf(mid));
+            if (comparison > 0 || (inclusive && comparison == 0)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    // Dernier bloc dont le début est au plus index
+    private int chunkAt(int index) {
+        int low = 0;
+        int high = chunkCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (chunkStarts[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int lastOf(int chunk) {
+        return chunks[chunk][chunkSizes[chunk] - 1];
+    }
+
+    // Un bloc plein est coupé en deux moitiés ; la seconde reçoit sa pleine capacité
+    private void split(int chunk) {
+        int half = CHUNK / 2;
+        int[] upper = Arrays.copyOfRange(chunks[chunk], half, half + CHUNK);
+        openChunk(chunk + 1, upper, CHUNK - half, chunkStarts[chunk] + half);
+        chunkSizes[chunk] = half;
+    }
+
+    private void openChunk(int position, int[] rows, int count, int start) {
+        if (chunkCount == chunks.length) {
+            int capacity = chunkCount * 2;
+            chunks = Arrays.copyOf(chunks, capacity);
+            chunkSizes = Arrays.copyOf(chunkSizes, capacity);
+            chunkStarts = Arrays.copyOf(chunkStarts, capacity);
+        }
+        int moved = chunkCount - position;
+        System.arraycopy(chunks, position, chunks, position + 1, moved);
+        System.arraycopy(chunkSizes, position, chunkSizes, position + 1, moved);
+        System.arraycopy(chunkStarts, position, chunkStarts, position + 1, moved);
+        chunks[position] = rows;
+        chunkSizes[position] = count;
+        chunkStarts[position] = start;
+        chunkCount++;
+    }
+
+    private void closeChunk(int chunk) {
+        int moved = chunkCount - chunk - 1;
+        System.arraycopy(chunks, chunk + 1, chunks, chunk, moved);
+        System.arraycopy(chunkSizes, chunk + 1, chunkSizes, chunk, moved);
+        System.arraycopy(chunkStarts, chunk + 1, chunkStarts, chunk, moved);
+        chunkCount--;
+        chunks[chunkCount] = null;
+    }
+
+    private void shiftStarts(int fromChunk, int delta) {
+        for (int chunk = fromChunk; chunk < chunkCount; chunk++) {
+            chunkStarts[chunk] += delta;
+        }
+    }
+
+    private static int upperBound(int[] rows, int count, IntUnaryOperator compareToKey) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareToKey.applyAsInt(rows[mid]) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(int[] rows, int count, IntUnaryOperator compareToKey) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compareToKey.applyAsInt(rows[mid]) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
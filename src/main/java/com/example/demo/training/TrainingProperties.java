@@ -0,0 +1,18 @@
+package com.example.demo.training;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Charge rejouée par le profil training avant l'écriture du cache AOT.
+ *
+ * @param iterations  cycles CRUD par client
+ * @param clients     clients concurrents (threads virtuels)
+ * @param exitOnCompletion arrête la JVM à la fin, ce qui écrit le cache (-XX:AOTCacheOutput)
+ */
+@ConfigurationProperties(prefix = "training")
+public record TrainingProperties(
+        @DefaultValue("500") int iterations,
+        @DefaultValue("8") int clients,
+        @DefaultValue("true") boolean exitOnCompletion
+) {}
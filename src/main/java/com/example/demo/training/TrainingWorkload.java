@@ -0,0 +1,130 @@
+package com.example.demo.training;
+
+import com.example.demo.dto.PersonDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rejoue un trafic CRUD représentatif sur /api/persons, par HTTP, pour que
+ * l'exécution d'entraînement (-XX:AOTCacheOutput) charge et profile le chemin des
+ * requêtes : filtres, Jackson, PersonMapperImpl, codecs MongoDB, GlobalExceptionHandler.
+ * Un cache produit avec -Dspring.context.exit=onRefresh s'arrête au démarrage du
+ * contexte et n'en contient rien.
+ *
+ * Chaque cycle couvre les réponses 200, 201, 204, 304, 400, 404 et 412.
+ *
+ * Activé par le profil training, testé à l'exécution plutôt que par @Profile : avec
+ * Spring AOT les beans sont figés au build, sans ce profil.
+ */
+@Component
+public class TrainingWorkload {
+
+    private static final Logger log = LoggerFactory.getLogger(TrainingWorkload.class);
+
+    private final TrainingProperties properties;
+    private final ConfigurableApplicationContext context;
+    private final AtomicLong requests = new AtomicLong();
+
+    public TrainingWorkload(TrainingProperties properties, ConfigurableApplicationContext context) {
+        this.properties = properties;
+        this.context = context;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void runInBackground() {
+        if (!context.getEnvironment().matchesProfiles("training")) {
+            return;
+        }
+        Thread.ofVirtual().name("training-workload").start(() -> {
+            int exitCode = 0;
+            try {
+                run();
+            } catch (Exception e) {
+                log.error("Training workload failed, the AOT cache will only cover startup", e);
+                exitCode = 1;
+            }
+            if (properties.exitOnCompletion()) {
+                int code = exitCode;
+                System.exit(SpringApplication.exit(context, () -> code));
+            }
+        });
+    }
+
+    void run() throws Exception {
+        String port = context.getEnvironment().getRequiredProperty("local.server.port");
+        RestClient client = RestClient.create("http://localhost:" + port);
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < properties.clients(); c++) {
+                int clientId = c;
+                clients.add(executor.submit(() -> {
+                    for (int i = 0; i < properties.iterations(); i++) {
+                        cycle(client, clientId, i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+        }
+        exercise(client.get().uri("/api/persons/export"));
+        exercise(client.get().uri("/actuator/prometheus"));
+        log.info("Training workload done: {} requests in {}", requests.get(), Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    private void cycle(RestClient client, int clientId, int iteration) {
+        PersonDto created = client.post().uri("/api/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new PersonDto(null, "Training " + clientId + "-" + iteration, 18 + iteration % 60))
+                .retrieve()
+                .body(PersonDto.class);
+        requests.incrementAndGet();
+        String id = created.id();
+        String path = "/api/persons/" + id;
+
+        String etag = client.get().uri(path).retrieve().toBodilessEntity().getHeaders().getETag();
+        requests.incrementAndGet();
+        exercise(client.get().uri(path).header(HttpHeaders.IF_NONE_MATCH, etag));
+        exercise(client.get().uri(path + "?fields=name,age"));
+
+        PersonDto renamed = new PersonDto(id, created.name() + " (updated)", created.age() + 1);
+        exercise(client.put().uri(path).contentType(MediaType.APPLICATION_JSON).body(renamed).header(HttpHeaders.IF_MATCH, etag));
+        // Même ETag, désormais périmé : 412
+        exercise(client.put().uri(path).contentType(MediaType.APPLICATION_JSON).body(renamed).header(HttpHeaders.IF_MATCH, etag));
+        exercise(client.put().uri(path).contentType(MediaType.APPLICATION_JSON).body(renamed));
+
+        exercise(client.get().uri("/api/persons?limit=20"));
+        exercise(client.get().uri("/api/persons?page=0&limit=20&fields=id,name"));
+        exercise(client.get().uri("/api/persons/search?namePrefix=Training&minAge=20&maxAge=60&limit=20"));
+        exercise(client.get().uri("/api/persons/search?minAge=1&maxAge=0"));
+        exercise(client.post().uri("/api/persons").contentType(MediaType.APPLICATION_JSON).body("{\"name\":"));
+
+        exercise(client.delete().uri(path));
+        exercise(client.get().uri(path));
+    }
+
+    // Le statut importe peu : seules comptent les classes chargées et les méthodes exécutées
+    private HttpStatusCode exercise(RestClient.RequestHeadersSpec<?> call) {
+        requests.incrementAndGet();
+        return call.exchange((request, response) -> response.getStatusCode());
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.demo.cache;
+
+import com.example.demo.entity.Person;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaffeinePersonCacheTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger loads = new AtomicInteger();
+    private CaffeinePersonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CaffeinePersonCache(
+                new PersonCacheProperties(true, 100, Duration.ofMinutes(5), Duration.ofSeconds(30),
+                new PersonCacheProperties.Coherence(false, Duration.ofSeconds(5), Duration.ofSeconds(5))), meterRegistry);
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndCountHitsAndMisses() {
+        // Given
+        Function<String, Optional<Person>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.of(new Person(id, "John Doe", 30));
+        };
+
+        // When
+        cache.get("1", loader);
+        Optional<Person> result = cache.get("1", loader);
+
+        // Then
+        assertThat(result).contains(new Person("1", "John Doe", 30));
+        assertThat(loads).hasValue(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CaffeinePersonCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CaffeinePersonCache.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void get_ShouldCacheAbsentPersons() {
+        // Given
+        Function<String, Optional<Person>> loader = id -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        // When
+        cache.get("999", loader);
+        Optional<Person> result = cache.get("999", loader);
+
+        // Then
+        assertThat(result).isEmpty();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void invalidate_ShouldForceReload() {
+        // Given
+        Function<String, Optional<Person>> loader = id -> Optional.of(new Person(id, "Load " + loads.incrementAndGet(), 30));
+        cache.get("1", loader);
+
+        // When
+        cache.invalidate("1");
+        Optional<Person> result = cache.get("1", loader);
+
+        // Then
+        assertThat(result).map(Person::name).contains("Load 2");
+    }
+
+    @Test
+    void degrade_ShouldClearEntriesUntilRestored() {
+        // Given
+        Function<String, Optional<Person>> loader = id -> Optional.of(new Person(id, "Load " + loads.incrementAndGet(), 30));
+        cache.get("1", loader);
+
+        // When
+        cache.degrade(Duration.ofSeconds(5));
+        cache.get("1", loader);
+
+        // Then
+        assertThat(cache.isDegraded()).isTrue();
+        assertThat(loads).hasValue(2);
+        cache.restore();
+        assertThat(cache.isDegraded()).isFalse();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.demo.cache;
+
+import com.example.demo.entity.Person;
+import com.example.demo.service.PersonService;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * MongoDBContainer démarre un replica set à un nœud, ce qui suffit aux change streams.
+ * Le TTL dégradé est long pour que seul le flux puisse invalider l'entrée.
+ */
+@SpringBootTest(properties = {
+        "persons.cache.ttl=10m",
+        "persons.cache.coherence.enabled=true",
+        "persons.cache.coherence.degraded-ttl=10m",
+        "persons.cache.coherence.check-interval=200ms"
+})
+@Testcontainers(disabledWithoutDocker = true)
+class PersonCacheCoherenceTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7");
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private PersonCacheCoherence coherence;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void writeFromAnotherReplica_ShouldInvalidateLocalCache() throws InterruptedException {
+        // Given
+        await(coherence::isCoherent);
+        BsonDocument beforeInsert = coherence.resumeToken();
+        Person saved = mongoTemplate.insert(new Person("John Doe", 30));
+        // L'événement d'insertion doit être traité avant de mettre l'entrée en cache
+        await(() -> !Objects.equals(coherence.resumeToken(), beforeInsert));
+        assertThat(personService.getPersonByIdOrThrow(saved.id()).name()).isEqualTo("John Doe");
+
+        // When : écriture directe, sans passer par l'invalidation du service
+        mongoTemplate.save(new Person(saved.id(), "John Remote", 31, saved.version()));
+
+        // Then
+        await(() -> personService.getPersonByIdOrThrow(saved.id()).name().equals("John Remote"));
+    }
+
+    @Test
+    void resumeToken_ShouldBeStoredForRestart() throws InterruptedException {
+        // Given
+        await(coherence::isCoherent);
+
+        // When
+        mongoTemplate.insert(new Person("Jane Smith", 25));
+
+        // Then
+        await(() -> mongoTemplate.getCollection(ResumeTokenStore.COLLECTION).countDocuments() == 1);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(15).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within 15s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.concurrent;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimitFilterTest {
+
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(null, null, Duration.ofSeconds(1));
+
+    @ParameterizedTest
+    @CsvSource({
+            "/api/persons, true",
+            "/api/persons/42, true",
+            "/api/persons/search, true",
+            "/api/personsX, false",
+            "/api/persons-archive/1, false",
+            "/api/persons/export, false",
+            "/api/persons/_bulk, false",
+            "/actuator/health, false"
+    })
+    void shouldNotFilter_ShouldLimitPersonsPathsOnly(String path, boolean limited) {
+        // When
+        boolean skipped = filter.shouldNotFilter(new MockHttpServletRequest("GET", path));
+
+        // Then
+        assertThat(skipped).isEqualTo(!limited);
+    }
+}
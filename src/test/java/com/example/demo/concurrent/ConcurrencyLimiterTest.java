@@ -0,0 +1,156 @@
+package com.example.demo.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrencyLimiterTest {
+
+    private static final int POOL_SIZE = 10;
+    private static final int CLIENTS = 200;
+    private static final Duration QUERY_TIME = Duration.ofMillis(2);
+    private static final Duration RETRY_DELAY = Duration.ofMillis(1);
+    private static final Duration LOAD_DURATION = Duration.ofSeconds(1);
+    private static final long NOT_STARTED = -1;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tryAcquire_AboveLimit_ShouldRejectWithoutBlocking() {
+        // Given
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new VegasLimit(2, 1, 10, 0.5), meterRegistry);
+
+        // When
+        boolean first = limiter.tryAcquire();
+        boolean second = limiter.tryAcquire();
+        boolean third = limiter.tryAcquire();
+        limiter.release();
+        boolean afterRelease = limiter.tryAcquire();
+
+        // Then
+        assertThat(List.of(first, second, third, afterRelease)).containsExactly(true, true, false, true);
+        assertThat(count("accepted")).isEqualTo(3);
+        assertThat(count("rejected")).isEqualTo(1);
+        assertThat(meterRegistry.get("concurrency.in_flight").tag("name", "test").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void onSample_WhenLatencyGrowsWithConcurrency_ShouldLowerLimit() {
+        // Given
+        VegasLimit limit = new VegasLimit(100, 5, 500, 0.5);
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(2), 100);
+
+        // When : 100 en cours, 10 servis à la fois, la latence est décuplée
+        for (int i = 0; i < 50; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(20), 100);
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isLessThan(100);
+    }
+
+    @Test
+    void onSample_WhenLatencyStaysAtBaseline_ShouldRaiseLimit() {
+        // Given
+        VegasLimit limit = new VegasLimit(20, 5, 500, 0.5);
+        limit.onSample(TimeUnit.MILLISECONDS.toNanos(2), 20);
+
+        // When
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(TimeUnit.MILLISECONDS.toNanos(2), limit.getLimit());
+        }
+
+        // Then
+        assertThat(limit.getLimit()).isGreaterThan(20);
+    }
+
+    @Test
+    void overload_WithSlowRepository_ShouldBoundTailLatency() {
+        // Given : dépôt simulé avec un pool de 10 connexions et 2 ms par requête
+        ConcurrencyLimiter limiter = new ConcurrencyLimiter("test", new VegasLimit(50, 5, 500, 0.5), meterRegistry);
+
+        // When : 200 clients concurrents, soit 20 fois la capacité du pool
+        Load unlimited = simulate(null);
+        Load limited = simulate(limiter);
+
+        // Then : la file d'attente reste bornée près du pool, le surplus est rejeté tout de suite
+        assertThat(limited.percentile(0.9)).isLessThan(unlimited.percentile(0.9).dividedBy(2));
+        assertThat(limited.percentile(0.99)).isLessThan(unlimited.percentile(0.99));
+        assertThat(limited.rejected()).isPositive();
+        assertThat(limiter.getLimit()).isBetween(5, 5 * POOL_SIZE);
+        assertThat(limited.completed()).isGreaterThan(unlimited.completed() / 2);
+    }
+
+    /**
+     * Simulation à événements discrets sur une horloge simulée : aucun sleep ni thread,
+     * le résultat ne dépend pas de la charge de la machine. Chaque client enchaîne ses
+     * requêtes ; le pool sert dans l'ordre d'arrivée et un client rejeté réessaie 1 ms
+     * plus tard.
+     */
+    private Load simulate(ConcurrencyLimiter limiter) {
+        PriorityQueue<Event> events = new PriorityQueue<>(Comparator.comparingLong(Event::time).thenComparingLong(Event::sequence));
+        PriorityQueue<Long> connectionsFreeAt = new PriorityQueue<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            connectionsFreeAt.add(0L);
+        }
+        List<Long> latencies = new ArrayList<>();
+        int rejected = 0;
+        long sequence = 0;
+        for (int client = 0; client < CLIENTS; client++) {
+            events.add(new Event(0, sequence++, NOT_STARTED));
+        }
+        while (!events.isEmpty()) {
+            Event event = events.poll();
+            long now = event.time();
+            if (event.start() != NOT_STARTED) {
+                long rtt = now - event.start();
+                if (limiter != null) {
+                    limiter.onSample(rtt);
+                    limiter.release();
+                }
+                latencies.add(rtt);
+            }
+            if (now >= LOAD_DURATION.toNanos()) {
+                continue;
+            }
+            if (limiter != null && !limiter.tryAcquire()) {
+                rejected++;
+                events.add(new Event(now + RETRY_DELAY.toNanos(), sequence++, NOT_STARTED));
+                continue;
+            }
+            long end = Math.max(now, connectionsFreeAt.poll()) + QUERY_TIME.toNanos();
+            connectionsFreeAt.add(end);
+            events.add(new Event(end, sequence++, now));
+        }
+        Collections.sort(latencies);
+        return new Load(latencies, rejected);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("concurrency.requests").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    // start : instant d'admission de la requête qui se termine à time, NOT_STARTED pour une tentative
+    private record Event(long time, long sequence, long start) {}
+
+    private record Load(List<Long> sortedLatencies, int rejected) {
+
+        Duration percentile(double rank) {
+            return Duration.ofNanos(sortedLatencies.get((int) (sortedLatencies.size() * rank)));
+        }
+
+        int completed() {
+            return sortedLatencies.size();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.demo.concurrent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 50;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void execute_WithConcurrentCallers_ShouldLoadOnce() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            results.add(executor.submit(() -> singleFlight.execute("1", () -> {
+                loads.incrementAndGet();
+                await(release);
+                return "John Doe";
+            })));
+            awaitCount("leader", 1);
+            for (int i = 1; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("1", () -> {
+                    loads.incrementAndGet();
+                    return "unexpected";
+                })));
+            }
+            awaitCount("coalesced", CALLERS - 1);
+            release.countDown();
+        }
+
+        // Then
+        assertThat(loads).hasValue(1);
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("John Doe");
+        }
+    }
+
+    @Test
+    void execute_WhenLoaderFails_ShouldPropagateToAllCallers() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> leader = executor.submit(() -> singleFlight.execute("1", () -> {
+                await(release);
+                throw new IllegalStateException("mongo down");
+            }));
+            awaitCount("leader", 1);
+            Future<String> follower = executor.submit(() -> singleFlight.execute("1", () -> "unexpected"));
+            awaitCount("coalesced", 1);
+            release.countDown();
+
+            // Then
+            assertThatThrownBy(leader::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(follower::get).isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void execute_AfterCompletion_ShouldLoadAgain() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        singleFlight.execute("1", () -> "Load " + loads.incrementAndGet());
+        String result = singleFlight.execute("1", () -> "Load " + loads.incrementAndGet());
+
+        // Then
+        assertThat(result).isEqualTo("Load 2");
+        assertThat(count("leader")).isEqualTo(2);
+        assertThat(count("coalesced")).isZero();
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("singleflight.calls").tag("name", "test").tag("outcome", outcome).counter().count();
+    }
+
+    private void awaitCount(String outcome, int expected) throws InterruptedException {
+        while (count(outcome) < expected) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SecurityHeaderPolicyTest {
+
+    private final SecurityHeaderPolicy policy = SecurityHeaderPolicy.defaults();
+
+    @Test
+    void classify_ShouldMatchLegacyStaticAssetRegex() {
+        List<String> paths = List.of("/app.js", "/css/site.css", "/a.woff2", "/x.js.map", "/.css", "/api/persons",
+                "/robots.txt", "/", "/logo.PNG", "/fontwoff", "/img/logo.png");
+        for (String path : paths) {
+            boolean legacy = path.matches(".+\\.(css|js|jpg|jpeg|png|gif|ico|svg|woff|woff2|ttf|eot)$");
+            String cacheControl = policy.classify(path).get("Cache-Control");
+            assertThat(cacheControl.startsWith("public")).as(path).isEqualTo(legacy);
+        }
+    }
+
+    @Test
+    void doFilter_ShouldApplyZapPolicy() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        new SecurityHeaderFilter(policy).doFilter(new MockHttpServletRequest("GET", "/api/persons"), response, (req, res) -> {});
+
+        // Then
+        assertThat(response.getHeader("X-Content-Type-Options")).isEqualTo("nosniff");
+        assertThat(response.getHeader("Cross-Origin-Resource-Policy")).isEqualTo("same-origin");
+        assertThat(response.getHeader("Cross-Origin-Embedder-Policy")).isEqualTo("require-corp");
+        assertThat(response.getHeader("Cross-Origin-Opener-Policy")).isEqualTo("same-origin");
+        assertThat(response.getHeader("X-Frame-Options")).isEqualTo("DENY");
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-cache, no-store, must-revalidate, private");
+        assertThat(response.getHeader("Pragma")).isEqualTo("no-cache");
+        assertThat(response.getHeader("Expires")).isEqualTo("0");
+    }
+
+    @Test
+    void classify_ShouldApplyLongestConfiguredRoutePrefix() {
+        // Given
+        SecurityHeaderPolicy configured = new SecurityHeaderPolicy(new SecurityHeaderProperties(null, List.of(
+                new SecurityHeaderProperties.Route("/swagger-ui/", Map.of("cross-origin-embedder-policy", "")),
+                new SecurityHeaderProperties.Route("/swagger-ui/static/", Map.of("Cache-Control", "public, max-age=60")))));
+
+        // When
+        HeaderBundle swagger = configured.classify("/swagger-ui/index.html");
+        HeaderBundle swaggerStatic = configured.classify("/swagger-ui/static/app.js");
+
+        // Then
+        assertThat(swagger.get("Cross-Origin-Embedder-Policy")).isNull();
+        assertThat(swagger.get("X-Frame-Options")).isEqualTo("DENY");
+        assertThat(swaggerStatic.get("Cache-Control")).isEqualTo("public, max-age=60");
+        assertThat(swaggerStatic.get("Cross-Origin-Embedder-Policy")).isEqualTo("require-corp");
+    }
+
+    @Test
+    void classify_ShouldKeepLongCacheForStaticAssetsUnderRoute() {
+        // Given
+        SecurityHeaderPolicy configured = new SecurityHeaderPolicy(new SecurityHeaderProperties(null, List.of(
+                new SecurityHeaderProperties.Route("/swagger-ui/", Map.of("cross-origin-embedder-policy", "")))));
+
+        // When
+        HeaderBundle page = configured.classify("/swagger-ui/index.html");
+        HeaderBundle asset = configured.classify("/swagger-ui/swagger-ui-bundle.js");
+
+        // Then
+        assertThat(page.get("Cache-Control")).isEqualTo("no-cache, no-store, must-revalidate, private");
+        assertThat(asset.get("Cache-Control")).isEqualTo("public, max-age=31536000, immutable");
+        assertThat(asset.get("Pragma")).isNull();
+        assertThat(asset.get("Cross-Origin-Embedder-Policy")).isNull();
+    }
+
+    @Test
+    void route_WithoutPathPrefixOrHeaders_ShouldFailFast() {
+        // When & Then
+        assertThatThrownBy(() -> new SecurityHeaderProperties.Route(null, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("path-prefix");
+        assertThatThrownBy(() -> new SecurityHeaderProperties.Route("/swagger-ui/", null))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("headers");
+    }
+
+    @Test
+    void classify_ShouldNotAllocate() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        String[] paths = {"/api/persons/65f1a2b3c4d5e6f7a8b9c0d1", "/swagger-ui/swagger-ui-bundle.js", "/robots.txt"};
+        for (int i = 0; i < 100_000; i++) {
+            policy.classify(paths[i % paths.length]);
+        }
+
+        // When
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            policy.classify(paths[i % paths.length]);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        // Then : quelques octets tolérés pour la mesure elle-même, pas par appel
+        assertThat(allocated).isLessThan(1024);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.demo.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Mêmes scénarios que PersonApiIntegrationTest sur le moteur embedded : pas de Docker,
+ * l'instantané est écrit dans target à l'arrêt du contexte.
+ */
+@Tag("native")
+@ActiveProfiles("embedded")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "persons.storage.snapshot-path=target/test-snapshots/${random.uuid}.snapshot")
+class EmbeddedPersonApiTest extends PersonApiContractTest {
+}
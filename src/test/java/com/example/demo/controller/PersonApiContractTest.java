@@ -0,0 +1,164 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.PersonDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Scénarios HTTP de bout en bout, rejoués par les sous-classes contre chaque moteur de
+ * stockage et chaque pile web.
+ */
+abstract class PersonApiContractTest {
+
+    @Value("${local.server.port}")
+    private int port;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToServer().baseUrl("http://localhost:" + port).build();
+    }
+
+    @Test
+    void crudLifecycle_ShouldHonourETagsAndPreconditions() {
+        // Given
+        PersonDto created = client.post().uri("/api/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(null, "John Doe", 30))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PersonDto.class).returnResult().getResponseBody();
+        assertThat(created).isNotNull();
+        String path = "/api/persons/" + created.id();
+
+        // When
+        String etag = client.get().uri(path).exchange()
+                .expectStatus().isOk()
+                .expectBody(PersonDto.class).isEqualTo(created)
+                .returnResult().getResponseHeaders().getETag();
+
+        // Then
+        client.get().uri(path).header(HttpHeaders.IF_NONE_MATCH, etag).exchange()
+                .expectStatus().isNotModified();
+        client.put().uri(path).header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(created.id(), "John Smith", 31))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("John Smith");
+        client.put().uri(path).header(HttpHeaders.IF_MATCH, etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(created.id(), "Jane Smith", 32))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        client.delete().uri(path).exchange().expectStatus().isNoContent();
+        client.get().uri(path).exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.title").isEqualTo("Not Found");
+    }
+
+    @Test
+    void create_WithExistingClientId_ShouldConflict() {
+        // Given
+        PersonDto person = new PersonDto("client-" + System.nanoTime(), "John Doe", 30);
+        client.post().uri("/api/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(person)
+                .exchange()
+                .expectStatus().isCreated();
+
+        // When & Then : une création n'écrase pas une personne existante
+        client.post().uri("/api/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(person.id(), "Jane Doe", 40))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT)
+                .expectBody().jsonPath("$.title").isEqualTo("Conflict");
+        client.get().uri("/api/persons/" + person.id()).exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.name").isEqualTo("John Doe");
+    }
+
+    @Test
+    void reads_ShouldSupportProjectionSearchAndValidation() {
+        // Given
+        for (int i = 0; i < 3; i++) {
+            client.post().uri("/api/persons")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(new PersonDto(null, "Search " + i, 40 + i))
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+
+        // When & Then
+        client.get().uri("/api/persons?fields=name&limit=2").exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(PersonController.NEXT_CURSOR_HEADER)
+                .expectBody().jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[0].age").doesNotExist();
+        client.get().uri("/api/persons/search?namePrefix=Search&minAge=41").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.length()").isEqualTo(2);
+        client.get().uri("/api/persons/search?minAge=50&maxAge=10").exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/api/persons?fields=password").exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void cursorPaging_ShouldCrossFromClientIdsToGeneratedIds() {
+        // Given : un id chaîne fourni par le client et un ObjectId généré
+        String clientId = "client-" + System.nanoTime();
+        client.post().uri("/api/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(clientId, "Cursor Client", 50))
+                .exchange()
+                .expectStatus().isCreated();
+        PersonDto generated = client.post().uri("/api/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(null, "Cursor Generated", 51))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(PersonDto.class).returnResult().getResponseBody();
+        assertThat(generated).isNotNull();
+
+        // When
+        List<String> listed = walkIds("/api/persons?limit=1");
+        List<String> projected = walkIds("/api/persons?fields=id,name&limit=1");
+
+        // Then : le curseur chaîne ne s'arrête pas à la fin des id chaînes
+        assertThat(listed).contains(clientId, generated.id()).doesNotHaveDuplicates();
+        assertThat(projected).containsExactlyElementsOf(listed);
+    }
+
+    // Suit X-Next-Cursor jusqu'à la dernière page et retourne les id dans l'ordre
+    private List<String> walkIds(String uri) {
+        List<String> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            EntityExchangeResult<List<Map<String, Object>>> page = client.get()
+                    .uri(cursor == null ? uri : uri + "&after=" + cursor)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBody(new ParameterizedTypeReference<List<Map<String, Object>>>() {})
+                    .returnResult();
+            page.getResponseBody().forEach(person -> ids.add((String) person.get("id")));
+            cursor = page.getResponseHeaders().getFirst(PersonController.NEXT_CURSOR_HEADER);
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.controller;
+
+import org.junit.jupiter.api.Tag;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+/**
+ * Contrôleur, service, mapper et dépôt réels derrière un vrai serveur HTTP. Sans
+ * Mockito, ce test tourne aussi dans l'image native de test (mvn -PnativeTest test).
+ */
+@Tag("native")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"persons.indexes.reconcile-on-startup=false", "persons.cache.coherence.enabled=false"})
+@Testcontainers(disabledWithoutDocker = true)
+class PersonApiIntegrationTest extends PersonApiContractTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7");
+}
@@ -1,149 +1,522 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.ReadRoutingProperties;
+import com.example.demo.dto.BulkItemResult;
+import com.example.demo.dto.BulkResponse;
 import com.example.demo.dto.PersonDto;
+import com.example.demo.dto.PersonPage;
+import com.example.demo.dto.PersonProjectionPage;
+import com.example.demo.dto.PersonStats;
+import com.example.demo.exception.GlobalExceptionHandler;
+import com.example.demo.exception.InvalidRequestException;
+import com.example.demo.exception.PersonNotFoundException;
+import com.example.demo.exception.PreconditionFailedException;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.routing.ConsistencyTokenCodec;
+import com.example.demo.routing.ConsistencyTokens;
 import com.example.demo.service.PersonService;
-import org.junit.jupiter.api.BeforeEach;
+import com.example.demo.service.ReactivePersonBulkService;
+import com.example.demo.service.ReactivePersonService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.Arrays;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
-import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+/**
+ * Contrat HTTP de /api/persons, joué sur les deux piles : PersonController (Spring MVC)
+ * et ReactivePersonController (WebFlux). Les cas sont décrits une seule fois sur
+ * PersonService ; la pile réactive y accède par BlockingReactivePersonService.
+ */
 @ExtendWith(MockitoExtension.class)
 class PersonControllerTest {
 
-    private WebTestClient client;
+    private static final ConsistencyTokenCodec TOKENS = ConsistencyTokenCodec.of(new ReadRoutingProperties(true,
+            "primary", "secondaryPreferred", "secondaryPreferred", "secondaryPreferred", "secondaryPreferred",
+            Duration.ofSeconds(90), true, "a-test-secret-of-at-least-32-bytes"));
+
+    enum Stack { SERVLET, REACTIVE }
 
     @Mock
     private PersonService personService;
 
-    @BeforeEach
-    void setup() {
-        client = MockMvcWebTestClient.bindToController(new PersonController(personService)).build();
+    @Mock
+    private ReactivePersonService reactivePersonService;
+
+    @Mock
+    private ReactivePersonBulkService personBulkService;
+
+    private WebTestClient client(Stack stack) {
+        return switch (stack) {
+            case SERVLET -> MockMvcWebTestClient.bindToController(new PersonController(personService, TOKENS))
+                    .controllerAdvice(new GlobalExceptionHandler())
+                    .build();
+            case REACTIVE -> reactiveClient(new BlockingReactivePersonService(personService));
+        };
     }
 
-    @Test
-    void getAllPersons_ShouldReturnListOfPersons() {
+    private WebTestClient reactiveClient(ReactivePersonService service) {
+        return WebTestClient.bindToController(new ReactivePersonController(service, personBulkService))
+                .controllerAdvice(new GlobalExceptionHandler())
+                .build();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getAllPersons_ShouldReturnListOfPersons(Stack stack) {
         // Given
-        List<PersonDto> persons = Arrays.asList(
-                new PersonDto("1", "John Doe", 30),
-                new PersonDto("2", "Jane Smith", 25)
-        );
-        when(personService.getAllPersons()).thenReturn(persons);
+        List<PersonDto> persons = List.of(new PersonDto("1", "John Doe", 30), new PersonDto("2", "Jane Smith", 25));
+        when(personService.getPersonsAfter(null, null)).thenReturn(new PersonPage(persons, null));
 
-        // When
-        List<PersonDto> result = client.get()
+        // When & Then
+        client(stack).get()
                 .uri("/api/persons")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().doesNotExist(PersonController.NEXT_CURSOR_HEADER)
                 .expectBody(new ParameterizedTypeReference<List<PersonDto>>() {})
-                .returnResult()
-                .getResponseBody();
+                .isEqualTo(persons);
+    }
 
-        // Then
-        assertNotNull(result);
-        assertEquals(2, result.size());
-        assertEquals("1", result.get(0).id());
-        assertEquals("John Doe", result.get(0).name());
-        assertEquals(30, result.get(0).age());
-        assertEquals("2", result.get(1).id());
-        assertEquals("Jane Smith", result.get(1).name());
-        assertEquals(25, result.get(1).age());
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getAllPersons_WhenMorePagesExist_ShouldReturnNextCursor(Stack stack) {
+        // Given
+        List<PersonDto> persons = List.of(new PersonDto("2", "Jane Smith", 25));
+        when(personService.getPersonsAfter("1", 1)).thenReturn(new PersonPage(persons, "2"));
+
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons?after=1&limit=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PersonController.NEXT_CURSOR_HEADER, "2")
+                .expectHeader().valueMatches("Link", "<.*/api/persons\\?limit=1&after=2>; rel=\"next\"")
+                .expectBody(new ParameterizedTypeReference<List<PersonDto>>() {})
+                .isEqualTo(persons);
     }
 
-    @Test
-    void getPersonById_ShouldReturnPerson() {
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getAllPersons_WithPage_ShouldUseOffsetPaging(Stack stack) {
         // Given
-        PersonDto person = new PersonDto("1", "John Doe", 30);
+        List<PersonDto> persons = List.of(new PersonDto("3", "Jim Beam", 40));
+        when(personService.getPersonsPage(2, 10)).thenReturn(persons);
+
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons?page=2&limit=10")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(PersonController.NEXT_CURSOR_HEADER)
+                .expectBody(new ParameterizedTypeReference<List<PersonDto>>() {})
+                .isEqualTo(persons);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getAllPersons_WithUnknownField_ShouldReturnBadRequest(Stack stack) {
+        // Given
+        when(personService.getPersonsAfter(null, null, "id,_class"))
+                .thenThrow(new InvalidRequestException("Unknown field '_class'"));
+
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons?fields=id,_class")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getAllPersons_WithNonNumericLimit_ShouldReturnBadRequest(Stack stack) {
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons?limit=abc")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(personService);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getPersonById_ShouldReturnPersonWithETag(Stack stack) {
+        // Given
+        PersonDto person = new PersonDto("1", "John Doe", 30, 2L);
         when(personService.getPersonByIdOrThrow("1")).thenReturn(person);
 
-        // When
-        PersonDto result = client.get()
+        // When & Then
+        client(stack).get()
                 .uri("/api/persons/1")
                 .exchange()
                 .expectStatus().isOk()
-                .expectBody(PersonDto.class)
-                .returnResult()
-                .getResponseBody();
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody(PersonDto.class).isEqualTo(person);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getPersonById_WhenMissing_ShouldReturnNotFound(Stack stack) {
+        // Given
+        when(personService.getPersonByIdOrThrow("1")).thenThrow(new PersonNotFoundException("1"));
 
-        // Then
-        assertNotNull(result);
-        assertEquals("1", result.id());
-        assertEquals("John Doe", result.name());
-        assertEquals(30, result.age());
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons/1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.title").isEqualTo("Not Found");
     }
 
-    @Test
-    void createPerson_ShouldReturnCreatedPerson() {
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getPersonById_WithFields_ShouldReturnOnlyRequestedFields(Stack stack) {
+        // Given
+        when(personService.getPersonByIdOrThrow("1", "id,name")).thenReturn(Map.of("id", "1", "name", "John Doe"));
+
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons/1?fields=id,name")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("John Doe")
+                .jsonPath("$.age").doesNotExist();
+        verify(personService, never()).getPersonByIdOrThrow("1");
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getPersonById_WhenETagMatches_ShouldReturnNotModified(Stack stack) {
+        // Given
+        when(personService.getVersionOrThrow("1")).thenReturn(2L);
+
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons/1")
+                .header(HttpHeaders.IF_NONE_MATCH, "W/\"2\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"2\"")
+                .expectBody().isEmpty();
+        verify(personService, never()).getPersonByIdOrThrow("1");
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void getStats_ShouldReturnInMemoryStatistics(Stack stack) {
+        // Given
+        PersonStats stats = new PersonStats(3, 25, 40, 31.67, List.of(new PersonStats.AgeBucket(20, 29, 1),
+                new PersonStats.AgeBucket(30, 39, 1), new PersonStats.AgeBucket(40, 49, 1)), Instant.parse("2025-01-01T00:00:00Z"));
+        when(personService.getStats()).thenReturn(stats);
+
+        // When & Then
+        client(stack).get()
+                .uri("/api/persons/stats")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PersonStats.class).isEqualTo(stats);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void createPerson_ShouldReturnCreatedPerson(Stack stack) {
         // Given
-        PersonDto inputDto = new PersonDto(null, "John Doe", 30);
         PersonDto createdDto = new PersonDto("1", "John Doe", 30);
         when(personService.createPerson(any(PersonDto.class))).thenReturn(createdDto);
 
-        // When
-        PersonDto result = client.post()
+        // When & Then
+        client(stack).post()
                 .uri("/api/persons")
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(inputDto)
+                .bodyValue(new PersonDto(null, "John Doe", 30))
                 .exchange()
                 .expectStatus().isCreated()
-                .expectBody(PersonDto.class)
-                .returnResult()
-                .getResponseBody();
+                .expectBody(PersonDto.class).isEqualTo(createdDto);
+    }
 
-        // Then
-        assertNotNull(result);
-        assertEquals("1", result.id());
-        assertEquals("John Doe", result.name());
-        assertEquals(30, result.age());
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void createPerson_WithMalformedJson_ShouldReturnBadRequest(Stack stack) {
+        // When & Then
+        client(stack).post()
+                .uri("/api/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(personService);
     }
 
-    @Test
-    void updatePerson_ShouldReturnUpdatedPerson() {
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void updatePerson_ShouldReturnUpdatedPerson(Stack stack) {
         // Given
-        PersonDto inputDto = new PersonDto(null, "John Updated", 31);
-        PersonDto updatedDto = new PersonDto("1", "John Updated", 31);
+        PersonDto updatedDto = new PersonDto("1", "John Updated", 31, 3L);
         when(personService.updatePerson(eq("1"), any(PersonDto.class))).thenReturn(updatedDto);
 
-        // When
-        PersonDto result = client.put()
+        // When & Then
+        client(stack).put()
                 .uri("/api/persons/1")
                 .contentType(MediaType.APPLICATION_JSON)
-                .bodyValue(inputDto)
+                .bodyValue(new PersonDto(null, "John Updated", 31))
                 .exchange()
                 .expectStatus().isOk()
-                .expectBody(PersonDto.class)
-                .returnResult()
-                .getResponseBody();
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody(PersonDto.class).isEqualTo(updatedDto);
+    }
 
-        // Then
-        assertNotNull(result);
-        assertEquals("1", result.id());
-        assertEquals("John Updated", result.name());
-        assertEquals(31, result.age());
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void updatePerson_WithStaleIfMatch_ShouldReturnPreconditionFailed(Stack stack) {
+        // Given
+        when(personService.updatePerson(eq("1"), any(PersonDto.class), eq(1L)))
+                .thenThrow(new PreconditionFailedException("1"));
+
+        // When & Then
+        client(stack).put()
+                .uri("/api/persons/1")
+                .header(HttpHeaders.IF_MATCH, "\"1\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(null, "John Updated", 31))
+                .exchange()
+                .expectStatus().isEqualTo(412);
     }
 
-    @Test
-    void deletePerson_ShouldReturnNoContent() {
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void updatePerson_WithIfMatchList_ShouldUpdateWhenAnyVersionMatches(Stack stack) {
+        // Given
+        PersonDto updatedDto = new PersonDto("1", "John Updated", 31, 3L);
+        when(personService.updatePerson(eq("1"), any(PersonDto.class), eq(1L)))
+                .thenThrow(new PreconditionFailedException("1"));
+        when(personService.updatePerson(eq("1"), any(PersonDto.class), eq(2L))).thenReturn(updatedDto);
+
+        // When & Then
+        client(stack).put()
+                .uri("/api/persons/1")
+                .header(HttpHeaders.IF_MATCH, "\"1\", \"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(null, "John Updated", 31))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"")
+                .expectBody(PersonDto.class).isEqualTo(updatedDto);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void updatePerson_WithIfMatchAny_ShouldUpdateWithoutVersionCheck(Stack stack) {
+        // Given
+        PersonDto updatedDto = new PersonDto("1", "John Updated", 31, 3L);
+        when(personService.updatePerson(eq("1"), any(PersonDto.class))).thenReturn(updatedDto);
+
+        // When & Then
+        client(stack).put()
+                .uri("/api/persons/1")
+                .header(HttpHeaders.IF_MATCH, "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(null, "John Updated", 31))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(PersonDto.class).isEqualTo(updatedDto);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void updatePerson_WithIfMatchAnyOnMissingPerson_ShouldReturnPreconditionFailed(Stack stack) {
+        // Given
+        when(personService.updatePerson(eq("999"), any(PersonDto.class))).thenThrow(new PersonNotFoundException("999"));
+
+        // When & Then
+        client(stack).put()
+                .uri("/api/persons/999")
+                .header(HttpHeaders.IF_MATCH, "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new PersonDto(null, "John Updated", 31))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Stack.class)
+    void deletePerson_ShouldReturnNoContent(Stack stack) {
         // Given
         doNothing().when(personService).deletePerson("1");
 
         // When & Then
-        client.delete()
+        client(stack).delete()
                 .uri("/api/persons/1")
                 .exchange()
                 .expectStatus().isNoContent();
+        verify(personService).deletePerson("1");
+    }
+
+    // Jetons de cohérence : pile servlet seulement
+    @Test
+    void getPersonById_WithMalformedConsistencyToken_ShouldReturnBadRequest() {
+        // When & Then
+        client(Stack.SERVLET).get()
+                .uri("/api/persons/1")
+                .header(ConsistencyTokens.HEADER, "not-a-token")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verify(personService, never()).getPersonByIdOrThrow("1");
+    }
+
+    // Diffusion NDJSON : pile réactive seulement
+    @Test
+    void getAllPersons_AsNdjson_ShouldStreamPersons() {
+        // Given
+        List<PersonDto> persons = List.of(new PersonDto("1", "John Doe", 30), new PersonDto("2", "Jane Smith", 25));
+        when(reactivePersonService.streamPersonsAfter(isNull())).thenReturn(Flux.fromIterable(persons));
+
+        // When & Then
+        reactiveClient(reactivePersonService).get()
+                .uri("/api/persons")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(PersonDto.class)
+                .isEqualTo(persons);
+    }
+
+    @Test
+    void exportPersons_OnReactiveStack_ShouldStreamNdjson() {
+        // Given
+        List<PersonDto> persons = List.of(new PersonDto("1", "John Doe", 30), new PersonDto("2", "Jane Smith", 25));
+        when(reactivePersonService.streamPersonsAfter(isNull())).thenReturn(Flux.fromIterable(persons));
+
+        // When & Then
+        reactiveClient(reactivePersonService).get()
+                .uri("/api/persons/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBodyList(PersonDto.class)
+                .isEqualTo(persons);
+    }
+
+    @Test
+    void bulkPersons_OnReactiveStack_WithMalformedBody_ShouldReturnBadRequestWithProgress() {
+        // Given
+        BulkResponse response = new BulkResponse(1, 0,
+                List.of(new BulkItemResult(0, "1", BulkItemResult.Status.OK, null)), "Malformed bulk body after item 1");
+        when(personBulkService.importPersons(any(), eq(true))).thenReturn(Mono.just(response));
+
+        // When & Then
+        reactiveClient(reactivePersonService).post()
+                .uri("/api/persons/_bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"John Doe\",\"age\":30}\n{\"name\":")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody(BulkResponse.class).isEqualTo(response);
+    }
+
+    /**
+     * ReactivePersonService adossé au PersonService simulé : valeur nulle, Mono vide ;
+     * exception, Mono en erreur. Les mêmes stubs servent ainsi aux deux piles.
+     */
+    private static final class BlockingReactivePersonService extends ReactivePersonService {
+
+        private final PersonService personService;
+
+        BlockingReactivePersonService(PersonService personService) {
+            super(null, null, null, null);
+            this.personService = personService;
+        }
+
+        @Override
+        public Mono<PersonPage> getPersonsAfter(String after, Integer limit) {
+            return Mono.fromCallable(() -> personService.getPersonsAfter(after, limit));
+        }
+
+        @Override
+        public Flux<PersonDto> streamPersonsAfter(String after) {
+            return Flux.error(new UnsupportedOperationException("NDJSON streaming is reactive only"));
+        }
+
+        @Override
+        public Mono<List<PersonDto>> getPersonsPage(int page, Integer limit) {
+            return Mono.fromCallable(() -> personService.getPersonsPage(page, limit));
+        }
+
+        @Override
+        public Mono<PersonProjectionPage> getPersonsAfter(String after, Integer limit, String fields) {
+            return Mono.fromCallable(() -> personService.getPersonsAfter(after, limit, fields));
+        }
+
+        @Override
+        public Mono<List<Map<String, Object>>> getPersonsPage(int page, Integer limit, String fields) {
+            return Mono.fromCallable(() -> personService.getPersonsPage(page, limit, fields));
+        }
+
+        @Override
+        public Mono<Map<String, Object>> getPersonByIdOrThrow(String id, String fields) {
+            return Mono.fromCallable(() -> personService.getPersonByIdOrThrow(id, fields));
+        }
+
+        @Override
+        public Mono<PersonPage> searchPersons(PersonSearch search, String after, Integer limit) {
+            return Mono.fromCallable(() -> personService.searchPersons(search, after, limit));
+        }
+
+        @Override
+        public Mono<PersonDto> getPersonByIdOrThrow(String id) {
+            return Mono.fromCallable(() -> personService.getPersonByIdOrThrow(id));
+        }
+
+        @Override
+        public Mono<Long> getVersionOrThrow(String id) {
+            return Mono.fromCallable(() -> personService.getVersionOrThrow(id));
+        }
+
+        @Override
+        public Mono<PersonStats> getStats() {
+            return Mono.fromCallable(personService::getStats);
+        }
+
+        @Override
+        public Mono<PersonDto> createPerson(PersonDto dto) {
+            return Mono.fromCallable(() -> personService.createPerson(dto));
+        }
+
+        @Override
+        public Mono<PersonDto> updatePerson(String id, PersonDto dto, Long expectedVersion) {
+            // Même choix de surcharge que PersonController
+            return Mono.fromCallable(() -> expectedVersion == null
+                    ? personService.updatePerson(id, dto)
+                    : personService.updatePerson(id, dto, expectedVersion));
+        }
+
+        @Override
+        public Mono<Void> deletePerson(String id) {
+            return Mono.fromRunnable(() -> personService.deletePerson(id));
+        }
     }
 }
@@ -0,0 +1,16 @@
+package com.example.demo.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Mêmes scénarios que PersonApiIntegrationTest, servis par la pile WebFlux et le
+ * dépôt Mongo réactif du profil reactive.
+ */
+@ActiveProfiles("reactive")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"persons.indexes.reconcile-on-startup=false", "persons.cache.coherence.enabled=false"})
+@Testcontainers(disabledWithoutDocker = true)
+class ReactivePersonApiIntegrationTest extends PersonApiIntegrationTest {
+}
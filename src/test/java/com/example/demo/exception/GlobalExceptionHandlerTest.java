@@ -0,0 +1,142 @@
+package com.example.demo.exception;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler =
+            new GlobalExceptionHandler(Clock.fixed(Instant.parse("2026-01-15T10:00:00.250Z"), ZoneOffset.UTC));
+
+    @Test
+    void handleNotFound_ShouldReturn404WithoutStackTrace() {
+        // Given
+        PersonNotFoundException ex = new PersonNotFoundException("42");
+
+        // When
+        ProblemDetail problem = handler.handleNotFound(ex);
+
+        // Then
+        assertThat(ex.getStackTrace()).isEmpty();
+        assertThat(problem.getStatus()).isEqualTo(404);
+        assertThat(problem.getTitle()).isEqualTo("Not Found");
+        assertThat(problem.getDetail()).isEqualTo("Person not found with id: 42");
+        assertThat(problem.getProperties()).containsEntry("timestamp", "2026-01-15T10:00:00Z");
+    }
+
+    @Test
+    void handleDuplicateKey_ShouldReturn409WithoutMongoMessage() {
+        // Given
+        DuplicateKeyException ex = new DuplicateKeyException("E11000 duplicate key error dup key: { _id: \"42\" }");
+
+        // When
+        ProblemDetail problem = handler.handleDuplicateKey(ex);
+
+        // Then
+        assertThat(problem.getStatus()).isEqualTo(409);
+        assertThat(problem.getTitle()).isEqualTo("Conflict");
+        assertThat(problem.getDetail()).isEqualTo("Person already exists");
+    }
+
+    @Test
+    void handleNotReadable_ShouldReturn400WithoutParserMessage() {
+        // Given
+        HttpMessageNotReadableException ex = new HttpMessageNotReadableException(
+                "JSON parse error: Unexpected end-of-input: {\"name\":", new MockHttpInputMessage(new byte[0]));
+
+        // When
+        ProblemDetail problem = handler.handleNotReadable(ex);
+
+        // Then
+        assertThat(problem.getStatus()).isEqualTo(400);
+        assertThat(problem.getTitle()).isEqualTo("Bad Request");
+        assertThat(problem.getDetail()).isEqualTo("Malformed request body");
+    }
+
+    @Test
+    void handleTypeMismatch_ShouldReturn400NamingTheParameter() throws NoSuchMethodException {
+        // Given
+        MethodParameter parameter = new MethodParameter(String.class.getMethod("charAt", int.class), 0);
+        MethodArgumentTypeMismatchException ex = new MethodArgumentTypeMismatchException(
+                "abc", Integer.class, "limit", parameter, new NumberFormatException("For input string: \"abc\""));
+
+        // When
+        ProblemDetail problem = handler.handleTypeMismatch(ex);
+
+        // Then
+        assertThat(problem.getStatus()).isEqualTo(400);
+        assertThat(problem.getDetail()).isEqualTo("Invalid value for parameter 'limit'");
+    }
+
+    @Test
+    void handleFrameworkException_ShouldKeepFrameworkStatus() {
+        // When
+        ResponseEntity<ProblemDetail> response =
+                handler.handleFrameworkException(new NoResourceFoundException(HttpMethod.GET, "/wp-admin", "wp-admin"));
+
+        // Then
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody().getStatus()).isEqualTo(404);
+    }
+
+    @Test
+    void rateLimitedLogger_ShouldLogAtMostMaxPerWindowThenReportSuppressed() {
+        // Given
+        Logger log = mock(Logger.class);
+        AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2026-01-15T10:00:00Z"));
+        Clock clock = new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+        RateLimitedLogger logger = new RateLimitedLogger(log, clock, Duration.ofMinutes(1), 2);
+        RuntimeException ex = new IllegalStateException("boom");
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            logger.error("Unexpected error", ex);
+        }
+        now.set(now.get().plusSeconds(61));
+        logger.error("Unexpected error", ex);
+
+        // Then
+        verify(log, times(3)).error("Unexpected error", ex);
+        verify(log).error(anyString(), eq(3), any(Long.class));
+    }
+}
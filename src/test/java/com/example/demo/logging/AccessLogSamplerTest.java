@@ -0,0 +1,68 @@
+package com.example.demo.logging;
+
+import com.example.demo.config.AccessLogProperties;
+import com.example.demo.logging.AccessLogSampler.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogSamplerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(800);
+
+    @Test
+    void decide_WhenDrawAboveRate_ShouldSkipOrdinaryRequest() {
+        // Given
+        AccessLogSampler sampler = new AccessLogSampler(properties(0.01, Duration.ofMillis(500), true), () -> 0.5);
+
+        // When & Then
+        assertThat(sampler.decide(200, FAST)).isEqualTo(Decision.SKIPPED);
+        assertThat(sampler.decide(404, FAST)).isEqualTo(Decision.SKIPPED);
+    }
+
+    @Test
+    void decide_WhenDrawBelowRate_ShouldSampleOrdinaryRequest() {
+        // Given
+        AccessLogSampler sampler = new AccessLogSampler(properties(0.01, Duration.ofMillis(500), true), () -> 0.005);
+
+        // When & Then
+        assertThat(sampler.decide(200, FAST)).isEqualTo(Decision.SAMPLED);
+    }
+
+    @Test
+    void decide_ShouldAlwaysLogServerErrorsAndSlowRequests() {
+        // Given
+        AccessLogSampler sampler = new AccessLogSampler(properties(0, Duration.ofMillis(500), true), () -> 0.0);
+
+        // When & Then
+        assertThat(sampler.decide(500, FAST)).isEqualTo(Decision.ERROR);
+        assertThat(sampler.decide(200, SLOW)).isEqualTo(Decision.SLOW);
+        assertThat(sampler.decide(200, FAST)).isEqualTo(Decision.SKIPPED);
+    }
+
+    @Test
+    void decide_WithLoadShedding_ShouldSampleRejections() {
+        // Given
+        AccessLogSampler sampler = new AccessLogSampler(properties(0.01, Duration.ofMillis(500), true), () -> 0.5);
+
+        // When & Then : pas de WARN par rejet quand la file de l'appender est déjà sous pression
+        assertThat(sampler.decide(503, FAST)).isEqualTo(Decision.SKIPPED);
+    }
+
+    @Test
+    void decide_WhenOverridesDisabled_ShouldOnlySample() {
+        // Given
+        AccessLogSampler sampler = new AccessLogSampler(properties(0.01, Duration.ZERO, false), () -> 0.5);
+
+        // When & Then
+        assertThat(sampler.decide(500, SLOW)).isEqualTo(Decision.SKIPPED);
+    }
+
+    private static AccessLogProperties properties(double sampleRate, Duration slowThreshold, boolean alwaysLogErrors) {
+        return new AccessLogProperties(true, sampleRate, slowThreshold, alwaysLogErrors);
+    }
+}
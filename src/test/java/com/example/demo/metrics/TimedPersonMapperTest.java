@@ -0,0 +1,40 @@
+package com.example.demo.metrics;
+
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TimedPersonMapperTest {
+
+    @Mock
+    private PersonMapper delegate;
+
+    @Test
+    void toDtoList_ShouldDelegateAndRecordOneTimingPerCall() {
+        // Given
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TimedPersonMapper mapper = new TimedPersonMapper(delegate, registry);
+        List<Person> persons = List.of(new Person("1", "John Doe", 30));
+        List<PersonDto> dtos = List.of(new PersonDto("1", "John Doe", 30));
+        when(delegate.toDtoList(persons)).thenReturn(dtos);
+
+        // When
+        List<PersonDto> result = mapper.toDtoList(persons);
+
+        // Then
+        assertThat(result).isSameAs(dtos);
+        assertThat(registry.get("persons.mapper").tag("method", "toDtoList").timer().count()).isEqualTo(1);
+        assertThat(registry.get("persons.mapper").tag("method", "toDto").timer().count()).isZero();
+    }
+}
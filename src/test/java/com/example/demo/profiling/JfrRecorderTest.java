@@ -0,0 +1,90 @@
+package com.example.demo.profiling;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JfrRecorderTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    private JfrRecorder recorder;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.destroy();
+        }
+    }
+
+    @Test
+    void shouldRecordApplicationEventsAndSummarizeSlowestCalls() throws Exception {
+        // Given
+        recorder = new JfrRecorder(properties(Duration.ZERO));
+        assertThat(recorder.start()).isTrue();
+        assertThat(recorder.start()).isFalse();
+
+        // When
+        commitServiceEvent("getPersonById", 20);
+        commitServiceEvent("getAllPersons", 5);
+        JfrSummary summary = recorder.summarize(Duration.ofMinutes(1));
+
+        // Then
+        assertThat(summary.slowestServiceCalls())
+                .extracting(JfrSummary.SlowCall::name)
+                .containsExactly("getPersonById", "getAllPersons");
+    }
+
+    @Test
+    void shouldDumpRecordingToDumpDirectory() throws Exception {
+        // Given
+        recorder = new JfrRecorder(properties(Duration.ZERO));
+        recorder.start();
+        commitServiceEvent("deletePerson", 1);
+
+        // When
+        Path file = recorder.dump(Duration.ofMinutes(1));
+
+        // Then
+        assertThat(file).startsWith(dumpDirectory).exists();
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).anyMatch(event -> event.getEventType().getName().equals("com.example.demo.PersonService"));
+        assertThat(dumpDirectory.toFile().list()).hasSize(1);
+    }
+
+    @Test
+    void shouldRefuseToDumpWhenNotRunning() {
+        // Given
+        recorder = new JfrRecorder(properties(Duration.ZERO));
+
+        // When / Then
+        assertThatThrownBy(() -> recorder.dump(Duration.ofMinutes(1)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(recorder.stop()).isFalse();
+    }
+
+    private JfrProperties properties(Duration threshold) {
+        return new JfrProperties(true, false, Duration.ofMinutes(5), DataSize.ofMegabytes(16), threshold, dumpDirectory);
+    }
+
+    private static void commitServiceEvent(String method, long millis) throws InterruptedException {
+        PersonServiceEvent event = new PersonServiceEvent();
+        event.begin();
+        Thread.sleep(millis);
+        event.end();
+        event.method = method;
+        event.outcome = "success";
+        event.commit();
+    }
+}
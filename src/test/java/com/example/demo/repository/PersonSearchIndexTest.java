@@ -0,0 +1,111 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Person;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.mongodb.MongoDBContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Vérifie par explain() que chaque forme de requête de recherche est servie par un
+ * index déclaré : un COLLSCAN ou un tri en mémoire signale une régression.
+ */
+@SpringBootTest(properties = "persons.indexes.reconcile-on-startup=false")
+@Testcontainers(disabledWithoutDocker = true)
+class PersonSearchIndexTest {
+
+    @Container
+    @ServiceConnection
+    static MongoDBContainer mongo = new MongoDBContainer("mongo:7");
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private PersonIndexReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        mongoTemplate.dropCollection(Person.class);
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            persons.add(new Person("Person " + i, i % 90));
+        }
+        mongoTemplate.insertAll(persons);
+        reconciler = new PersonIndexReconciler(mongoTemplate);
+    }
+
+    @Test
+    void reconcile_ShouldCreateDeclaredIndexesAndReportDrift() {
+        // When
+        PersonIndexReconciler.Report first = reconciler.reconcile();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Person.class))
+                .createIndex(new Document("age", -1), new IndexOptions().name("age_desc"));
+        PersonIndexReconciler.Report second = reconciler.reconcile();
+
+        // Then
+        assertThat(first.created()).containsExactlyInAnyOrder("name_id_age", "age_id");
+        assertThat(second.created()).isEmpty();
+        assertThat(second.undeclared()).containsExactly("age_desc");
+    }
+
+    @Test
+    void searchQueries_ShouldUseIndexes() {
+        // Given
+        reconciler.reconcile();
+        Person after = mongoTemplate.findAll(Person.class).get(10);
+
+        // When & Then
+        assertIndexScan(new PersonSearch("Person 1", null, null), null, "name_id_age");
+        assertIndexScan(new PersonSearch("Person 1", null, null), after, "name_id_age");
+        assertIndexScan(new PersonSearch("Person", 20, 40), after, "name_id_age");
+        assertIndexScan(new PersonSearch(null, 20, 40), null, "age_id");
+        assertIndexScan(new PersonSearch(null, 20, null), after, "age_id");
+        assertIndexScan(new PersonSearch(null, null, null), after, "_id_");
+    }
+
+    private void assertIndexScan(PersonSearch search, Person after, String indexName) {
+        Query query = PersonRepositoryCustomImpl.searchQuery(search, after, 101);
+        MongoPersistentEntity<?> entity = mongoTemplate.getConverter().getMappingContext().getRequiredPersistentEntity(Person.class);
+        QueryMapper mapper = new QueryMapper(mongoTemplate.getConverter());
+        Document find = new Document("find", mongoTemplate.getCollectionName(Person.class))
+                .append("filter", mapper.getMappedObject(query.getQueryObject(), entity))
+                .append("sort", mapper.getMappedSort(query.getSortObject(), entity))
+                .append("limit", query.getLimit());
+        Document explain = mongoTemplate.executeCommand(new Document("explain", find).append("verbosity", "queryPlanner"));
+
+        List<String> stages = new ArrayList<>();
+        List<String> indexes = new ArrayList<>();
+        collectStages(explain.get("queryPlanner", Document.class).get("winningPlan"), stages, indexes);
+        assertThat(stages).as("plan of %s", search).doesNotContain("COLLSCAN", "SORT").contains("IXSCAN");
+        assertThat(indexes).as("plan of %s", search).contains(indexName);
+    }
+
+    private static void collectStages(Object node, List<String> stages, List<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String index) {
+                indexes.add(index);
+            }
+            document.values().forEach(value -> collectStages(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectStages(value, stages, indexes));
+        }
+    }
+}
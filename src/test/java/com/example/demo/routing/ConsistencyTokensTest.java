@@ -0,0 +1,114 @@
+package com.example.demo.routing;
+
+import com.example.demo.config.ReadRoutingProperties;
+import com.example.demo.exception.InvalidRequestException;
+import org.bson.BsonBinary;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonTimestamp;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConsistencyTokensTest {
+
+    private static BsonDocument reply(int seconds) {
+        BsonDocument signature = new BsonDocument("hash", new BsonBinary(new byte[20])).append("keyId", new BsonInt64(0));
+        BsonDocument clusterTime = new BsonDocument("clusterTime", new BsonTimestamp(seconds, 2)).append("signature", signature);
+        return new BsonDocument("ok", new BsonInt64(1))
+                .append("operationTime", new BsonTimestamp(seconds, 1))
+                .append("$clusterTime", clusterTime);
+    }
+
+    @Test
+    void capture_ShouldKeepLatestOperationTimeOfTheWrites() {
+        // When
+        ConsistencyTokens.Written<String> written = ConsistencyTokens.capture(() -> {
+            ConsistencyTokens.observe(reply(200));
+            ConsistencyTokens.observe(reply(100));
+            return "saved";
+        });
+
+        // Then
+        assertThat(written.value()).isEqualTo("saved");
+        assertThat(written.token().operationTime()).isEqualTo(new BsonTimestamp(200, 1));
+    }
+
+    @Test
+    void capture_WithoutReplicaSetTimes_ShouldNotIssueToken() {
+        // When
+        ConsistencyToken token = ConsistencyTokens.tokenOf(() -> ConsistencyTokens.observe(new BsonDocument("ok", new BsonInt64(1))));
+
+        // Then
+        assertThat(token).isNull();
+    }
+
+    @Test
+    void encode_ShouldRoundTripThroughReadAfter() {
+        // Given
+        ConsistencyTokenCodec codec = codec("a-test-secret-of-at-least-32-bytes");
+        ConsistencyToken token = token(1_700_000_000);
+
+        // When
+        ConsistencyToken read = ConsistencyTokens.readAfter(codec.decode(codec.encode(token)), ConsistencyTokens::readingAfter);
+
+        // Then
+        assertThat(read).isEqualTo(token);
+        assertThat(ConsistencyTokens.isReadingAfterWrite()).isFalse();
+        assertThat(ConsistencyTokens.readAfter(codec.decode(null), ConsistencyTokens::isReadingAfterWrite)).isFalse();
+    }
+
+    @Test
+    void decode_WithForeignValue_ShouldRejectRequest() {
+        // Given
+        ConsistencyTokenCodec codec = codec("a-test-secret-of-at-least-32-bytes");
+        String encoded = codec.encode(token(1_700_000_000));
+        String unsigned = encoded.substring(0, encoded.indexOf('.'));
+        String otherKey = codec("another-secret-of-at-least-32-bytes").encode(token(1_700_000_000));
+        String wrongDocument = Base64.getUrlEncoder().encodeToString(new byte[] {5, 0, 0, 0, 0}) + encoded.substring(encoded.indexOf('.'));
+
+        // When & Then
+        assertThatThrownBy(() -> codec.decode("not-a-token")).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> codec.decode(unsigned)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> codec.decode(otherKey)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> codec.decode(wrongDocument)).isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> codec.decode("A".repeat(1024))).isInstanceOf(InvalidRequestException.class);
+    }
+
+    @Test
+    void codec_WhenTokensDisabled_ShouldIgnoreHeader() {
+        // Given
+        ConsistencyTokenCodec codec = ConsistencyTokenCodec.disabled();
+
+        // When & Then
+        assertThat(codec.encode(token(1_700_000_000))).isNull();
+        assertThat(codec.decode("not-a-token")).isNull();
+    }
+
+    @Test
+    void codec_WithShortSecret_ShouldFailFast() {
+        // When & Then
+        assertThatThrownBy(() -> codec("too-short")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void codec_WithoutSecret_ShouldFailFast() {
+        // When & Then
+        assertThatThrownBy(() -> codec("")).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("PERSONS_TOKEN_SECRET");
+    }
+
+    private static ConsistencyToken token(int seconds) {
+        BsonDocument reply = reply(seconds);
+        return new ConsistencyToken(reply.getTimestamp("operationTime"), reply.getDocument("$clusterTime"));
+    }
+
+    private static ConsistencyTokenCodec codec(String secret) {
+        return ConsistencyTokenCodec.of(new ReadRoutingProperties(true, "primary", "secondaryPreferred",
+                "secondaryPreferred", "secondaryPreferred", "secondaryPreferred", Duration.ofSeconds(90), true, secret));
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.demo.routing;
+
+import com.example.demo.config.ReadRoutingProperties;
+import com.mongodb.ReadPreference;
+import com.mongodb.TaggableReadPreference;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReadPreferencesTest {
+
+    private static ReadRoutingProperties properties(String get, Duration maxStaleness) {
+        return new ReadRoutingProperties(true, get, "secondaryPreferred", "secondary", "nearest", "secondaryPreferred",
+                maxStaleness, true, null);
+    }
+
+    @Test
+    void of_ShouldApplyMaxStalenessToSecondaryModesOnly() {
+        // When
+        ReadPreferences preferences = new ReadPreferences(properties("primary", Duration.ofSeconds(120)));
+
+        // Then
+        assertThat(preferences.of(PersonRead.GET)).isEqualTo(ReadPreference.primary());
+        assertThat(preferences.of(PersonRead.LIST)).isEqualTo(ReadPreference.secondaryPreferred(120, TimeUnit.SECONDS));
+        assertThat(preferences.of(PersonRead.SEARCH)).isEqualTo(ReadPreference.secondary(120, TimeUnit.SECONDS));
+        assertThat(((TaggableReadPreference) preferences.of(PersonRead.EXPORT)).getMaxStaleness(TimeUnit.SECONDS))
+                .isEqualTo(120);
+    }
+
+    @Test
+    void of_WithZeroMaxStaleness_ShouldNotBoundSecondaries() {
+        // When
+        ReadPreferences preferences = new ReadPreferences(properties("secondaryPreferred", Duration.ZERO));
+
+        // Then
+        assertThat(preferences.of(PersonRead.GET)).isEqualTo(ReadPreference.secondaryPreferred());
+    }
+
+    @Test
+    void constructor_WithInvalidConfiguration_ShouldFailFast() {
+        // When & Then
+        assertThatThrownBy(() -> new ReadPreferences(properties("primary", Duration.ofSeconds(30))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("max-staleness");
+        assertThatThrownBy(() -> new ReadPreferences(properties("secondaryOnly", Duration.ZERO)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.demo.service;
+
+import com.example.demo.cache.NoOpPersonCache;
+import com.example.demo.config.BulkProperties;
+import com.example.demo.dto.BulkItemResult;
+import com.example.demo.dto.BulkItemResult.Status;
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonBulkWriteResult;
+import com.example.demo.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonBulkServiceTest {
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private PersonMapper personMapper;
+
+    @Mock
+    private PersonStatistics statistics;
+
+    private PersonBulkService personBulkService;
+
+    @BeforeEach
+    void setUp() {
+        personBulkService = new PersonBulkService(personRepository, personMapper, JsonMapper.builder().build(),
+                new BulkProperties(2), new NoOpPersonCache(), statistics);
+        lenient().when(personMapper.toEntity(any(PersonDto.class)))
+                .thenAnswer(invocation -> {
+                    PersonDto dto = invocation.getArgument(0);
+                    return new Person(dto.id(), dto.name(), dto.age());
+                });
+    }
+
+    @Test
+    void importPersons_WithJsonArray_ShouldWriteInBatches() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(true))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of()));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body("""
+                [{"name":"John Doe","age":30},{"name":"Jane Smith","age":25},{"id":"42","name":"Jim Beam","age":40}]
+                """), true);
+
+        // Then
+        assertThat(response.succeeded()).isEqualTo(3);
+        assertThat(response.failed()).isZero();
+        assertThat(response.items()).extracting(BulkItemResult::index).containsExactly(0, 1, 2);
+        assertThat(response.items()).extracting(BulkItemResult::id)
+                .containsExactly("generated-John Doe", "generated-Jane Smith", "42");
+        assertThat(response.items()).extracting(BulkItemResult::status).containsOnly(Status.OK);
+        assertThat(response.error()).isNull();
+        verify(personRepository, times(2)).bulkWrite(any(), eq(true));
+        verify(statistics).recordCreated(30);
+        verify(statistics).recordCreated(25);
+        // Upsert de l'id 42, absent : création comptée
+        verify(statistics).recordCreated(40);
+    }
+
+    @Test
+    void importPersons_WithExistingClientId_ShouldNotCountIt() {
+        // Given : upsert d'un id existant, aucun document créé
+        when(personRepository.bulkWrite(any(), eq(true))).thenReturn(new PersonBulkWriteResult(List.of("42"), Map.of()));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body("""
+                [{"id":"42","name":"Jim Beam","age":40}]
+                """), true);
+
+        // Then
+        assertThat(response.succeeded()).isEqualTo(1);
+        verify(statistics, never()).recordCreated(anyInt());
+    }
+
+    @Test
+    void importPersons_WithNdjson_ShouldParseEachLine() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(false))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of()));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body("""
+                {"name":"John Doe","age":30}
+                {"name":"Jane Smith","age":25}
+                """), false);
+
+        // Then
+        assertThat(response.succeeded()).isEqualTo(2);
+        verify(personRepository).bulkWrite(List.of(new Person("John Doe", 30), new Person("Jane Smith", 25)), false);
+    }
+
+    @Test
+    void importPersons_Ordered_ShouldStopAtFirstError() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(true))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of(0, "E11000 duplicate key")));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body("""
+                [{"id":"1","name":"John Doe","age":30},{"name":"Jane Smith","age":25},{"name":"Jim Beam","age":40}]
+                """), true);
+
+        // Then
+        assertThat(response.succeeded()).isZero();
+        assertThat(response.failed()).isEqualTo(2);
+        assertThat(response.items()).extracting(BulkItemResult::status).containsExactly(Status.ERROR, Status.SKIPPED);
+        assertThat(response.items().get(0).error()).isEqualTo("E11000 duplicate key");
+        verify(personRepository, times(1)).bulkWrite(any(), anyBoolean());
+    }
+
+    @Test
+    void importPersons_Unordered_ShouldReportEachError() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(false))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of(0, "E11000 duplicate key")));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body("""
+                [{"id":"1","name":"John Doe","age":30},{"name":"Jane Smith","age":25}]
+                """), false);
+
+        // Then
+        assertThat(response.items()).extracting(BulkItemResult::status).containsExactly(Status.ERROR, Status.OK);
+        assertThat(response.items().get(1).id()).isEqualTo("generated-Jane Smith");
+        assertThat(response.succeeded()).isEqualTo(1);
+        verify(statistics).recordCreated(25);
+        verify(statistics, never()).recordCreated(30);
+    }
+
+    @Test
+    void importPersons_WithMalformedBody_ShouldReportError() {
+        // When
+        BulkResponse response = personBulkService.importPersons(body("[{\"name\":"), true);
+
+        // Then
+        assertThat(response.error()).isEqualTo("Malformed bulk body after item 0");
+        assertThat(response.succeeded()).isZero();
+        verify(personRepository, never()).bulkWrite(any(), anyBoolean());
+    }
+
+    @Test
+    void importPersons_WithMalformedItemAfterWrittenBatches_ShouldReportWhatWasWritten() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(true))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of()));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body("""
+                {"name":"John Doe","age":30}
+                {"name":"Jane Smith","age":25}
+                {"name":"Jim Beam","age":40}
+                {"name":
+                """), true);
+
+        // Then : le premier lot et l'élément complet suivant sont écrits
+        assertThat(response.succeeded()).isEqualTo(3);
+        assertThat(response.failed()).isZero();
+        assertThat(response.error()).isEqualTo("Malformed bulk body after item 3");
+        verify(personRepository).bulkWrite(List.of(new Person("Jim Beam", 40)), true);
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PersonBulkWriteResult written(List<Person> batch, Map<Integer, String> errors) {
+        List<String> ids = batch.stream()
+                .map(person -> person.id() != null ? person.id() : "generated-" + person.name())
+                .toList();
+        return new PersonBulkWriteResult(ids, errors, clientIdIndexes(batch, errors));
+    }
+
+    // Ids clients encore absents : chaque upsert crée son document
+    private static Set<Integer> clientIdIndexes(List<Person> batch, Map<Integer, String> errors) {
+        return IntStream.range(0, batch.size())
+                .filter(i -> batch.get(i).id() != null && !errors.containsKey(i))
+                .boxed()
+                .collect(Collectors.toSet());
+    }
+}
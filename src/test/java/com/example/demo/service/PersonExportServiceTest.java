@@ -0,0 +1,87 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonExportServiceTest {
+
+    @Mock
+    private PersonRepository personRepository;
+
+    @Mock
+    private PersonMapper personMapper;
+
+    private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+    private PersonExportService personExportService;
+
+    private final AtomicBoolean cursorClosed = new AtomicBoolean();
+
+    @BeforeEach
+    void setUp() {
+        personExportService = new PersonExportService(personRepository, personMapper, jsonMapper);
+    }
+
+    @Test
+    void export_ShouldWriteOneJsonDocumentPerLine() throws IOException {
+        // Given
+        Person john = new Person("1", "John Doe", 30);
+        Person jane = new Person("2", "Jane Smith", 25);
+        when(personRepository.streamAllBy()).thenReturn(Stream.of(john, jane).onClose(() -> cursorClosed.set(true)));
+        when(personMapper.toDto(john)).thenReturn(new PersonDto("1", "John Doe", 30));
+        when(personMapper.toDto(jane)).thenReturn(new PersonDto("2", "Jane Smith", 25));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When
+        long written = personExportService.export(out);
+
+        // Then
+        assertThat(written).isEqualTo(2);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(jsonMapper.readValue(lines[0], PersonDto.class)).isEqualTo(new PersonDto("1", "John Doe", 30));
+        assertThat(jsonMapper.readValue(lines[1], PersonDto.class)).isEqualTo(new PersonDto("2", "Jane Smith", 25));
+        assertThat(lines[2]).isEmpty();
+        assertThat(cursorClosed).isTrue();
+        verify(personRepository, never()).findAll();
+    }
+
+    @Test
+    void export_WhenClientDisconnects_ShouldCloseCursor() {
+        // Given
+        Person john = new Person("1", "John Doe", 30);
+        when(personRepository.streamAllBy()).thenReturn(Stream.of(john).onClose(() -> cursorClosed.set(true)));
+        when(personMapper.toDto(john)).thenReturn(new PersonDto("1", "John Doe", 30));
+        OutputStream brokenPipe = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When & Then
+        assertThatThrownBy(() -> personExportService.export(brokenPipe))
+                .isInstanceOf(IOException.class);
+        assertThat(cursorClosed).isTrue();
+    }
+}
@@ -1,24 +1,49 @@
 package com.example.demo.service;
 
+import com.example.demo.cache.CaffeinePersonCache;
+import com.example.demo.cache.PersonCacheProperties;
+import com.example.demo.config.PaginationProperties;
+import com.example.demo.config.PersonStatsProperties;
+import com.example.demo.config.WriteBehindProperties;
 import com.example.demo.dto.PersonDto;
+import com.example.demo.dto.PersonPage;
+import com.example.demo.dto.PersonProjectionPage;
 import com.example.demo.entity.Person;
+import com.example.demo.exception.InvalidRequestException;
 import com.example.demo.exception.PersonNotFoundException;
+import com.example.demo.exception.PreconditionFailedException;
 import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonFields;
 import com.example.demo.repository.PersonRepository;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.repository.PersonUpdate;
+import com.example.demo.repository.PersonVersion;
+import com.example.demo.routing.ConsistencyToken;
+import com.example.demo.routing.ConsistencyTokens;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,7 +55,6 @@ class PersonServiceTest {
     @Mock
     private PersonMapper personMapper;
 
-    @InjectMocks
     private PersonService personService;
 
     private Person person;
@@ -38,12 +62,18 @@ class PersonServiceTest {
 
     @BeforeEach
     void setUp() {
+        PersonCacheProperties cacheProperties = new PersonCacheProperties(true, 100, Duration.ofMinutes(5), Duration.ofSeconds(30),
+                new PersonCacheProperties.Coherence(false, Duration.ofSeconds(5), Duration.ofSeconds(5)));
+        personService = new PersonService(personRepository, personMapper, new PaginationProperties(100, 1000, 10000),
+                new CaffeinePersonCache(cacheProperties, new SimpleMeterRegistry()), new SimpleMeterRegistry(),
+                new PersonWriteBatcher(personRepository, new WriteBehindProperties(false, 200, Duration.ofMillis(5), 10000, 4, Duration.ofSeconds(10))),
+                new PersonStatistics(personRepository, new PersonStatsProperties(10, Duration.ofMinutes(5)), new SimpleMeterRegistry()));
         person = new Person("1", "John Doe", 30);
         personDto = new PersonDto("1", "John Doe", 30);
     }
 
     @Test
-    void getAllPersons_ShouldReturnListOfPersonDtos() {
+    void getPersonsAfter_WithoutCursor_ShouldReturnFirstPage() {
         // Given
         List<Person> persons = Arrays.asList(
                 new Person("1", "John Doe", 30),
@@ -53,18 +83,172 @@ class PersonServiceTest {
                 new PersonDto("1", "John Doe", 30),
                 new PersonDto("2", "Jane Smith", 25)
         );
-        when(personRepository.findAll()).thenReturn(persons);
+        when(personRepository.findAllByOrderByIdAsc(Limit.of(101))).thenReturn(persons);
         when(personMapper.toDtoList(persons)).thenReturn(personDtos);
 
         // When
-        List<PersonDto> result = personService.getAllPersons();
+        PersonPage result = personService.getPersonsAfter(null, null);
 
         // Then
-        assertThat(result).hasSize(2);
-        assertThat(result.get(0).name()).isEqualTo("John Doe");
-        assertThat(result.get(1).name()).isEqualTo("Jane Smith");
-        verify(personRepository).findAll();
-        verify(personMapper).toDtoList(persons);
+        assertThat(result.items()).hasSize(2);
+        assertThat(result.items().get(0).name()).isEqualTo("John Doe");
+        assertThat(result.items().get(1).name()).isEqualTo("Jane Smith");
+        assertThat(result.nextCursor()).isNull();
+        verify(personRepository).findAllByOrderByIdAsc(Limit.of(101));
+        verify(personRepository, never()).findAll();
+    }
+
+    @Test
+    void getPersonsAfter_WhenMoreResults_ShouldTrimPageAndReturnCursor() {
+        // Given
+        List<Person> persons = Arrays.asList(
+                new Person("2", "Jane Smith", 25),
+                new Person("3", "Jim Beam", 40)
+        );
+        List<PersonDto> firstDto = List.of(new PersonDto("2", "Jane Smith", 25));
+        when(personRepository.findByIdGreaterThanOrderByIdAsc("1", Limit.of(2))).thenReturn(persons);
+        when(personMapper.toDtoList(persons.subList(0, 1))).thenReturn(firstDto);
+
+        // When
+        PersonPage result = personService.getPersonsAfter("1", 1);
+
+        // Then
+        assertThat(result.items()).isEqualTo(firstDto);
+        assertThat(result.nextCursor()).isEqualTo("2");
+    }
+
+    @Test
+    void getPersonsAfter_ShouldClampLimit() {
+        // Given
+        when(personRepository.findAllByOrderByIdAsc(any())).thenReturn(List.of());
+
+        // When
+        personService.getPersonsAfter(null, 1_000_000);
+
+        // Then
+        verify(personRepository).findAllByOrderByIdAsc(Limit.of(1001));
+    }
+
+    @Test
+    void getPersonsPage_ShouldQueryRequestedSlice() {
+        // Given
+        List<Person> persons = List.of(person);
+        when(personRepository.findAllBy(any(Pageable.class))).thenReturn(persons);
+        when(personMapper.toDtoList(persons)).thenReturn(List.of(personDto));
+
+        // When
+        List<PersonDto> result = personService.getPersonsPage(2, 10);
+
+        // Then
+        assertThat(result).containsExactly(personDto);
+        verify(personRepository).findAllBy(argThat(pageable -> pageable.getOffset() == 20 && pageable.getPageSize() == 10));
+    }
+
+    @Test
+    void getPersonsPage_BeyondMaxOffset_ShouldThrowException() {
+        // When & Then
+        assertThatThrownBy(() -> personService.getPersonsPage(100, 100))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(personRepository);
+    }
+
+    @Test
+    void searchPersons_ShouldResumeFromOpaqueCursor() {
+        // Given
+        PersonSearch search = new PersonSearch("Jo", null, null);
+        Person second = new Person("2", "Joe", 40);
+        when(personRepository.search(eq(search), any(), eq(3)))
+                .thenReturn(List.of(person, second, new Person("3", "John", 25)));
+        when(personMapper.toDtoList(any())).thenReturn(List.of());
+        PersonPage first = personService.searchPersons(search, null, 2);
+
+        // When
+        personService.searchPersons(search, first.nextCursor(), 2);
+
+        // Then
+        verify(personRepository).search(search, new Person("2", "Joe", 0), 3);
+    }
+
+    @Test
+    void searchPersons_WithInvalidCursorOrRange_ShouldThrowException() {
+        assertThatThrownBy(() -> personService.searchPersons(new PersonSearch(null, 10, null), "not-a-cursor", 2))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> personService.searchPersons(new PersonSearch(null, 40, 20), null, 2))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(personRepository);
+    }
+
+    @Test
+    void getPersonByIdOrThrow_WithFields_ShouldReadProjectionOnly() {
+        // Given
+        PersonFields fields = new PersonFields(new LinkedHashSet<>(List.of("name", "id")));
+        when(personRepository.findProjectedById("1", fields))
+                .thenReturn(Optional.of(new Document("_id", "1").append("name", "John Doe")));
+
+        // When
+        Map<String, Object> result = personService.getPersonByIdOrThrow("1", "name, id");
+
+        // Then
+        assertThat(result).containsExactly(Map.entry("name", "John Doe"), Map.entry("id", "1"));
+        verify(personRepository, never()).findById(any());
+        verify(personMapper, never()).toDto(any());
+    }
+
+    @Test
+    void getPersonByIdOrThrow_WithFields_ShouldProjectCachedPerson() {
+        // Given
+        when(personRepository.findById("1")).thenReturn(Optional.of(person));
+        when(personMapper.toDto(person)).thenReturn(personDto);
+        personService.getPersonByIdOrThrow("1");
+
+        // When
+        Map<String, Object> result = personService.getPersonByIdOrThrow("1", "age");
+
+        // Then
+        assertThat(result).containsExactly(Map.entry("age", 30));
+        verify(personRepository, never()).findProjectedById(any(), any());
+    }
+
+    @Test
+    void getPersonByIdOrThrow_WithFieldsAfterConsistencyToken_ShouldBypassCache() {
+        // Given
+        when(personRepository.findById("1")).thenReturn(Optional.of(person));
+        when(personMapper.toDto(person)).thenReturn(personDto);
+        personService.getPersonByIdOrThrow("1");
+        PersonFields fields = new PersonFields(Set.of("age"));
+        when(personRepository.findProjectedById("1", fields)).thenReturn(Optional.of(new Document("_id", "1").append("age", 31)));
+        ConsistencyToken token = new ConsistencyToken(new BsonTimestamp(1_700_000_000, 1), new BsonDocument());
+
+        // When
+        Map<String, Object> result = ConsistencyTokens.readAfter(token, () -> personService.getPersonByIdOrThrow("1", "age"));
+
+        // Then
+        assertThat(result).containsExactly(Map.entry("age", 31));
+    }
+
+    @Test
+    void getPersonsAfter_WithFields_ShouldRejectFieldsOutsideWhitelist() {
+        assertThatThrownBy(() -> personService.getPersonsAfter(null, null, "id,_class"))
+                .isInstanceOf(InvalidRequestException.class);
+        assertThatThrownBy(() -> personService.getPersonsAfter(null, null, " , "))
+                .isInstanceOf(InvalidRequestException.class);
+        verifyNoInteractions(personRepository);
+    }
+
+    @Test
+    void getPersonsAfter_WithFields_ShouldUseIdForCursorEvenIfNotRequested() {
+        // Given
+        PersonFields fields = new PersonFields(Set.of("name"));
+        when(personRepository.findProjectedAfter(fields, null, 2)).thenReturn(List.of(
+                new Document("_id", "1").append("name", "John Doe"),
+                new Document("_id", "2").append("name", "Jane Smith")));
+
+        // When
+        PersonProjectionPage result = personService.getPersonsAfter(null, 1, "name");
+
+        // Then
+        assertThat(result.items()).containsExactly(Map.of("name", "John Doe"));
+        assertThat(result.nextCursor()).isEqualTo("1");
     }
 
     @Test
@@ -96,6 +280,68 @@ class PersonServiceTest {
         verify(personMapper, never()).toDto(any());
     }
 
+    @Test
+    void getPersonByIdOrThrow_ShouldServeRepeatedReadsFromCache() {
+        // Given
+        when(personRepository.findById("1")).thenReturn(Optional.of(person));
+        when(personMapper.toDto(person)).thenReturn(personDto);
+
+        // When
+        personService.getPersonByIdOrThrow("1");
+        PersonDto result = personService.getPersonByIdOrThrow("1");
+
+        // Then
+        assertThat(result).isEqualTo(personDto);
+        verify(personRepository, times(1)).findById("1");
+    }
+
+    @Test
+    void getPersonByIdOrThrow_ShouldCacheMisses() {
+        // Given
+        when(personRepository.findById("999")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> personService.getPersonByIdOrThrow("999")).isInstanceOf(PersonNotFoundException.class);
+        assertThatThrownBy(() -> personService.getPersonByIdOrThrow("999")).isInstanceOf(PersonNotFoundException.class);
+        verify(personRepository, times(1)).findById("999");
+    }
+
+    @Test
+    void updatePerson_ShouldInvalidateCachedPerson() {
+        // Given
+        Person updatedPerson = new Person("1", "John Updated", 31);
+        when(personRepository.findById("1")).thenReturn(Optional.of(person), Optional.of(updatedPerson));
+        when(personRepository.updateIfPresent("1", "John Updated", 31, null)).thenReturn(new PersonUpdate(person, updatedPerson));
+        when(personMapper.toDto(any(Person.class))).thenAnswer(invocation -> {
+            Person p = invocation.getArgument(0);
+            return new PersonDto(p.id(), p.name(), p.age());
+        });
+        personService.getPersonByIdOrThrow("1");
+
+        // When
+        personService.updatePerson("1", new PersonDto(null, "John Updated", 31));
+        PersonDto result = personService.getPersonByIdOrThrow("1");
+
+        // Then
+        assertThat(result.name()).isEqualTo("John Updated");
+        verify(personRepository, times(2)).findById("1");
+    }
+
+    @Test
+    void deletePerson_ShouldInvalidateCachedPerson() {
+        // Given
+        when(personRepository.findById("1")).thenReturn(Optional.of(person), Optional.empty());
+        when(personRepository.deleteIfPresent("1")).thenReturn(Optional.of(person));
+        when(personMapper.toDto(person)).thenReturn(personDto);
+        personService.getPersonByIdOrThrow("1");
+
+        // When
+        personService.deletePerson("1");
+
+        // Then
+        assertThatThrownBy(() -> personService.getPersonByIdOrThrow("1")).isInstanceOf(PersonNotFoundException.class);
+    }
+
     @Test
     void createPerson_ShouldReturnCreatedPersonDto() {
         // Given
@@ -124,8 +370,7 @@ class PersonServiceTest {
         Person updatedPerson = new Person("1", "John Updated", 31);
         PersonDto updatedDto = new PersonDto("1", "John Updated", 31);
 
-        when(personRepository.existsById("1")).thenReturn(true);
-        when(personRepository.save(any(Person.class))).thenReturn(updatedPerson);
+        when(personRepository.updateIfPresent("1", "John Updated", 31, null)).thenReturn(new PersonUpdate(person, updatedPerson));
         when(personMapper.toDto(updatedPerson)).thenReturn(updatedDto);
 
         // When
@@ -136,8 +381,8 @@ class PersonServiceTest {
         assertThat(result.id()).isEqualTo("1");
         assertThat(result.name()).isEqualTo("John Updated");
         assertThat(result.age()).isEqualTo(31);
-        verify(personRepository).existsById("1");
-        verify(personRepository).save(any(Person.class));
+        verify(personRepository).updateIfPresent("1", "John Updated", 31, null);
+        verifyNoMoreInteractions(personRepository);
         verify(personMapper).toDto(updatedPerson);
     }
 
@@ -145,38 +390,96 @@ class PersonServiceTest {
     void updatePerson_WhenPersonNotExists_ShouldThrowException() {
         // Given
         PersonDto updateDto = new PersonDto(null, "John Updated", 31);
-        when(personRepository.existsById("999")).thenReturn(false);
+        when(personRepository.updateIfPresent("999", "John Updated", 31, null)).thenReturn(null);
 
         // When & Then
         assertThatThrownBy(() -> personService.updatePerson("999", updateDto))
                 .isInstanceOf(PersonNotFoundException.class);
-        verify(personRepository).existsById("999");
-        verify(personRepository, never()).save(any());
+        verify(personRepository).updateIfPresent("999", "John Updated", 31, null);
+        verifyNoMoreInteractions(personRepository);
+        verify(personMapper, never()).toDto(any());
     }
 
     @Test
-    void deletePerson_WhenPersonExists_ShouldDeletePerson() {
+    void updatePerson_WhenVersionIsStale_ShouldThrowPreconditionFailed() {
         // Given
+        PersonDto updateDto = new PersonDto(null, "John Updated", 31);
+        when(personRepository.updateIfPresent("1", "John Updated", 31, 3L)).thenReturn(null);
         when(personRepository.existsById("1")).thenReturn(true);
-        doNothing().when(personRepository).deleteById("1");
+
+        // When & Then
+        assertThatThrownBy(() -> personService.updatePerson("1", updateDto, 3L))
+                .isInstanceOf(PreconditionFailedException.class);
+        verify(personMapper, never()).toDto(any());
+    }
+
+    @Test
+    void getVersionOrThrow_WhenPersonCached_ShouldNotQueryRepository() {
+        // Given
+        when(personRepository.findById("1")).thenReturn(Optional.of(new Person("1", "John Doe", 30, 4L)));
+        when(personMapper.toDto(any(Person.class))).thenReturn(personDto);
+        personService.getPersonByIdOrThrow("1");
+
+        // When
+        long version = personService.getVersionOrThrow("1");
+
+        // Then
+        assertThat(version).isEqualTo(4L);
+        verify(personRepository, never()).findVersionById("1");
+    }
+
+    @Test
+    void getVersionOrThrow_WhenPersonNotCached_ShouldUseVersionProjection() {
+        // Given
+        when(personRepository.findVersionById("1")).thenReturn(Optional.of(new PersonVersion(7L)));
+
+        // When & Then
+        assertThat(personService.getVersionOrThrow("1")).isEqualTo(7L);
+        verify(personRepository, never()).findById("1");
+    }
+
+    @Test
+    void deletePerson_WhenPersonExists_ShouldDeletePerson() {
+        // Given
+        when(personRepository.deleteIfPresent("1")).thenReturn(Optional.of(person));
 
         // When
         personService.deletePerson("1");
 
         // Then
-        verify(personRepository).existsById("1");
-        verify(personRepository).deleteById("1");
+        verify(personRepository).deleteIfPresent("1");
+        verifyNoMoreInteractions(personRepository);
     }
 
     @Test
     void deletePerson_WhenPersonNotExists_ShouldThrowException() {
         // Given
-        when(personRepository.existsById("999")).thenReturn(false);
+        when(personRepository.deleteIfPresent("999")).thenReturn(Optional.empty());
 
         // When & Then
         assertThatThrownBy(() -> personService.deletePerson("999"))
                 .isInstanceOf(PersonNotFoundException.class);
-        verify(personRepository).existsById("999");
-        verify(personRepository, never()).deleteById(any());
+        verify(personRepository).deleteIfPresent("999");
+        verifyNoMoreInteractions(personRepository);
+    }
+
+    @Test
+    void getStats_ShouldReflectWritesWithoutQueryingRepository() {
+        // Given
+        when(personRepository.countByAge()).thenReturn(Map.of(30, 1L, 25, 1L));
+        when(personRepository.updateIfPresent("1", "John Doe", 41, null))
+                .thenReturn(new PersonUpdate(person, new Person("1", "John Doe", 41, 1L)));
+        when(personRepository.deleteIfPresent("2")).thenReturn(Optional.of(new Person("2", "Jane Smith", 25)));
+        when(personMapper.toDto(any(Person.class))).thenReturn(personDto);
+        personService.getStats();
+
+        // When
+        personService.updatePerson("1", new PersonDto(null, "John Doe", 41));
+        personService.deletePerson("2");
+
+        // Then
+        assertThat(personService.getStats().count()).isEqualTo(1);
+        assertThat(personService.getStats().minAge()).isEqualTo(41);
+        verify(personRepository, times(1)).countByAge();
     }
 }
@@ -0,0 +1,154 @@
+package com.example.demo.service;
+
+import com.example.demo.config.PersonStatsProperties;
+import com.example.demo.dto.PersonStats;
+import com.example.demo.dto.PersonStats.AgeBucket;
+import com.example.demo.repository.PersonRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class PersonStatisticsTest {
+
+    private static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Mock
+    private PersonRepository personRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PersonStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        statistics = new PersonStatistics(personRepository, new PersonStatsProperties(10, Duration.ofMinutes(5)),
+                meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void current_ShouldSeedOnceFromAggregation() {
+        // Given
+        when(personRepository.countByAge()).thenReturn(Map.of(18, 2L, 19, 1L, 42, 1L));
+
+        // When
+        PersonStats stats = statistics.current();
+        statistics.current();
+
+        // Then
+        assertThat(stats.count()).isEqualTo(4);
+        assertThat(stats.minAge()).isEqualTo(18);
+        assertThat(stats.maxAge()).isEqualTo(42);
+        assertThat(stats.meanAge()).isEqualTo(24.25);
+        assertThat(stats.ageHistogram()).containsExactly(new AgeBucket(10, 19, 3), new AgeBucket(40, 49, 1));
+        assertThat(stats.reconciledAt()).isEqualTo(NOW);
+        verify(personRepository, times(1)).countByAge();
+    }
+
+    @Test
+    void recordWrites_ShouldUpdateSnapshotIncrementally() {
+        // Given
+        when(personRepository.countByAge()).thenReturn(Map.of(30, 1L, 50, 1L));
+        statistics.current();
+
+        // When
+        statistics.recordCreated(20);
+        statistics.recordUpdated(50, 35);
+        statistics.recordDeleted(30);
+
+        // Then
+        PersonStats stats = statistics.current();
+        assertThat(stats.count()).isEqualTo(2);
+        assertThat(stats.minAge()).isEqualTo(20);
+        assertThat(stats.maxAge()).isEqualTo(35);
+        assertThat(stats.ageHistogram()).containsExactly(new AgeBucket(20, 29, 1), new AgeBucket(30, 39, 1));
+    }
+
+    @Test
+    void recordDeleted_WhenLastPersonRemoved_ShouldReturnEmptyStats() {
+        // Given
+        when(personRepository.countByAge()).thenReturn(Map.of(30, 1L));
+        statistics.current();
+
+        // When
+        statistics.recordDeleted(30);
+
+        // Then
+        PersonStats stats = statistics.current();
+        assertThat(stats.count()).isZero();
+        assertThat(stats.minAge()).isNull();
+        assertThat(stats.meanAge()).isNull();
+        assertThat(stats.ageHistogram()).isEmpty();
+    }
+
+    @Test
+    void reconcile_ShouldCorrectDriftAndCountIt() {
+        // Given
+        when(personRepository.countByAge()).thenReturn(Map.of(30, 2L), Map.of(30, 1L, 60, 3L));
+        statistics.current();
+        statistics.recordCreated(30);
+
+        // When
+        long drift = statistics.reconcile();
+
+        // Then
+        assertThat(drift).isEqualTo(5);
+        assertThat(statistics.current().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("persons.stats.drift").counter().count()).isEqualTo(5);
+    }
+
+    @Test
+    void reconcile_ShouldKeepWritesRecordedDuringAggregation() {
+        // Given
+        when(personRepository.countByAge()).thenReturn(Map.of(30, 2L)).thenAnswer(invocation -> {
+            // Écritures validées après la lecture de Mongo par l'agrégation
+            statistics.recordCreated(40);
+            statistics.recordDeleted(30);
+            return Map.of(30, 2L);
+        });
+        statistics.current();
+
+        // When
+        long drift = statistics.reconcile();
+
+        // Then
+        PersonStats stats = statistics.current();
+        assertThat(drift).isZero();
+        assertThat(stats.count()).isEqualTo(2);
+        assertThat(stats.ageHistogram()).containsExactly(new AgeBucket(30, 39, 1), new AgeBucket(40, 49, 1));
+    }
+
+    @Test
+    void reconcile_ShouldNotCountTwiceWritesSeenByAggregation() {
+        // Given
+        when(personRepository.countByAge()).thenReturn(Map.of(30, 2L)).thenAnswer(invocation -> {
+            // Écriture validée avant que l'agrégation ne lise l'âge 40 : déjà dans son résultat
+            statistics.recordCreated(40);
+            return Map.of(30, 2L, 40, 1L);
+        });
+        statistics.current();
+
+        // When
+        long drift = statistics.reconcile();
+
+        // Then
+        PersonStats stats = statistics.current();
+        assertThat(drift).isZero();
+        assertThat(stats.count()).isEqualTo(3);
+        assertThat(stats.ageHistogram()).containsExactly(new AgeBucket(30, 39, 2), new AgeBucket(40, 49, 1));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.demo.service;
+
+import com.example.demo.config.WriteBehindProperties;
+import com.example.demo.entity.Person;
+import com.example.demo.exception.ServiceOverloadedException;
+import com.example.demo.repository.PersonBulkWriteResult;
+import com.example.demo.repository.PersonRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PersonWriteBatcherTest {
+
+    @Mock
+    private PersonRepository personRepository;
+
+    private PersonWriteBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        batcher.stop();
+    }
+
+    @Test
+    void insert_WithConcurrentCallers_ShouldShareOneBulkWrite() throws Exception {
+        // Given
+        batcher = start(new WriteBehindProperties(true, 10, Duration.ofSeconds(5), 100, 1, Duration.ofSeconds(5)));
+        when(personRepository.bulkWrite(any(), eq(false))).thenAnswer(invocation -> {
+            List<Person> batch = invocation.getArgument(0);
+            List<String> ids = batch.stream().map(person -> "id-" + person.name()).toList();
+            return new PersonBulkWriteResult(ids, Map.of());
+        });
+        List<Future<Person>> results = new ArrayList<>();
+
+        // When
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 10; i++) {
+                Person person = new Person("Person " + i, 20 + i);
+                results.add(executor.submit(() -> batcher.insert(person)));
+            }
+        }
+
+        // Then
+        for (int i = 0; i < 10; i++) {
+            assertThat(results.get(i).get()).isEqualTo(new Person("id-Person " + i, "Person " + i, 20 + i, 0L));
+        }
+        verify(personRepository, times(1)).bulkWrite(any(), anyBoolean());
+    }
+
+    @Test
+    void insert_ShouldFlushIncompleteBatchAfterMaxDelay() {
+        // Given
+        batcher = start(new WriteBehindProperties(true, 100, Duration.ofMillis(5), 100, 1, Duration.ofSeconds(5)));
+        when(personRepository.bulkWrite(any(), eq(false))).thenReturn(new PersonBulkWriteResult(List.of("1"), Map.of()));
+
+        // When
+        Person result = batcher.insert(new Person("John Doe", 30));
+
+        // Then
+        assertThat(result).isEqualTo(new Person("1", "John Doe", 30, 0L));
+    }
+
+    @Test
+    void insert_WhenItemFails_ShouldThrowForThatCaller() {
+        // Given
+        batcher = start(new WriteBehindProperties(true, 100, Duration.ofMillis(5), 100, 1, Duration.ofSeconds(5)));
+        when(personRepository.bulkWrite(any(), eq(false)))
+                .thenReturn(new PersonBulkWriteResult(List.of("1"), Map.of(0, "Document failed validation")));
+
+        // When & Then
+        assertThatThrownBy(() -> batcher.insert(new Person("John Doe", 30)))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessage("Document failed validation");
+    }
+
+    @Test
+    void insert_WhenBatchIsNeverAcknowledged_ShouldGiveUpAfterAckTimeout() {
+        // Given
+        batcher = start(new WriteBehindProperties(true, 100, Duration.ofMillis(5), 100, 1, Duration.ofMillis(200)));
+        CountDownLatch release = new CountDownLatch(1);
+        when(personRepository.bulkWrite(any(), eq(false))).thenAnswer(invocation -> {
+            release.await();
+            return new PersonBulkWriteResult(List.of("1"), Map.of());
+        });
+
+        // When & Then
+        try {
+            assertThatThrownBy(() -> batcher.insert(new Person("John Doe", 30)))
+                    .isInstanceOf(ServiceOverloadedException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void insert_WithClientId_ShouldBeRejected() {
+        // Given
+        batcher = start(new WriteBehindProperties(true, 100, Duration.ofMillis(5), 100, 1, Duration.ofSeconds(5)));
+
+        // When & Then
+        assertThatThrownBy(() -> batcher.insert(new Person("1", "John Doe", 30)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(personRepository);
+    }
+
+    @Test
+    void insert_WhenNotRunning_ShouldRejectWithOverload() {
+        // Given
+        batcher = new PersonWriteBatcher(personRepository, new WriteBehindProperties(true, 100, Duration.ofMillis(5), 1, 1, Duration.ofSeconds(5)));
+
+        // When & Then
+        assertThatThrownBy(() -> batcher.insert(new Person("John Doe", 30)))
+                .isInstanceOf(ServiceOverloadedException.class);
+        verifyNoInteractions(personRepository);
+    }
+
+    private PersonWriteBatcher start(WriteBehindProperties properties) {
+        PersonWriteBatcher started = new PersonWriteBatcher(personRepository, properties);
+        started.start();
+        return started;
+    }
+}
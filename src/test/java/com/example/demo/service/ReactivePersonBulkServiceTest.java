@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.config.BulkProperties;
+import com.example.demo.dto.BulkItemResult;
+import com.example.demo.dto.BulkItemResult.Status;
+import com.example.demo.dto.BulkResponse;
+import com.example.demo.dto.PersonDto;
+import com.example.demo.entity.Person;
+import com.example.demo.mapper.PersonMapper;
+import com.example.demo.repository.PersonBulkWriteResult;
+import com.example.demo.repository.ReactivePersonRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.codec.DecodingException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactivePersonBulkServiceTest {
+
+    @Mock
+    private ReactivePersonRepository personRepository;
+
+    @Mock
+    private PersonMapper personMapper;
+
+    @Mock
+    private PersonStatistics statistics;
+
+    private ReactivePersonBulkService personBulkService;
+
+    @BeforeEach
+    void setUp() {
+        personBulkService = new ReactivePersonBulkService(personRepository, personMapper, new BulkProperties(2), statistics);
+        lenient().when(personMapper.toEntity(any(PersonDto.class)))
+                .thenAnswer(invocation -> {
+                    PersonDto dto = invocation.getArgument(0);
+                    return new Person(dto.id(), dto.name(), dto.age());
+                });
+    }
+
+    @Test
+    void importPersons_ShouldWriteInBatches() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(true))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of()));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(Flux.just(
+                new PersonDto(null, "John Doe", 30), new PersonDto(null, "Jane Smith", 25), new PersonDto("42", "Jim Beam", 40)), true).block();
+
+        // Then
+        assertThat(response).isEqualTo(new BulkResponse(3, 0, List.of(
+                new BulkItemResult(0, "generated-John Doe", Status.OK, null),
+                new BulkItemResult(1, "generated-Jane Smith", Status.OK, null),
+                new BulkItemResult(2, "42", Status.OK, null)), null));
+        verify(personRepository).bulkWrite(List.of(new Person("John Doe", 30), new Person("Jane Smith", 25)), true);
+        verify(personRepository).bulkWrite(List.of(new Person("42", "Jim Beam", 40)), true);
+        verify(statistics).recordCreated(30);
+        verify(statistics).recordCreated(40);
+    }
+
+    @Test
+    void importPersons_Ordered_ShouldStopReadingAtFirstError() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(true))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of(0, "E11000 duplicate key")));
+        Flux<PersonDto> body = Flux.range(0, 10).map(i -> new PersonDto(null, "Person " + i, 20 + i));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body, true).block();
+
+        // Then
+        assertThat(response.succeeded()).isZero();
+        assertThat(response.items()).extracting(BulkItemResult::status).containsExactly(Status.ERROR, Status.SKIPPED);
+        verify(personRepository, times(1)).bulkWrite(any(), anyBoolean());
+    }
+
+    @Test
+    void importPersons_WithMalformedItem_ShouldWriteWhatWasDecoded() {
+        // Given
+        when(personRepository.bulkWrite(any(), eq(true))).thenAnswer(invocation -> written(invocation.getArgument(0), Map.of()));
+        Flux<PersonDto> body = Flux.concat(
+                Flux.just(new PersonDto(null, "John Doe", 30), new PersonDto(null, "Jane Smith", 25), new PersonDto(null, "Jim Beam", 40)),
+                Flux.error(new DecodingException("JSON decoding error")));
+
+        // When
+        BulkResponse response = personBulkService.importPersons(body, true).block();
+
+        // Then
+        assertThat(response.succeeded()).isEqualTo(3);
+        assertThat(response.error()).isEqualTo("Malformed bulk body after item 3");
+        verify(personRepository).bulkWrite(List.of(new Person("Jim Beam", 40)), true);
+    }
+
+    private static Mono<PersonBulkWriteResult> written(List<Person> batch, Map<Integer, String> errors) {
+        List<String> ids = batch.stream()
+                .map(person -> person.id() != null ? person.id() : "generated-" + person.name())
+                .toList();
+        return Mono.just(new PersonBulkWriteResult(ids, errors, clientIdIndexes(batch, errors)));
+    }
+
+    // Ids clients encore absents : chaque upsert crée son document
+    private static Set<Integer> clientIdIndexes(List<Person> batch, Map<Integer, String> errors) {
+        return IntStream.range(0, batch.size())
+                .filter(i -> batch.get(i).id() != null && !errors.containsKey(i))
+                .boxed()
+                .collect(Collectors.toSet());
+    }
+}
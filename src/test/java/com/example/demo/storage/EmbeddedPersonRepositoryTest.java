@@ -0,0 +1,309 @@
+package com.example.demo.storage;
+
+import com.example.demo.entity.Person;
+import com.example.demo.repository.PersonBulkWriteResult;
+import com.example.demo.repository.PersonFields;
+import com.example.demo.repository.PersonSearch;
+import com.example.demo.repository.PersonUpdate;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmbeddedPersonRepositoryTest {
+
+    private EmbeddedPersonRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = new EmbeddedPersonRepository(16);
+    }
+
+    @Test
+    void save_WithoutVersion_ShouldInsertAtVersionZeroWithObjectId() {
+        // When
+        Person saved = repository.save(new Person("John Doe", 30));
+
+        // Then
+        assertThat(ObjectId.isValid(saved.id())).isTrue();
+        assertThat(saved.version()).isZero();
+        assertThat(repository.findById(saved.id())).contains(saved);
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void save_WithStaleVersion_ShouldThrowOptimisticLockingFailure() {
+        // Given
+        Person saved = repository.save(new Person("p1", "John Doe", 30));
+        Person updated = repository.save(new Person(saved.id(), "John Smith", 31, saved.version()));
+
+        // When & Then
+        assertThat(updated.version()).isEqualTo(1);
+        assertThatThrownBy(() -> repository.save(new Person(saved.id(), "Jane Smith", 32, saved.version())))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+        assertThatThrownBy(() -> repository.insert(new Person("p1", "Jane Smith", 32)))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThat(repository.findById("p1")).contains(updated);
+    }
+
+    @Test
+    void findByIdGreaterThan_ShouldFollowMongoIdOrder() {
+        // Given
+        String objectId = repository.save(new Person("Object", 20)).id();
+        repository.save(new Person("b", "Second", 21));
+        repository.save(new Person("a", "First", 22));
+
+        // When
+        List<Person> all = repository.findAllByOrderByIdAsc(Limit.of(10));
+        List<Person> afterStrings = repository.findByIdGreaterThanOrderByIdAsc("b", Limit.of(10));
+
+        // Then
+        assertThat(all).extracting(Person::id).containsExactly("a", "b", objectId);
+        assertThat(afterStrings).extracting(Person::id).containsExactly(objectId);
+        assertThat(repository.findAllBy(PageRequest.of(1, 2, Sort.by("id")))).extracting(Person::id)
+                .containsExactly(objectId);
+        assertThat(repository.findAll(Sort.by(Sort.Direction.DESC, "age"))).extracting(Person::id)
+                .containsExactly("a", "b", objectId);
+    }
+
+    @Test
+    void updateIfPresent_ShouldReturnPreviousAndMoveAgeIndex() {
+        // Given
+        Person saved = repository.save(new Person("p1", "John Doe", 30));
+        repository.save(new Person("p2", "Jane Doe", 30));
+
+        // When
+        PersonUpdate update = repository.updateIfPresent("p1", "John Smith", 45, 0L);
+        PersonUpdate stale = repository.updateIfPresent("p1", "John Smith", 46, 0L);
+
+        // Then
+        assertThat(update.previous()).isEqualTo(saved);
+        assertThat(update.current()).isEqualTo(new Person("p1", "John Smith", 45, 1L));
+        assertThat(stale).isNull();
+        assertThat(repository.updateIfPresent("missing", "Nobody", 1, null)).isNull();
+        assertThat(repository.countByAge()).isEqualTo(Map.of(30, 1L, 45, 1L));
+    }
+
+    @Test
+    void search_ByAgeRange_ShouldResumeAfterCursor() {
+        // Given
+        repository.save(new Person("p1", "A", 30));
+        repository.save(new Person("p2", "B", 31));
+        repository.save(new Person("p3", "C", 31));
+        repository.save(new Person("p4", "D", 32));
+        repository.save(new Person("p5", "E", 40));
+        PersonSearch search = new PersonSearch(null, 31, 35);
+
+        // When
+        List<Person> first = repository.search(search, null, 2);
+        List<Person> next = repository.search(search, first.getLast(), 2);
+
+        // Then
+        assertThat(first).extracting(Person::id).containsExactly("p2", "p3");
+        assertThat(next).extracting(Person::id).containsExactly("p4");
+    }
+
+    @Test
+    void search_ByNamePrefix_ShouldFilterAgeAndResumeAfterCursor() {
+        // Given
+        repository.save(new Person("n1", "Alice", 20));
+        repository.save(new Person("n2", "Albert", 50));
+        repository.save(new Person("n3", "Alex", 25));
+        repository.save(new Person("n4", "Bob", 30));
+        PersonSearch search = new PersonSearch("Al", null, 40);
+
+        // When
+        List<Person> first = repository.search(search, null, 1);
+        List<Person> next = repository.search(search, first.getLast(), 10);
+
+        // Then
+        assertThat(first).extracting(Person::name).containsExactly("Alex");
+        assertThat(next).extracting(Person::name).containsExactly("Alice");
+    }
+
+    @Test
+    void bulkWrite_ShouldInsertNewIdsAndUpsertExistingOnes() {
+        // Given
+        repository.save(new Person("p1", "John Doe", 30));
+
+        // When
+        PersonBulkWriteResult result = repository.bulkWrite(
+                List.of(new Person("p1", "John Smith", 31), new Person("p2", "Jane Doe", 25), new Person("New", 40)), true);
+
+        // Then
+        assertThat(result.errors()).isEmpty();
+        assertThat(result.upserted()).containsExactly(1);
+        assertThat(result.ids()).hasSize(3).startsWith("p1", "p2");
+        assertThat(repository.findById("p1")).contains(new Person("p1", "John Smith", 31, 1L));
+        assertThat(repository.findById("p2")).contains(new Person("p2", "Jane Doe", 25, 1L));
+        assertThat(repository.findById(result.ids().get(2))).get().extracting(Person::version).isEqualTo(0L);
+    }
+
+    @Test
+    void deleteIfPresent_ShouldReleaseRowAndNameForReuse() {
+        // Given
+        repository.save(new Person("p1", "John Doe", 30));
+
+        // When
+        assertThat(repository.deleteIfPresent("p1")).contains(new Person("p1", "John Doe", 30, 0L));
+        repository.save(new Person("p2", "Jane Doe", 30));
+
+        // Then
+        assertThat(repository.deleteIfPresent("p1")).isEmpty();
+        assertThat(repository.findAll()).containsExactly(new Person("p2", "Jane Doe", 30, 0L));
+        assertThat(repository.search(new PersonSearch("John", null, null), null, 10)).isEmpty();
+        assertThatThrownBy(() -> repository.delete(new Person("p2", "Jane Doe", 30, 7L)))
+                .isInstanceOf(OptimisticLockingFailureException.class);
+    }
+
+    @Test
+    void findAllByExample_ShouldApplyMatcherLikeMongo() {
+        // Given
+        repository.save(new Person("p1", "Alice Martin", 30));
+        repository.save(new Person("p2", "alain Durand", 40));
+        repository.save(new Person("p3", "Bob Martin", 30));
+        repository.save(new Person("p4", null, 50));
+        ExampleMatcher startsWithIgnoringCase = ExampleMatcher.matching()
+                .withIgnorePaths("age")
+                .withStringMatcher(ExampleMatcher.StringMatcher.STARTING)
+                .withIgnoreCase();
+
+        // When
+        List<Person> byPrefix = repository.findAll(Example.of(new Person("al", 0), startsWithIgnoringCase));
+        List<Person> byAge = repository.findAll(Example.of(new Person(null, 30)), Sort.by("name").descending());
+        List<Person> anyMatching = repository.findAll(Example.of(new Person("Bob Martin", 50), ExampleMatcher.matchingAny()));
+        long withoutName = repository.count(Example.of(new Person(null, 0),
+                ExampleMatcher.matching().withIgnorePaths("age", "version").withIncludeNullValues()));
+
+        // Then
+        assertThat(byPrefix).extracting(Person::id).containsExactly("p1", "p2");
+        assertThat(byAge).extracting(Person::id).containsExactly("p3", "p1");
+        assertThat(anyMatching).extracting(Person::id).containsExactly("p3", "p4");
+        assertThat(withoutName).isEqualTo(1);
+        assertThat(repository.findOne(Example.of(new Person("Bob Martin", 30)))).get().extracting(Person::id).isEqualTo("p3");
+        assertThat(repository.exists(Example.of(new Person("Nobody", 30)))).isFalse();
+    }
+
+    @Test
+    void findByExample_ShouldSortLimitAndPageInMemory() {
+        // Given
+        for (int i = 0; i < 5; i++) {
+            repository.save(new Person("p" + i, "Person " + i, i % 2 == 0 ? 20 : 30));
+        }
+        Example<Person> twenty = Example.of(new Person(null, 20));
+
+        // When
+        List<Person> sorted = repository.findBy(twenty, query -> query.sortBy(Sort.by("name").descending()).all());
+        Page<Person> page = repository.findBy(twenty, query -> query.page(PageRequest.of(1, 2)));
+        Person first = repository.findBy(twenty, query -> query.firstValue());
+
+        // Then
+        assertThat(sorted).extracting(Person::id).containsExactly("p4", "p2", "p0");
+        assertThat(page.getContent()).extracting(Person::id).containsExactly("p4");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(first.id()).isEqualTo("p0");
+        assertThat(repository.findBy(twenty, query -> query.count())).isEqualTo(3);
+        assertThatThrownBy(() -> repository.findBy(twenty, query -> query.oneValue()))
+                .isInstanceOf(IncorrectResultSizeDataAccessException.class);
+    }
+
+    record NameAndAge(String name, int age, String nickname) {}
+
+    @Test
+    void findByExample_WithDtoProjection_ShouldBindConstructorParametersByName() {
+        // Given
+        repository.save(new Person("p1", "John Doe", 30));
+
+        // When
+        List<NameAndAge> projected = repository.findBy(Example.of(new Person("John Doe", 30)),
+                query -> query.as(NameAndAge.class).all());
+
+        // Then
+        assertThat(projected).containsExactly(new NameAndAge("John Doe", 30, null));
+    }
+
+    @Test
+    void findProjectedById_ShouldReturnIdAndRequestedFieldsOnly() {
+        // Given
+        repository.save(new Person("p1", "John Doe", 30));
+
+        // When
+        Document document = repository.findProjectedById("p1", new PersonFields(Set.of("name"))).orElseThrow();
+
+        // Then
+        assertThat(document).containsOnlyKeys("_id", "name").containsEntry("name", "John Doe");
+    }
+
+    @Test
+    void streamAllBy_ShouldWalkEveryPageInIdOrder() {
+        // Given
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            persons.add(new Person("Person " + i, i % 100));
+        }
+        List<String> ids = repository.bulkWrite(persons, false).ids();
+
+        // When
+        List<String> streamed;
+        try (Stream<Person> stream = repository.streamAllBy()) {
+            streamed = stream.map(Person::id).toList();
+        }
+
+        // Then
+        assertThat(streamed).hasSize(2_500).isSorted().containsExactlyInAnyOrderElementsOf(ids);
+    }
+
+    @Test
+    void snapshot_ShouldRestoreRowsAndIndexes(@TempDir Path directory) throws IOException {
+        // Given
+        repository.save(new Person("custom-id", "John Doe", 30));
+        repository.save(new Person("Jane Doe", 25));
+        repository.save(new Person(null, 40));
+        String removed = repository.save(new Person("Removed", 50)).id();
+        repository.deleteById(removed);
+        Path snapshot = directory.resolve("persons.snapshot");
+
+        // When
+        repository.snapshot(snapshot);
+        EmbeddedPersonRepository restored = EmbeddedPersonRepository.restore(snapshot, 16);
+        Person added = restored.save(new Person("Jane Smith", 26));
+
+        // Then
+        assertThat(restored.findAll()).startsWith(repository.findAll().toArray(Person[]::new)).endsWith(added);
+        assertThat(restored.findById("custom-id")).contains(new Person("custom-id", "John Doe", 30, 0L));
+        assertThat(restored.search(new PersonSearch("Jane", null, null), null, 10)).extracting(Person::name)
+                .containsExactly("Jane Doe", "Jane Smith");
+        assertThat(restored.countByAge()).isEqualTo(Map.of(30, 1L, 25, 1L, 40, 1L, 26, 1L));
+    }
+
+    @Test
+    void restore_WithForeignFile_ShouldFail(@TempDir Path directory) throws IOException {
+        // Given
+        Path file = Files.writeString(directory.resolve("persons.snapshot"), "not a snapshot");
+
+        // When & Then
+        assertThatThrownBy(() -> EmbeddedPersonRepository.restore(file, 16)).isInstanceOf(IOException.class);
+    }
+}